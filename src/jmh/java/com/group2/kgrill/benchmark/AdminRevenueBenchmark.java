@@ -0,0 +1,79 @@
+package com.group2.kgrill.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group2.kgrill.controller.AdminController;
+import com.group2.kgrill.service.impl.RevenueRollupServiceImpl;
+import com.group2.kgrill.util.ServiceResponseReader;
+import com.swd392.group2.kgrill_service.service.DeliveryOrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AdminRevenueBenchmark {
+
+    @Param({"10000", "100000"})
+    private int orderCount;
+
+    private AdminController controller;
+    private LocalDate today;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        TreeMap<YearMonth, List<Map<String, Object>>> ordersByMonth = new TreeMap<>();
+        for (Map<String, Object> order : SyntheticData.orders(orderCount, 24)) {
+            YearMonth month = YearMonth.from(LocalDateTime.ofInstant(
+                    java.time.OffsetDateTime.parse((String) order.get("Delivery_order_date")).toInstant(), ZoneId.systemDefault()));
+            ordersByMonth.computeIfAbsent(month, key -> new ArrayList<>()).add(order);
+        }
+        List<Map<String, Object>> months = ordersByMonth.keySet().stream()
+                .map(month -> Map.<String, Object>of("order_date", month.toString()))
+                .toList();
+
+        DeliveryOrderService deliveryOrderService = ServiceFakes.fake(DeliveryOrderService.class, Map.of(
+                "getRevenueByPeriod", args -> ResponseEntity.ok(SyntheticData.page(months, (int) args[0], (int) args[1])),
+                "getDeliveryOrderDetailByAdmin", args -> ResponseEntity.ok(SyntheticData.page(
+                        ordersByMonth.getOrDefault(YearMonth.from((LocalDate) args[5]), List.of()), (int) args[0], (int) args[1]))));
+
+        RevenueRollupServiceImpl revenueRollupService = new RevenueRollupServiceImpl(
+                deliveryOrderService, new ServiceResponseReader(objectMapper));
+        revenueRollupService.rebuild();
+        controller = new AdminController(deliveryOrderService, null, null, revenueRollupService, null, null, null, null, null, null, null, null);
+        today = LocalDate.now();
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> dailyRevenue() {
+        return controller.revenue(0, 10, "orderDate", "desc", "daily", today);
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> monthlyRevenueSortedByTotal() {
+        return controller.revenue(0, 10, "totalRevenue", "desc", "monthly", today);
+    }
+}
@@ -0,0 +1,96 @@
+package com.group2.kgrill.benchmark;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group2.kgrill.controller.DeliveryOrderController;
+import com.group2.kgrill.event.DeliveryOrderEvent;
+import com.group2.kgrill.service.impl.CartServiceImpl;
+import com.group2.kgrill.service.impl.CatalogPricingServiceImpl;
+import com.group2.kgrill.service.impl.NotificationOutboxServiceImpl;
+import com.group2.kgrill.service.impl.StockReservationServiceImpl;
+import com.group2.kgrill.service.impl.StubPushNotificationSender;
+import com.group2.kgrill.util.ServiceResponseReader;
+import com.swd392.group2.kgrill_service.dto.mobiledto.DeliveryOrderDtoForCheckOut;
+import com.swd392.group2.kgrill_service.service.DeliveryOrderService;
+import com.swd392.group2.kgrill_service.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CheckoutBenchmark {
+
+    private DeliveryOrderController controller;
+    private NotificationOutboxServiceImpl notificationOutbox;
+    private DeliveryOrderDtoForCheckOut checkOut;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Checkout reads the cart for the stock reservation and the order id; its line has no package, so no
+        // ingredient is reserved
+        Map<String, Object> cart = Map.of(
+                "Delivery_order_id", 1L,
+                "details", List.of(Map.of("order_detail_id", 1, "quantity", 2)));
+        DeliveryOrderService deliveryOrderService = ServiceFakes.fake(DeliveryOrderService.class, Map.of(
+                "getOrderDetailAfterLogin", args -> cart,
+                "checkOutOrder", args -> true));
+        UserService userService = ServiceFakes.fake(UserService.class, Map.of(
+                "getDeviceTokenByUserId", args -> "device-token-" + args[0]));
+
+        notificationOutbox = new NotificationOutboxServiceImpl(userService, new StubPushNotificationSender(),
+                100_000, 500, 5, 1000, 500, 10);
+        notificationOutbox.start();
+        ApplicationEventPublisher eventPublisher = event -> {
+            if (event instanceof DeliveryOrderEvent deliveryOrderEvent) {
+                notificationOutbox.onDeliveryOrderEvent(deliveryOrderEvent);
+            }
+        };
+        ServiceResponseReader responseReader = new ServiceResponseReader(new ObjectMapper());
+        CatalogPricingServiceImpl catalogPricingService = new CatalogPricingServiceImpl(null, null, null, responseReader, 50);
+        CartServiceImpl cartService = new CartServiceImpl(deliveryOrderService, catalogPricingService, null, responseReader, 50, 3, 30);
+        StockReservationServiceImpl stockReservationService = new StockReservationServiceImpl(
+                catalogPricingService, responseReader, new ObjectMapper(), 15, 24, "");
+        controller = new DeliveryOrderController(deliveryOrderService, null, null, cartService, null, stockReservationService, null, eventPublisher);
+
+        UUID userId = UUID.randomUUID();
+        checkOut = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .convertValue(Map.of("userId", userId.toString(), "user_id", userId.toString()), DeliveryOrderDtoForCheckOut.class);
+
+        // A fake that stops answering must fail the run, not be measured
+        ResponseEntity<Object> response = checkOutOrder();
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw new IllegalStateException("Checkout answered " + response.getStatusCode() + " " + response.getBody());
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        notificationOutbox.stop();
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> checkOutOrder() {
+        return controller.checkOutOrder(checkOut, null);
+    }
+}
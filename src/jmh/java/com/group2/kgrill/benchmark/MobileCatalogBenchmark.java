@@ -0,0 +1,66 @@
+package com.group2.kgrill.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group2.kgrill.controller.PackageControllerForMobile;
+import com.group2.kgrill.service.impl.MobileCatalogServiceImpl;
+import com.group2.kgrill.util.ServiceResponseReader;
+import com.swd392.group2.kgrill_service.service.PackageService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MobileCatalogBenchmark {
+
+    @Param({"100", "1000"})
+    private int packageCount;
+
+    private PackageControllerForMobile controller;
+    private String eTag;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        List<SyntheticData.PackageView> packages = SyntheticData.packages(packageCount);
+        PackageService packageService = ServiceFakes.fake(PackageService.class, Map.of(
+                "getAllPackageOnMobile", args -> packages));
+
+        MobileCatalogServiceImpl catalogService = new MobileCatalogServiceImpl(
+                packageService, new ServiceResponseReader(objectMapper), objectMapper);
+        controller = new PackageControllerForMobile(catalogService, null);
+        eTag = catalogService.getCurrentETag();
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> fullCatalog() {
+        return controller.getAllFoodPackageOnMobile(null, null);
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> keywordSearch() {
+        return controller.getAllFoodPackageOnMobile("bo nuo", null);
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> notModified() {
+        return controller.getAllFoodPackageOnMobile(null, eTag);
+    }
+}
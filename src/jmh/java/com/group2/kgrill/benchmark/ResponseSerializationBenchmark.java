@@ -0,0 +1,46 @@
+package com.group2.kgrill.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swd392.group2.kgrill_service.exception.CustomSuccessHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ResponseSerializationBenchmark {
+
+    @Param({"50", "500"})
+    private int packageCount;
+
+    private ObjectMapper objectMapper;
+    private List<SyntheticData.PackageView> packages;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        packages = SyntheticData.packages(packageCount);
+    }
+
+    @Benchmark
+    public byte[] serializePackageList() throws Exception {
+        return objectMapper.writeValueAsBytes(
+                CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully get package list", packages).getBody());
+    }
+}
@@ -0,0 +1,30 @@
+package com.group2.kgrill.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Builds in-memory fakes of the kgrill-service interfaces. Only the methods a benchmark exercises are answered,
+ * anything else fails loudly so a benchmark never silently measures a null path.
+ */
+final class ServiceFakes {
+
+    private ServiceFakes() {
+    }
+
+    static <T> T fake(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            return switch (method.getName()) {
+                case "toString" -> "Fake" + type.getSimpleName();
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " is not faked");
+            };
+        }));
+    }
+}
@@ -0,0 +1,88 @@
+package com.group2.kgrill.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+final class SyntheticData {
+
+    private static final String[] PACKAGE_WORDS = {
+            "Combo", "Bò", "nướng", "Lẩu", "Tứ Xuyên", "GoGi", "Hoàng Kim", "Sườn", "Mỹ", "Hải sản", "Gà", "Daehak", "Smart"
+    };
+    private static final String[] STATUSES = {"Processing", "Preparing", "Delivering", "Delivered", "Delivered", "Delivered", "Cancelled"};
+
+    private SyntheticData() {
+    }
+
+    record DishView(@JsonProperty("dish_id") int id,
+                    @JsonProperty("dish_name") String name,
+                    @JsonProperty("dish_price") double price) {
+    }
+
+    record PackageView(@JsonProperty("package_id") int id,
+                       @JsonProperty("package_name") String name,
+                       @JsonProperty("package_price") double price,
+                       @JsonProperty("package_size") String size,
+                       @JsonProperty("thumbnail_url") String thumbnailUrl,
+                       @JsonProperty("dishes") List<DishView> dishes) {
+    }
+
+    static List<PackageView> packages(int count) {
+        Random random = new Random(42);
+        List<PackageView> packages = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            String name = PACKAGE_WORDS[random.nextInt(PACKAGE_WORDS.length)] + " "
+                    + PACKAGE_WORDS[random.nextInt(PACKAGE_WORDS.length)] + " "
+                    + PACKAGE_WORDS[random.nextInt(PACKAGE_WORDS.length)] + " " + id;
+            List<DishView> dishes = new ArrayList<>();
+            for (int d = 0; d < 4; d++) {
+                dishes.add(new DishView(id * 10 + d, PACKAGE_WORDS[random.nextInt(PACKAGE_WORDS.length)] + " " + d,
+                        50_000 + random.nextInt(200_000)));
+            }
+            packages.add(new PackageView(id, name, 200_000 + random.nextInt(1_500_000), random.nextBoolean() ? "M" : "L",
+                    "https://res.cloudinary.com/kgrill/image/upload/package-" + id + ".jpg", dishes));
+        }
+        return packages;
+    }
+
+    /**
+     * Orders spread over the last {@code months} months, shaped like the admin revenue detail projection.
+     */
+    static List<Map<String, Object>> orders(int count, int months) {
+        Random random = new Random(7);
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        List<Map<String, Object>> orders = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            LocalDateTime orderDate = now.minusMinutes(random.nextInt(months * 30 * 24 * 60));
+            Map<String, Object> order = new LinkedHashMap<>();
+            order.put("Delivery_order_id", id);
+            order.put("User_name", "User " + random.nextInt(5_000));
+            order.put("Package_name", List.of(PACKAGE_WORDS[random.nextInt(PACKAGE_WORDS.length)] + " combo"));
+            order.put("Delivery_order_status", STATUSES[random.nextInt(STATUSES.length)]);
+            order.put("Delivery_order_date", orderDate.atOffset(ZoneOffset.UTC).toString());
+            order.put("Delivery_shipped_date", orderDate.plusHours(1).atOffset(ZoneOffset.UTC).toString());
+            order.put("Shipper_name", "Shipper " + random.nextInt(200));
+            order.put("Delivery_order_value", 100_000 + random.nextInt(2_000_000));
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    static Map<String, Object> page(List<?> rows, int pageNo, int pageSize) {
+        int from = Math.min(pageNo * pageSize, rows.size());
+        int to = Math.min(from + pageSize, rows.size());
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("content", rows.subList(from, to));
+        data.put("page_no", pageNo);
+        data.put("page_size", pageSize);
+        data.put("total_elements", rows.size());
+        data.put("last", to >= rows.size());
+        return Map.of("data", data);
+    }
+}
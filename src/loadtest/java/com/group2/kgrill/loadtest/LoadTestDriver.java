@@ -0,0 +1,149 @@
+package com.group2.kgrill.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Closed-loop HTTP load generator: {@code load.concurrency} clients (virtual threads) send requests back to back
+ * for {@code load.duration-seconds} and the throughput and latency percentiles are printed and written as JSON.
+ * Run it once against a server started with {@code kgrill.server.execution-mode=platform} and once with
+ * {@code virtual} to compare the two modes on the same endpoint. The default target is the mobile package search.
+ * <p>
+ * Error responses (status 400 and above) and failed connections are timed like the successful ones but reported
+ * apart, so a run against a failing endpoint shows its errors instead of an inflated throughput.
+ */
+public class LoadTestDriver {
+
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(System.getProperty("load.url", "http://localhost:8080/mobile/food-package/search?value="));
+        String method = System.getProperty("load.method", "POST");
+        String body = System.getProperty("load.body", "");
+        String authorization = System.getProperty("load.authorization", "");
+        int concurrency = Integer.getInteger("load.concurrency", 200);
+        Duration duration = Duration.ofSeconds(Integer.getInteger("load.duration-seconds", 30));
+        Duration warmup = Duration.ofSeconds(Integer.getInteger("load.warmup-seconds", 5));
+        Path result = Path.of(System.getProperty("load.result", "target/load-test-result.json"));
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .method(method, body.isEmpty() ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (!authorization.isEmpty()) {
+            builder.header("Authorization", authorization);
+        }
+        HttpRequest request = builder.build();
+
+        System.out.printf("Warming up %s %s with %d clients for %ds%n", method, uri, concurrency, warmup.toSeconds());
+        run(client, request, concurrency, warmup);
+        System.out.printf("Measuring for %ds%n", duration.toSeconds());
+        Run run = run(client, request, concurrency, duration);
+
+        long[] latencies = run.latenciesMicros(Latencies::successes);
+        long[] errorLatencies = run.latenciesMicros(Latencies::errors);
+        double seconds = run.elapsedNanos / 1e9;
+        String json = String.format(Locale.ROOT,
+                "{\"url\":\"%s\",\"method\":\"%s\",\"concurrency\":%d,\"duration_seconds\":%.3f,\"requests\":%d,"
+                        + "\"errors\":%d,\"throughput_rps\":%.2f,\"latency_ms\":%s,\"error_latency_ms\":%s}",
+                uri, method, concurrency, seconds, latencies.length + errorLatencies.length, errorLatencies.length,
+                latencies.length / seconds, percentiles(latencies), percentiles(errorLatencies));
+        System.out.println(json);
+        if (latencies.length == 0 && errorLatencies.length > 0) {
+            System.err.println("Every request failed, check load.url, load.method and load.authorization");
+        }
+        if (result.getParent() != null) {
+            Files.createDirectories(result.getParent());
+        }
+        Files.writeString(result, json);
+    }
+
+    private static Run run(HttpClient client, HttpRequest request, int concurrency, Duration duration) throws Exception {
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + duration.toNanos();
+        List<Future<Latencies>> clients = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                clients.add(executor.submit(() -> {
+                    Recorder successes = new Recorder();
+                    Recorder errors = new Recorder();
+                    while (System.nanoTime() < deadline) {
+                        long sentAt = System.nanoTime();
+                        boolean failed;
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            failed = response.statusCode() >= 400;
+                        } catch (IOException e) {
+                            failed = true;
+                        }
+                        (failed ? errors : successes).record((System.nanoTime() - sentAt) / 1000);
+                    }
+                    return new Latencies(successes.toArray(), errors.toArray());
+                }));
+            }
+        }
+        List<Latencies> perClient = new ArrayList<>(concurrency);
+        for (Future<Latencies> future : clients) {
+            perClient.add(future.get());
+        }
+        return new Run(System.nanoTime() - startedAt, perClient);
+    }
+
+    private static String percentiles(long[] sortedMicros) {
+        return String.format(Locale.ROOT, "{\"p50\":%.3f,\"p95\":%.3f,\"p99\":%.3f,\"max\":%.3f}",
+                percentile(sortedMicros, 0.50), percentile(sortedMicros, 0.95), percentile(sortedMicros, 0.99), percentile(sortedMicros, 1.0));
+    }
+
+    private static double percentile(long[] sortedMicros, double percentile) {
+        if (sortedMicros.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedMicros.length) - 1;
+        return sortedMicros[Math.max(index, 0)] / 1000.0;
+    }
+
+    private static final class Recorder {
+
+        private long[] micros = new long[1024];
+        private int size;
+
+        void record(long latencyMicros) {
+            if (size == micros.length) {
+                micros = Arrays.copyOf(micros, size * 2);
+            }
+            micros[size++] = latencyMicros;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(micros, size);
+        }
+    }
+
+    private record Latencies(long[] successes, long[] errors) {
+    }
+
+    private record Run(long elapsedNanos, List<Latencies> perClient) {
+
+        long[] latenciesMicros(Function<Latencies, long[]> kind) {
+            long[] latencies = perClient.stream().map(kind).flatMapToLong(Arrays::stream).toArray();
+            Arrays.sort(latencies);
+            return latencies;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.group2.kgrill.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PACKAGE_DETAIL = "packageDetail";
+    public static final String MOBILE_PACKAGE_DETAIL = "mobilePackageDetail";
+    public static final String DISH_DETAIL = "dishDetail";
+    public static final String INGREDIENT_DETAIL = "ingredientDetail";
+
+    // Weight of a value that does not report its size
+    private static final int DEFAULT_WEIGHT_BYTES = 1024;
+
+    /**
+     * A cached value that knows the size of its JSON form, measured once when it was cached.
+     */
+    public interface SizedValue {
+        int sizeBytes();
+    }
+
+    @Bean
+    public CacheManager cacheManager(@Value("${kgrill.cache.detail.max-bytes:8388608}") long maxBytes,
+                                     @Value("${kgrill.cache.detail.expire-minutes:30}") long expireMinutes) {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(
+                detailCache(PACKAGE_DETAIL, maxBytes, expireMinutes),
+                detailCache(MOBILE_PACKAGE_DETAIL, maxBytes, expireMinutes),
+                detailCache(DISH_DETAIL, maxBytes, expireMinutes),
+                detailCache(INGREDIENT_DETAIL, maxBytes, expireMinutes)));
+        return cacheManager;
+    }
+
+    // Entries are weighed by their JSON size, so a few large packages cannot crowd out the heap budget
+    private static CaffeineCache detailCache(String name, long maxBytes, long expireMinutes) {
+        return new CaffeineCache(name, Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Object key, Object value) -> value instanceof SizedValue sized ? sized.sizeBytes() : DEFAULT_WEIGHT_BYTES)
+                .expireAfterWrite(Duration.ofMinutes(expireMinutes))
+                .recordStats()
+                .build());
+    }
+}
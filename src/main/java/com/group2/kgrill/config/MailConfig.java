@@ -0,0 +1,49 @@
+package com.group2.kgrill.config;
+
+import com.group2.kgrill.service.impl.InMemoryMailSender;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.Properties;
+
+/**
+ * Mail transport behind the outbox, selected with {@code kgrill.mail.transport}: {@code smtp} (default) is
+ * configured from the usual {@code spring.mail.*} properties, {@code memory} records messages in process.
+ * Defining a mail sender here switches Boot's own mail sender auto-configuration off.
+ */
+@Configuration
+@EnableConfigurationProperties(MailProperties.class)
+public class MailConfig {
+
+    @Bean(name = "mailTransport")
+    @ConditionalOnProperty(name = "kgrill.mail.transport", havingValue = "smtp", matchIfMissing = true)
+    public JavaMailSenderImpl smtpMailTransport(MailProperties properties) {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost(properties.getHost());
+        if (properties.getPort() != null) {
+            sender.setPort(properties.getPort());
+        }
+        sender.setUsername(properties.getUsername());
+        sender.setPassword(properties.getPassword());
+        sender.setProtocol(properties.getProtocol());
+        if (properties.getDefaultEncoding() != null) {
+            sender.setDefaultEncoding(properties.getDefaultEncoding().name());
+        }
+        if (!properties.getProperties().isEmpty()) {
+            Properties javaMailProperties = new Properties();
+            javaMailProperties.putAll(properties.getProperties());
+            sender.setJavaMailProperties(javaMailProperties);
+        }
+        return sender;
+    }
+
+    @Bean(name = "mailTransport")
+    @ConditionalOnProperty(name = "kgrill.mail.transport", havingValue = "memory")
+    public InMemoryMailSender inMemoryMailTransport() {
+        return new InMemoryMailSender();
+    }
+}
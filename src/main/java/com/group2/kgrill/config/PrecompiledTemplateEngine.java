@@ -0,0 +1,143 @@
+package com.group2.kgrill.config;
+
+import com.group2.kgrill.dto.TemplateRenderStats;
+import lombok.extern.slf4j.Slf4j;
+import org.thymeleaf.cache.ICache;
+import org.thymeleaf.cache.TemplateCacheKey;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.context.ITemplateContext;
+import org.thymeleaf.dialect.AbstractProcessorDialect;
+import org.thymeleaf.engine.TemplateModel;
+import org.thymeleaf.model.ITemplateEnd;
+import org.thymeleaf.model.ITemplateStart;
+import org.thymeleaf.processor.IProcessor;
+import org.thymeleaf.processor.templateboundaries.AbstractTemplateBoundariesProcessor;
+import org.thymeleaf.processor.templateboundaries.ITemplateBoundariesStructureHandler;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Template engine that parses every template into Thymeleaf's template cache at startup and renders it once,
+ * so the first mails after a deploy do not pay for parsing, DOM building and SpEL compilation. Each render
+ * is timed per template through a template-boundaries processor.
+ */
+@Slf4j
+public class PrecompiledTemplateEngine extends SpringTemplateEngine {
+
+    private final Map<String, RenderTiming> timings = new ConcurrentHashMap<>();
+    private final ThreadLocal<Deque<Long>> renderStarts = ThreadLocal.withInitial(ArrayDeque::new);
+
+    public PrecompiledTemplateEngine() {
+        addDialect(new RenderTimingDialect());
+    }
+
+    /**
+     * Parses the templates into the template cache by rendering each once with an empty model.
+     */
+    public void precompile(Collection<String> templateNames) {
+        for (String templateName : templateNames) {
+            long startedAt = System.nanoTime();
+            try {
+                // The first render parses the template into the cache and compiles its SpEL expressions
+                process(templateName, new Context());
+                long precompileNanos = System.nanoTime() - startedAt;
+                RenderTiming timing = timing(templateName);
+                timing.precompileNanos = precompileNanos;
+                timing.precompiled = isCached(templateName);
+                log.info("Precompiled template {} in {} µs", templateName, TimeUnit.NANOSECONDS.toMicros(precompileNanos));
+            } catch (RuntimeException e) {
+                log.warn("Could not precompile template {}", templateName, e);
+            }
+        }
+    }
+
+    public List<TemplateRenderStats> getStats() {
+        List<TemplateRenderStats> stats = new ArrayList<>(timings.size());
+        timings.forEach((templateName, timing) -> {
+            long renders = timing.renders.sum();
+            stats.add(TemplateRenderStats.builder()
+                    .template(templateName)
+                    .precompiled(timing.precompiled)
+                    .precompileMicros(TimeUnit.NANOSECONDS.toMicros(timing.precompileNanos))
+                    .renders(renders)
+                    .averageRenderMicros(renders == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(timing.totalNanos.sum() / renders))
+                    .maxRenderMicros(TimeUnit.NANOSECONDS.toMicros(timing.maxNanos.get()))
+                    .build());
+        });
+        return stats;
+    }
+
+    private boolean isCached(String templateName) {
+        ICache<TemplateCacheKey, TemplateModel> cache = getConfiguration().getCacheManager() == null
+                ? null
+                : getConfiguration().getCacheManager().getTemplateCache();
+        return cache != null && cache.keySet().stream().anyMatch(key -> templateName.equals(key.getTemplate()));
+    }
+
+    private RenderTiming timing(String templateName) {
+        return timings.computeIfAbsent(templateName, name -> new RenderTiming());
+    }
+
+    private static final class RenderTiming {
+
+        private final LongAdder renders = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private volatile long precompileNanos;
+        private volatile boolean precompiled;
+    }
+
+    private final class RenderTimingDialect extends AbstractProcessorDialect {
+
+        private RenderTimingDialect() {
+            super("KGrill render timing", "kgrill-timing", Integer.MIN_VALUE);
+        }
+
+        @Override
+        public Set<IProcessor> getProcessors(String dialectPrefix) {
+            return Set.of(new RenderTimingProcessor(TemplateMode.HTML), new RenderTimingProcessor(TemplateMode.TEXT));
+        }
+    }
+
+    private final class RenderTimingProcessor extends AbstractTemplateBoundariesProcessor {
+
+        private RenderTimingProcessor(TemplateMode templateMode) {
+            super(templateMode, Integer.MIN_VALUE);
+        }
+
+        @Override
+        public void doProcessTemplateStart(ITemplateContext context, ITemplateStart templateStart,
+                                           ITemplateBoundariesStructureHandler structureHandler) {
+            renderStarts.get().push(System.nanoTime());
+        }
+
+        @Override
+        public void doProcessTemplateEnd(ITemplateContext context, ITemplateEnd templateEnd,
+                                         ITemplateBoundariesStructureHandler structureHandler) {
+            Deque<Long> starts = renderStarts.get();
+            Long startedAt = starts.poll();
+            if (starts.isEmpty()) {
+                renderStarts.remove();
+            }
+            if (startedAt != null) {
+                long elapsed = System.nanoTime() - startedAt;
+                RenderTiming timing = timing(context.getTemplateData().getTemplate());
+                timing.renders.increment();
+                timing.totalNanos.add(elapsed);
+                timing.maxNanos.accumulate(elapsed);
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.group2.kgrill.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+public class SchedulingConfig {
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${kgrill.scheduling.pool-size:4}") int poolSize) {
+        // Long running jobs (e.g. the nightly revenue rebuild) must not hold up the short periodic flushes
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("kgrill-scheduler-");
+        return scheduler;
+    }
+}
@@ -0,0 +1,69 @@
+package com.group2.kgrill.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.thymeleaf.dialect.IDialect;
+import org.thymeleaf.templateresolver.ITemplateResolver;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces Boot's default Thymeleaf engine (same resolvers and dialects) with {@link PrecompiledTemplateEngine}
+ * and the SpEL compiler switched on, and precompiles every template under {@code spring.thymeleaf.prefix} once the
+ * application is ready. Needs {@code spring.thymeleaf.cache} to stay at its default, {@code true}.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(ThymeleafProperties.class)
+public class TemplateEngineConfig {
+
+    @Bean
+    public PrecompiledTemplateEngine templateEngine(ThymeleafProperties properties,
+                                                    ObjectProvider<ITemplateResolver> templateResolvers,
+                                                    ObjectProvider<IDialect> dialects) {
+        PrecompiledTemplateEngine engine = new PrecompiledTemplateEngine();
+        engine.setEnableSpringELCompiler(true);
+        engine.setRenderHiddenMarkersBeforeCheckboxes(properties.isRenderHiddenMarkersBeforeCheckboxes());
+        templateResolvers.orderedStream().forEach(engine::addTemplateResolver);
+        dialects.orderedStream().forEach(engine::addDialect);
+        return engine;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void precompileTemplates(ApplicationReadyEvent event) {
+        ThymeleafProperties properties = event.getApplicationContext().getBean(ThymeleafProperties.class);
+        PrecompiledTemplateEngine engine = event.getApplicationContext().getBean(PrecompiledTemplateEngine.class);
+        if (!properties.isCache()) {
+            log.info("Thymeleaf template cache is disabled, skipping template precompilation");
+            return;
+        }
+        engine.precompile(templateNames(properties));
+    }
+
+    private static List<String> templateNames(ThymeleafProperties properties) {
+        String prefix = properties.getPrefix();
+        String suffix = properties.getSuffix();
+        List<String> names = new ArrayList<>();
+        try {
+            Resource root = new PathMatchingResourcePatternResolver().getResource(prefix);
+            String rootUri = root.getURI().toString();
+            for (Resource template : new PathMatchingResourcePatternResolver().getResources(prefix + "**/*" + suffix)) {
+                String uri = template.getURI().toString();
+                names.add(uri.substring(rootUri.length(), uri.length() - suffix.length()));
+            }
+        } catch (IOException e) {
+            log.warn("Could not list templates under {}", prefix, e);
+        }
+        return names;
+    }
+}
@@ -0,0 +1,33 @@
+package com.group2.kgrill.config;
+
+import com.group2.kgrill.service.TokenVerificationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "kgrill.token-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class TokenVerificationConfig implements WebMvcConfigurer {
+
+    private final TokenVerificationService tokenVerificationService;
+
+    @Bean
+    public FilterRegistrationBean<TokenVerificationFilter> tokenVerificationFilter() {
+        FilterRegistrationBean<TokenVerificationFilter> registration =
+                new FilterRegistrationBean<>(new TokenVerificationFilter(tokenVerificationService));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new TokenVerificationInterceptor(tokenVerificationService))
+                .excludePathPatterns("/auth/**");
+    }
+}
@@ -0,0 +1,51 @@
+package com.group2.kgrill.config;
+
+import com.group2.kgrill.service.TokenVerificationService;
+import com.group2.kgrill.util.BearerTokens;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Runs ahead of the Spring Security chain. For a bearer token with a cached verification it hands the
+ * security chain an already authenticated context, so the JWT filter finds an authentication in place and
+ * skips re-verifying the signature and querying the token table.
+ */
+@RequiredArgsConstructor
+public class TokenVerificationFilter extends OncePerRequestFilter {
+
+    static final String CACHED_AUTHENTICATION_ATTRIBUTE = TokenVerificationFilter.class.getName() + ".CACHED";
+
+    private final TokenVerificationService tokenVerificationService;
+    private final SecurityContextRepository securityContextRepository = new RequestAttributeSecurityContextRepository();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String token = BearerTokens.resolve(request);
+        if (token != null) {
+            tokenVerificationService.lookup(token).ifPresent(authentication -> {
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(authentication);
+                securityContextRepository.saveContext(context, request, response);
+                request.setAttribute(CACHED_AUTHENTICATION_ATTRIBUTE, Boolean.TRUE);
+            });
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Sign-in, refresh and logout must always see the token table
+        return request.getServletPath().startsWith("/auth/");
+    }
+}
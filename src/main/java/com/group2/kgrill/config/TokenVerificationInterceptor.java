@@ -0,0 +1,35 @@
+package com.group2.kgrill.config;
+
+import com.group2.kgrill.service.TokenVerificationService;
+import com.group2.kgrill.util.BearerTokens;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Runs after the security chain accepted the request and caches the authentication the JWT filter
+ * established for its bearer token.
+ */
+@RequiredArgsConstructor
+public class TokenVerificationInterceptor implements HandlerInterceptor {
+
+    private final TokenVerificationService tokenVerificationService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(TokenVerificationFilter.CACHED_AUTHENTICATION_ATTRIBUTE) != null) {
+            return true;
+        }
+        String token = BearerTokens.resolve(request);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (token != null && authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            tokenVerificationService.remember(token, authentication);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,42 @@
+package com.group2.kgrill.config;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Request execution mode of the embedded Undertow server, selected with {@code kgrill.server.execution-mode}.
+ * {@code platform} (default) keeps Undertow's fixed worker pool; {@code virtual} dispatches every servlet request
+ * (and async continuation) to its own virtual thread, so requests blocked on FCM, Cloudinary or Google sign-in
+ * no longer hold a worker.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "kgrill.server.execution-mode", havingValue = "virtual")
+public class UndertowExecutionConfig {
+
+    // Not a bean on purpose: an Executor bean would replace Boot's applicationTaskExecutor
+    private final ExecutorService requestExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("kgrill-request-", 0).factory());
+
+    @Bean
+    public WebServerFactoryCustomizer<UndertowServletWebServerFactory> virtualThreadRequestExecution() {
+        return factory -> factory.addDeploymentInfoCustomizers(deploymentInfo -> {
+            log.info("Undertow request handling runs on virtual threads");
+            deploymentInfo.setExecutor(requestExecutor)
+                    .setAsyncExecutor(requestExecutor);
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        requestExecutor.close();
+    }
+}
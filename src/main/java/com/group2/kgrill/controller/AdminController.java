@@ -1,11 +1,23 @@
 package com.group2.kgrill.controller;
 
+import com.group2.kgrill.config.PrecompiledTemplateEngine;
+import com.group2.kgrill.dto.CacheStatsDTO;
+import com.group2.kgrill.service.CatalogDetailCacheService;
+import com.group2.kgrill.service.CatalogPricingService;
+import com.group2.kgrill.service.MailOutboxService;
+import com.group2.kgrill.service.NotificationOutboxService;
+import com.group2.kgrill.service.RateLimitService;
+import com.group2.kgrill.service.RevenueDetailExportService;
+import com.group2.kgrill.service.RevenueRollupService;
+import com.group2.kgrill.service.TokenVerificationService;
 import com.swd392.group2.kgrill_service.dto.CustomUserProfile;
+import com.swd392.group2.kgrill_service.exception.CustomSuccessHandler;
 import com.swd392.group2.kgrill_service.service.DeliveryOrderService;
 import com.swd392.group2.kgrill_service.service.ShipperService;
 import com.swd392.group2.kgrill_service.service.UserService;
 import com.swd392.group2.kgrill_service.util.AppConstants;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -15,10 +27,16 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -30,6 +48,15 @@ public class AdminController {
     private final DeliveryOrderService deliveryOrderService;
     private final ShipperService shipperService;
     private final UserService userService;
+    private final RevenueRollupService revenueRollupService;
+    private final RevenueDetailExportService revenueDetailExportService;
+    private final NotificationOutboxService notificationOutboxService;
+    private final CatalogDetailCacheService catalogDetailCacheService;
+    private final TokenVerificationService tokenVerificationService;
+    private final RateLimitService rateLimitService;
+    private final MailOutboxService mailOutboxService;
+    private final PrecompiledTemplateEngine templateEngine;
+    private final CatalogPricingService catalogPricingService;
 
     @Operation(
             summary = "View user profile by admin",
@@ -93,7 +120,10 @@ public class AdminController {
     @PutMapping(value = "/management/account")
     public ResponseEntity<Object> userProfile(@NotNull UUID id,
                                                     @RequestBody @Valid CustomUserProfile customUserProfile) {
-        return userService.updateUserProfileByAdmin(id, customUserProfile);
+        ResponseEntity<Object> response = userService.updateUserProfileByAdmin(id, customUserProfile);
+        // A lock, disable or role change must not wait for cached authentications of the account to expire
+        tokenVerificationService.revokeAccount(customUserProfile.getEmail());
+        return response;
     }
 
     @Operation(
@@ -175,7 +205,22 @@ public class AdminController {
         if (date == null) {
             date = LocalDate.now(); // Sử dụng ngày hiện tại nếu không có giá trị truyền vào
         }
-        return deliveryOrderService.getRevenueByPeriod(pageNo, pageSize, sortBy, sortDir, period, date.plusDays(1));
+        return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully retrieved revenue",
+                revenueRollupService.getRevenueByPeriod(pageNo, pageSize, sortBy, sortDir, period, date));
+    }
+
+    @Operation(
+            summary = "Rebuild revenue rollup",
+            description = "Rebuild the pre-aggregated revenue buckets from the order history in order to repair drift.",
+            tags = {"Admin"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Revenue rollup rebuilt successfully"),
+            @ApiResponse(responseCode = "400", description = "Fail to rebuild revenue rollup"),
+    })
+    @PostMapping(value = "/revenue/rebuild")
+    public ResponseEntity<Object> rebuildRevenue() {
+        revenueRollupService.rebuild();
+        return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully rebuilt revenue rollup", "");
     }
 
     @Operation(
@@ -246,6 +291,36 @@ public class AdminController {
         return deliveryOrderService.getDeliveryOrderDetailByAdmin(pageNo, pageSize, sortBy, sortDir, period, date);
     }
 
+    @Operation(
+            summary = "Export revenue detail",
+            description = "Stream every revenue detail row of a period as NDJSON or CSV in a single response.",
+            tags = {"Admin"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Revenue detail exported successfully"),
+            @ApiResponse(responseCode = "400", description = "Fail to export revenue detail"),
+    })
+    @GetMapping(value = "/revenue-details/export")
+    public ResponseEntity<StreamingResponseBody> exportRevenueDetails(
+            @Parameter(description = "ndjson or csv") @RequestParam(name = "format", defaultValue = "ndjson", required = false) String format,
+            @RequestParam(name = "period", defaultValue = "monthly", required = false) String period,
+            @RequestParam(name = "date", defaultValue = "", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) {
+        LocalDate exportDate = date == null ? LocalDate.now() : date;
+        RevenueDetailExportService.ExportFormat exportFormat = "csv".equalsIgnoreCase(format)
+                ? RevenueDetailExportService.ExportFormat.CSV
+                : RevenueDetailExportService.ExportFormat.NDJSON;
+        StreamingResponseBody body = outputStream ->
+                revenueDetailExportService.exportRevenueDetails(outputStream, exportFormat, period, exportDate);
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat == RevenueDetailExportService.ExportFormat.CSV
+                        ? new MediaType("text", "csv")
+                        : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"revenue-details-" + period + "-" + exportDate
+                        + (exportFormat == RevenueDetailExportService.ExportFormat.CSV ? ".csv" : ".ndjson") + "\"")
+                .body(body);
+    }
+
     @Operation(
             summary = "Get shipper's list of delivery order",
             description = "Get shipper's list of delivery order to show in admin panel . \n" +
@@ -344,7 +419,90 @@ public class AdminController {
         return shipperService.getAllShippersByAdmin(pageNo, pageSize, sortBy, sortDir);
     }
 
+    @Operation(
+            summary = "Get push notification outbox status",
+            description = "Get queued, retrying and sent counters of the push notification outbox together with its dead letters.",
+            tags = {"Admin"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Notification outbox status retrieve successfully"),
+            @ApiResponse(responseCode = "401", description = "You have no permission to access this page"),
+    })
+    @GetMapping(value = "/notification-outbox")
+    public ResponseEntity<Object> notificationOutbox() {
+        return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully retrieved notification outbox status",
+                notificationOutboxService.getStatus());
+    }
 
+    @Operation(
+            summary = "Get mail outbox status",
+            description = "Get queued, retrying and sent counters of the mail outbox, the number of SMTP sessions used and its dead letters.",
+            tags = {"Admin"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Mail outbox status retrieve successfully"),
+            @ApiResponse(responseCode = "401", description = "You have no permission to access this page"),
+    })
+    @GetMapping(value = "/mail-outbox")
+    public ResponseEntity<Object> mailOutbox() {
+        return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully retrieved mail outbox status",
+                mailOutboxService.getStatus());
+    }
 
+    @Operation(
+            summary = "Get mail template render statistics",
+            description = "Get the startup precompile time and the render count, average and maximum render time of each mail template.",
+            tags = {"Admin"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Template render statistics retrieve successfully"),
+            @ApiResponse(responseCode = "401", description = "You have no permission to access this page"),
+    })
+    @GetMapping(value = "/template-stats")
+    public ResponseEntity<Object> templateStats() {
+        return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully retrieved template render statistics",
+                templateEngine.getStats());
+    }
+
+    @Operation(
+            summary = "Get catalog pricing graph statistics",
+            description = "Get the size of the ingredient, dish and package pricing graph and, for the latest catalog " +
+                    "changes, how many dishes and packages each one recomputed.",
+            tags = {"Admin"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Catalog pricing statistics retrieve successfully"),
+            @ApiResponse(responseCode = "401", description = "You have no permission to access this page"),
+    })
+    @GetMapping(value = "/catalog-pricing-stats")
+    public ResponseEntity<Object> catalogPricingStats() {
+        return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully retrieved catalog pricing statistics",
+                catalogPricingService.getStats());
+    }
 
+    @Operation(
+            summary = "Get detail cache statistics",
+            description = "Get hit, miss, eviction and size counters of the package, dish and ingredient detail caches " +
+                    "and of the JWT verification cache.",
+            tags = {"Admin"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cache statistics retrieve successfully"),
+            @ApiResponse(responseCode = "401", description = "You have no permission to access this page"),
+    })
+    @GetMapping(value = "/cache-stats")
+    public ResponseEntity<Object> cacheStats() {
+        List<CacheStatsDTO> stats = new ArrayList<>(catalogDetailCacheService.getStats());
+        stats.add(tokenVerificationService.getStats());
+        return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully retrieved cache statistics", stats);
+    }
+
+    @Operation(
+            summary = "Get authentication rate limit statistics",
+            description = "Get the limits, allowed and throttled counters and active bucket count of every sign-in and register rate limit policy.",
+            tags = {"Admin"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rate limit statistics retrieve successfully"),
+            @ApiResponse(responseCode = "401", description = "You have no permission to access this page"),
+    })
+    @GetMapping(value = "/rate-limit-stats")
+    public ResponseEntity<Object> rateLimitStats() {
+        return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully retrieved rate limit statistics",
+                rateLimitService.getStats());
+    }
 }
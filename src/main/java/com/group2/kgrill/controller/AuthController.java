@@ -1,8 +1,13 @@
 package com.group2.kgrill.controller;
 
+import com.group2.kgrill.service.RateLimitService;
+import com.group2.kgrill.service.TokenVerificationService;
+import com.group2.kgrill.util.BearerTokens;
+import com.group2.kgrill.util.ClientAddressResolver;
 import com.nimbusds.jose.JOSEException;
 import com.swd392.group2.kgrill_service.config.LogoutServiceConfig;
 import com.swd392.group2.kgrill_service.dto.AuthenticationRequest;
+import com.swd392.group2.kgrill_service.dto.AuthenticationResponse;
 import com.swd392.group2.kgrill_service.dto.GoogleAuthenticationRequest;
 import com.swd392.group2.kgrill_service.dto.RegistrationRequest;
 import com.swd392.group2.kgrill_service.exception.CustomSuccessHandler;
@@ -20,6 +25,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -27,6 +33,9 @@ import org.springframework.web.bind.annotation.*;
 
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("auth")
@@ -38,6 +47,12 @@ public class AuthController {
 
     private final LogoutServiceConfig logoutServiceConfig;
 
+    private final TokenVerificationService tokenVerificationService;
+
+    private final RateLimitService rateLimitService;
+
+    private final ClientAddressResolver clientAddressResolver;
+
     @Operation(summary = "Register a new account", description = "To register a new account, all information must be filled out completely and cannot be left blank." + " Upon successful registration, a verification email will be sent to the user's Gmail account.")
     @ApiResponses(value = {@ApiResponse(responseCode = "202", description = "Successfully Registered", content = @Content(examples = @ExampleObject(value = """
             {
@@ -54,10 +69,16 @@ public class AuthController {
             "data": {
                 "email": "must be a well-formed email address",
                 "password": "must be at least 8 characters long"
-            }"""))),})
+            }"""))), @ApiResponse(responseCode = "429", description = "Too many registration attempts, retry after the number of seconds in the Retry-After header"),})
     @PostMapping("/register")
     @ResponseStatus(HttpStatus.ACCEPTED)
-    public ResponseEntity<Object> register(@RequestBody @Valid RegistrationRequest request) throws MessagingException, UnsupportedEncodingException {
+    public ResponseEntity<Object> register(@RequestBody @Valid RegistrationRequest request, HttpServletRequest servletRequest) throws MessagingException, UnsupportedEncodingException {
+        RateLimitService.Decision decision = rateLimitService.tryAcquire(
+                RateLimitService.Policy.REGISTER_IP, clientAddressResolver.resolve(servletRequest),
+                RateLimitService.Policy.REGISTER_ACCOUNT, accountOf(request.getEmail()));
+        if (!decision.allowed()) {
+            return tooManyAttempts(decision, "Too many registration attempts, please try again later");
+        }
         authService.register(request);
         return CustomSuccessHandler.responseBuilder(HttpStatus.ACCEPTED, "Successfully Register", "Please check your email for account verification.");
     }
@@ -90,11 +111,20 @@ public class AuthController {
                  "time_stamp": "05/26/2024 21:24:57",
                  "message": "Account is disabled please contact administrator for more information"
                }
-            """))),})
+            """))), @ApiResponse(responseCode = "429", description = "Too many sign-in attempts, retry after the number of seconds in the Retry-After header"),})
     @PostMapping("/signin")
     @ResponseStatus(HttpStatus.OK)
-    public ResponseEntity<?> signIn(@RequestBody @Valid AuthenticationRequest request) throws JOSEException {
-        return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully SignIn", authService.authenticate(request));
+    public ResponseEntity<?> signIn(@RequestBody @Valid AuthenticationRequest request, HttpServletRequest servletRequest) throws JOSEException {
+        // Checked before authenticate so throttled attempts never reach password hashing
+        RateLimitService.Decision decision = rateLimitService.tryAcquire(
+                RateLimitService.Policy.SIGN_IN_IP, clientAddressResolver.resolve(servletRequest),
+                RateLimitService.Policy.SIGN_IN_ACCOUNT, accountOf(request.getEmail()));
+        if (!decision.allowed()) {
+            return tooManyAttempts(decision, "Too many sign-in attempts, please try again later");
+        }
+        AuthenticationResponse tokens = authService.authenticate(request);
+        tokenVerificationService.onTokensIssued(tokens);
+        return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully SignIn", tokens);
     }
 
     @Operation(summary = "Enter confirmation code", description = "After registering successfully, the user will need to enter the 6-digit confirmation code sent " + "to their email to activate the account.")
@@ -110,6 +140,7 @@ public class AuthController {
     @PostMapping("/logout")
     @ResponseStatus(HttpStatus.OK)
     public void logout(HttpServletRequest request, HttpServletResponse response, Authentication authentication) {
+        revokeCachedTokens(request);
         logoutServiceConfig.logout(request, response, authentication);
     }
 
@@ -123,6 +154,7 @@ public class AuthController {
     @PostMapping("/refresh-token")
     @ResponseStatus(HttpStatus.OK)
     public void refreshToken(HttpServletRequest request, HttpServletResponse response) throws IOException, JOSEException {
+        revokeCachedTokens(request);
         authService.refreshToken(request, response);
     }
 
@@ -153,6 +185,27 @@ public class AuthController {
     @CrossOrigin(origins = "*")
     @ResponseStatus(HttpStatus.OK)
     public ResponseEntity<?> googleSignIn(@RequestBody GoogleAuthenticationRequest request) throws JOSEException {
-        return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully SignIn with Google", authService.findOrCreateUser(request));
+        AuthenticationResponse tokens = authService.findOrCreateUser(request);
+        tokenVerificationService.onTokensIssued(tokens);
+        return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully SignIn with Google", tokens);
+    }
+
+    private static String accountOf(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static ResponseEntity<Object> tooManyAttempts(RateLimitService.Decision decision, String message) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(decision.retryAfterSeconds()))
+                .body(CustomSuccessHandler.responseBuilder(HttpStatus.TOO_MANY_REQUESTS, message, null).getBody());
+    }
+
+    // Logout and refresh revoke every token the user holds, not only the one presented
+    private void revokeCachedTokens(HttpServletRequest request) {
+        String token = BearerTokens.resolve(request);
+        if (token != null) {
+            // iat has second precision, a cutoff inside the second would also revoke the tokens issued right after
+            tokenVerificationService.revokeSubject(token, Instant.now().truncatedTo(ChronoUnit.SECONDS));
+        }
     }
 }
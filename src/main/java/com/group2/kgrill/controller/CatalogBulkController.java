@@ -0,0 +1,92 @@
+package com.group2.kgrill.controller;
+
+import com.group2.kgrill.event.CatalogChangedEvent;
+import com.group2.kgrill.service.CatalogBulkService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("catalog")
+@RequiredArgsConstructor
+@Tag(name = "Catalog Bulk", description = "Controller responsible for bulk import and export of dishes, ingredients and packages")
+public class CatalogBulkController {
+
+    private final CatalogBulkService catalogBulkService;
+
+    @Operation(
+            summary = "Bulk import dishes, ingredients or packages",
+            description = "Upload one record per line as NDJSON, or CSV with a header row of field names (dish_id, dish_name, ...). " +
+                    "A record with an id updates that entity, one without creates it. Nested lists in CSV are written as JSON. " +
+                    "The response streams one NDJSON result per record in upload order, followed by a summary line.",
+            tags = {"Catalog Bulk"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Records processed, see the per-record results"),
+            @ApiResponse(responseCode = "400", description = "Unknown catalog kind"),
+    })
+    @PostMapping(value = "/{kind}/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv", MediaType.TEXT_PLAIN_VALUE,
+            MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<StreamingResponseBody> importCatalog(
+            @Parameter(description = "dishes, ingredients or packages") @PathVariable("kind") String kind,
+            @Parameter(description = "ndjson or csv") @RequestParam(name = "format", defaultValue = "ndjson", required = false) String format,
+            InputStream body) {
+        CatalogChangedEvent.Kind catalogKind = toKind(kind);
+        CatalogBulkService.Format importFormat = toFormat(format);
+        StreamingResponseBody results = outputStream -> catalogBulkService.importCatalog(catalogKind, importFormat, body, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(results);
+    }
+
+    @Operation(
+            summary = "Bulk export dishes, ingredients or packages",
+            description = "Stream every dish, ingredient or package as NDJSON or CSV, in the format the import accepts.",
+            tags = {"Catalog Bulk"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Catalog exported successfully"),
+            @ApiResponse(responseCode = "400", description = "Unknown catalog kind"),
+    })
+    @GetMapping(value = "/{kind}/export")
+    public ResponseEntity<StreamingResponseBody> exportCatalog(
+            @Parameter(description = "dishes, ingredients or packages") @PathVariable("kind") String kind,
+            @Parameter(description = "ndjson or csv") @RequestParam(name = "format", defaultValue = "ndjson", required = false) String format) {
+        CatalogChangedEvent.Kind catalogKind = toKind(kind);
+        CatalogBulkService.Format exportFormat = toFormat(format);
+        StreamingResponseBody body = outputStream -> catalogBulkService.exportCatalog(catalogKind, exportFormat, outputStream);
+        return ResponseEntity.ok()
+                .contentType(exportFormat == CatalogBulkService.Format.CSV ? new MediaType("text", "csv") : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + kind.toLowerCase()
+                        + (exportFormat == CatalogBulkService.Format.CSV ? ".csv" : ".ndjson") + "\"")
+                .body(body);
+    }
+
+    private static CatalogChangedEvent.Kind toKind(String kind) {
+        return switch (kind.toLowerCase()) {
+            case "dishes", "dish" -> CatalogChangedEvent.Kind.DISH;
+            case "ingredients", "ingredient" -> CatalogChangedEvent.Kind.INGREDIENT;
+            case "packages", "package" -> CatalogChangedEvent.Kind.PACKAGE;
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown catalog kind " + kind);
+        };
+    }
+
+    private static CatalogBulkService.Format toFormat(String format) {
+        return "csv".equalsIgnoreCase(format) ? CatalogBulkService.Format.CSV : CatalogBulkService.Format.NDJSON;
+    }
+}
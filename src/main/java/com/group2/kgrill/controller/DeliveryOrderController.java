@@ -1,11 +1,18 @@
 package com.group2.kgrill.controller;
 
+import com.group2.kgrill.dto.DeliveryLocationPing;
+import com.group2.kgrill.event.DeliveryOrderEvent;
+import com.group2.kgrill.service.CartService;
+import com.group2.kgrill.service.DeliveryLocationService;
+import com.group2.kgrill.service.IdempotencyService;
+import com.group2.kgrill.service.OrderHistoryService;
+import com.group2.kgrill.service.OrderQueueService;
+import com.group2.kgrill.service.StockReservationService;
+import com.group2.kgrill.util.ServiceErrors;
 import com.swd392.group2.kgrill_service.dto.DeliveryLocationDTO;
 import com.swd392.group2.kgrill_service.dto.mobiledto.DeliveryOrderDtoForCheckOut;
 import com.swd392.group2.kgrill_service.exception.CustomSuccessHandler;
 import com.swd392.group2.kgrill_service.service.DeliveryOrderService;
-import com.swd392.group2.kgrill_service.service.UserService;
-import com.swd392.group2.kgrill_service.service.impl.FirebaseMessagingService;
 import com.swd392.group2.kgrill_service.util.AppConstants;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,10 +23,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -28,11 +39,24 @@ import java.util.UUID;
 @Tag(name = "Delivery Order", description = "Controller responsible for handling delivery order operations")
 public class DeliveryOrderController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final DeliveryOrderService deliveryOrderService;
 
-    private final UserService userService;
+    private final DeliveryLocationService deliveryLocationService;
+
+    private final OrderHistoryService orderHistoryService;
+
+    private final CartService cartService;
+
+    private final IdempotencyService idempotencyService;
 
-    private final FirebaseMessagingService firebaseMessagingService;
+    private final StockReservationService stockReservationService;
+
+    private final OrderQueueService orderQueueService;
+
+    private final ApplicationEventPublisher eventPublisher;
 
     @Operation(
             summary = "Update delivery order location",
@@ -46,29 +70,83 @@ public class DeliveryOrderController {
     public ResponseEntity<Object> updateDeliveryOrderLocation(@NotNull Long id,
                                                               @RequestBody DeliveryLocationDTO deliveryLocationRequest) {
         if (deliveryLocationRequest != null && id != null) {
-            deliveryOrderService.updateDeliveryOrderLocation(id, deliveryLocationRequest);
+            deliveryLocationService.recordLocation(id, deliveryLocationRequest);
+            eventPublisher.publishEvent(DeliveryOrderEvent.locationUpdated(id));
             return ResponseEntity.ok().body("Delivery order location updated successfully");
         } else {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to update delivery order location");
         }
     }
 
+    @Operation(
+            summary = "Update delivery order locations in batch",
+            description = "Update the current location of several delivery orders in one request, e.g. pings buffered by the shipper app",
+            tags = {"Delivery Order"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Update delivery order locations successfully"),
+            @ApiResponse(responseCode = "400", description = "Failed to update delivery order locations"),
+    })
+    @PostMapping(value = "/location/batch")
+    public ResponseEntity<Object> updateDeliveryOrderLocations(@RequestBody @Valid List<DeliveryLocationPing> pings) {
+        if (pings == null || pings.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to update delivery order locations");
+        }
+        int accepted = 0;
+        for (DeliveryLocationPing ping : pings) {
+            if (ping.getOrderId() != null && ping.getLocation() != null) {
+                try {
+                    deliveryLocationService.recordLocation(ping.getOrderId(), ping.getLocation());
+                } catch (RuntimeException e) {
+                    // One unknown or finished order must not reject the pings of the others, it is just not
+                    // counted; anything else (the database being down) fails the request
+                    if (!ServiceErrors.isRejected(e)) {
+                        throw e;
+                    }
+                    continue;
+                }
+                eventPublisher.publishEvent(DeliveryOrderEvent.locationUpdated(ping.getOrderId()));
+                accepted++;
+            }
+        }
+        return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully update delivery order locations", accepted);
+    }
+
+    @Operation(
+            summary = "Get delivery order location",
+            description = "Get the latest known location of a delivery order",
+            tags = {"Delivery Order"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Get delivery order location successfully"),
+            @ApiResponse(responseCode = "404", description = "No recent location for this delivery order"),
+    })
+    @GetMapping(value = "/location")
+    public ResponseEntity<Object> getDeliveryOrderLocation(@NotNull Long id) {
+        return deliveryLocationService.getLatestLocation(id)
+                .map(location -> CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully get delivery order location", location))
+                .orElseGet(() -> CustomSuccessHandler.responseBuilder(HttpStatus.NOT_FOUND, "No recent location for this delivery order", ""));
+    }
+
     @Operation(
             summary = "Cancel order for manager",
             description = "Cancel orders which have status different from 'Delivered', if orders is 'Delivered' cannot be cancel",
             tags = {"Delivery Order"})
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Cancel order successfully"),
+            @ApiResponse(responseCode = "200", description = "Cancel order successfully, its stock reservation is released"),
             @ApiResponse(responseCode = "400", description = "Order is being delivered and cannot be cancelled"),
     })
     @GetMapping("/oder-cancellation/{orderId}")
     public ResponseEntity<Object> cancelOrderForManager(@PathVariable Long orderId){
-        return deliveryOrderService.cancelOrderForManager(orderId);
+        ResponseEntity<Object> response = deliveryOrderService.cancelOrderForManager(orderId);
+        if (response.getStatusCode().is2xxSuccessful()) {
+            eventPublisher.publishEvent(DeliveryOrderEvent.cancelled(orderId));
+        }
+        return response;
     }
 
     @Operation(
             summary = "Accept order for manager",
-            description = "Accept order which has status 'Processing', and change its status to 'Preparing'",
+            description = "Accept order which has status 'Processing', and change its status to 'Preparing'. " +
+                    "The ingredients reserved at checkout are taken from stock.",
             tags = {"Delivery Order"})
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Accept order successfully"),
@@ -77,6 +155,7 @@ public class DeliveryOrderController {
     @GetMapping("/accept-order")
     public ResponseEntity<Object> acceptOrderForManager(@NotNull long orderId){
         if (deliveryOrderService.acceptOrderForManager(orderId)){
+            eventPublisher.publishEvent(DeliveryOrderEvent.accepted(orderId));
             return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully accept order", "");
         }
         return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Failed to accept order", "");
@@ -92,12 +171,13 @@ public class DeliveryOrderController {
     })
     @GetMapping(value = "/cart-detail")
     public ResponseEntity<Object> getCartDetail(@NotNull UUID userId) {
-        return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully get cart detail", deliveryOrderService.getOrderDetailAfterLogin(userId));
+        return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully get cart detail", cartService.getCartDetail(userId));
     }
 
     @Operation(
             summary = "View Ordering queue of users for Manager ",
-            description = "View all user's order information. user's name, address, package name,.... ",
+            description = "View all user's order information. user's name, address, package name,.... " +
+                    "Served from the in-memory ordering queue; filter with status, e.g. Processing or Preparing.",
             tags = {"Delivery Order"})
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Ordering queue information retrieve successfully",
@@ -140,9 +220,31 @@ public class DeliveryOrderController {
             @RequestParam(name = "pageNo", defaultValue = AppConstants.DEFAULT_PAGE_NUMBER, required = false) int pageNo,
             @RequestParam(name = "pageSize", defaultValue = AppConstants.DEFAULT_PAGE_SIZE, required = false) int pageSize,
             @RequestParam(name = "sortBy", defaultValue = AppConstants.DEFAULT_SORT_BY, required = false) String sortBy,
-            @RequestParam(name = "sortDir", defaultValue = AppConstants.DEFAULT_SORT_DIRECTION, required = false) String sortDir
+            @RequestParam(name = "sortDir", defaultValue = AppConstants.DEFAULT_SORT_DIRECTION, required = false) String sortDir,
+            @RequestParam(name = "status", required = false) String status
     ) {
-        return deliveryOrderService.getOrderingList(pageNo, pageSize, sortBy, sortDir);
+        if (!orderQueueService.isReady()) {
+            return deliveryOrderService.getOrderingList(pageNo, pageSize, sortBy, sortDir);
+        }
+        return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully retrieved User's ordering for Manager ",
+                orderQueueService.getQueuePage(status, pageNo, pageSize, sortBy, sortDir));
+    }
+
+    @Operation(
+            summary = "Count orders in the ordering queue by status",
+            description = "Get the number of orders of each status in the manager ordering queue",
+            tags = {"Delivery Order"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ordering queue counts retrieve successfully"),
+            @ApiResponse(responseCode = "401", description = "You have no permission to access this page"),
+            @ApiResponse(responseCode = "503", description = "Ordering queue is still loading"),
+    })
+    @GetMapping(value = "/order-list/status-count")
+    public ResponseEntity<Object> getOrderingQueueStatusCount() {
+        if (!orderQueueService.isReady()) {
+            return CustomSuccessHandler.responseBuilder(HttpStatus.SERVICE_UNAVAILABLE, "Ordering queue is still loading", "");
+        }
+        return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully retrieved ordering queue counts", orderQueueService.getStatusCounts());
     }
 
     @Operation(
@@ -151,11 +253,12 @@ public class DeliveryOrderController {
             tags = {"Delivery Order Mobile"})
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Add to cart successfully"),
-            @ApiResponse(responseCode = "400", description = "Failed to add to cart"),
+            @ApiResponse(responseCode = "400", description = "Quantity is not greater than 0"),
+            @ApiResponse(responseCode = "404", description = "Package does not exist"),
     })
     @PostMapping(value = "/add-package")
     public ResponseEntity<Object> addAFoodPackageToCart(@NotNull UUID userId, @NotNull int packageId, @NotNull int quantity) {
-        deliveryOrderService.addPackageToDeliveryOrder(userId, packageId, quantity);
+        cartService.addPackage(userId, packageId, quantity);
         return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully add to cart", null);
     }
 
@@ -165,11 +268,12 @@ public class DeliveryOrderController {
             tags = {"Delivery Order Mobile"})
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Update cart detail successfully"),
-            @ApiResponse(responseCode = "400", description = "Failed to update cart detail"),
+            @ApiResponse(responseCode = "400", description = "Quantity is not greater than 0"),
+            @ApiResponse(responseCode = "404", description = "Order detail is not in the user's cart"),
     })
     @PostMapping(value = "/update-order-detail")
-    public ResponseEntity<Object> updateCartDetail(@NotNull int orderDetailId, @NotNull int quantity) {
-        deliveryOrderService.updateOrderDetail(orderDetailId, quantity);
+    public ResponseEntity<Object> updateCartDetail(UUID userId, @NotNull int orderDetailId, @NotNull int quantity) {
+        cartService.updateOrderDetail(userId, orderDetailId, quantity);
         return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully update cart detail", null);
     }
 
@@ -186,25 +290,102 @@ public class DeliveryOrderController {
         return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully get order history", deliveryOrderService.getOrderHistory(userId));
     }
 
+    @Operation(
+            summary = "Get order history page",
+            description = "Get newest-first order summaries of current user without their details. Pass next_cursor of the " +
+                    "previous page as cursor to continue; from and to (yyyy-MM-dd, inclusive) limit the order date.",
+            tags = {"Delivery Order Mobile"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Get order history page successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or date range"),
+    })
+    @GetMapping(value = "/order-history/summary")
+    public ResponseEntity<Object> getOrderHistoryPage(
+            @NotNull UUID userId,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "pageSize", defaultValue = AppConstants.DEFAULT_PAGE_SIZE, required = false) int pageSize,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully get order history",
+                orderHistoryService.getOrderHistoryPage(userId, cursor, pageSize, from, to));
+    }
+
+    @Operation(
+            summary = "Get order history detail",
+            description = "Get one order of current user's history with its details",
+            tags = {"Delivery Order Mobile"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Get order detail successfully"),
+            @ApiResponse(responseCode = "404", description = "Order not found in user's history"),
+    })
+    @GetMapping(value = "/order-history/detail")
+    public ResponseEntity<Object> getOrderHistoryDetail(@NotNull UUID userId, @NotNull long orderId) {
+        return orderHistoryService.getOrderDetail(userId, orderId)
+                .map(order -> CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully get order detail", order))
+                .orElseGet(() -> CustomSuccessHandler.responseBuilder(HttpStatus.NOT_FOUND, "Order not found in order history", null));
+    }
+
     @Operation(
             summary = "Check out order",
-            description = "Check out an order",
+            description = "Check out an order. Send a unique Idempotency-Key header per checkout attempt; a resubmission " +
+                    "with the same key returns the first outcome with Idempotent-Replayed: true instead of checking out again.",
             tags = {"Delivery Order Mobile"})
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Check out order successfully"),
             @ApiResponse(responseCode = "400", description = "Failed to check out order"),
+            @ApiResponse(responseCode = "409", description = "An ingredient of the cart is out of stock, or the original request with this Idempotency-Key is still in progress"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key was already used for a different request"),
     })
     @PostMapping(value = "/check-out-order")
-    public ResponseEntity<Object> checkOutOrder(@RequestBody @Valid DeliveryOrderDtoForCheckOut deliveryOrderDtoForCheckOut) {
+    public ResponseEntity<Object> checkOutOrder(@RequestBody @Valid DeliveryOrderDtoForCheckOut deliveryOrderDtoForCheckOut,
+                                                @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return checkOutResponse(placeOrder(deliveryOrderDtoForCheckOut));
+        }
+        if (idempotencyKey.length() > 255) {
+            return CustomSuccessHandler.responseBuilder(HttpStatus.BAD_REQUEST, "Idempotency-Key must not exceed 255 characters", "");
+        }
+        // A retried submission gets the first outcome back without a second transaction or push notification
+        IdempotencyService.Outcome<Boolean> outcome = idempotencyService.execute(
+                "check-out-order:" + deliveryOrderDtoForCheckOut.getUserId(), idempotencyKey, deliveryOrderDtoForCheckOut,
+                Boolean.class, () -> placeOrder(deliveryOrderDtoForCheckOut));
+        ResponseEntity<Object> response = checkOutResponse(Boolean.TRUE.equals(outcome.result()));
+        return ResponseEntity.status(response.getStatusCode())
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(outcome.replayed()))
+                .body(response.getBody());
+    }
 
-        if (deliveryOrderService.checkOutOrder(deliveryOrderDtoForCheckOut)){
-            UUID userId = deliveryOrderDtoForCheckOut.getUserId();
-            String deviceToken = userService.getDeviceTokenByUserId(userId);
-            if (deviceToken != null) {
-                firebaseMessagingService.sendNotification(deviceToken, "Order Status", "Your order is now being processed");
+    private boolean placeOrder(DeliveryOrderDtoForCheckOut deliveryOrderDtoForCheckOut) {
+        UUID userId = deliveryOrderDtoForCheckOut.getUserId();
+        // Quantities still waiting in the write-behind cart must be in the order that is checked out
+        cartService.flush(userId);
+        // Throws 409 when an ingredient is short, before anything is written
+        UUID reservationId = userId == null ? null : stockReservationService.reserve(userId, cartService.getCartDetail(userId));
+        // The cart is the order being placed, its id is read while it is still the cart
+        Long orderId = userId == null ? null : cartService.getCartOrderId(userId);
+        boolean checkedOut = false;
+        try {
+            checkedOut = deliveryOrderService.checkOutOrder(deliveryOrderDtoForCheckOut);
+        } finally {
+            if (reservationId != null && !checkedOut) {
+                stockReservationService.release(reservationId);
             }
-            return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully check out order", "");
         }
-        return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Failed to check out order", "");
+        if (!checkedOut) {
+            return false;
+        }
+        if (reservationId != null) {
+            stockReservationService.attachToOrder(reservationId, orderId);
+        }
+        // The push notification is sent by the notification outbox once this event is published
+        eventPublisher.publishEvent(DeliveryOrderEvent.checkedOut(orderId, userId));
+        return true;
+    }
+
+    private static ResponseEntity<Object> checkOutResponse(boolean checkedOut) {
+        return checkedOut
+                ? CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully check out order", "")
+                : CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Failed to check out order", "");
     }
-}
\ No newline at end of file
+}
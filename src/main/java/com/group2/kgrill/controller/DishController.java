@@ -1,6 +1,9 @@
 package com.group2.kgrill.controller;
 
 
+import com.group2.kgrill.event.CatalogChangedEvent;
+import com.group2.kgrill.service.CatalogDetailCacheService;
+import com.group2.kgrill.service.DishSearchIndexService;
 import com.swd392.group2.kgrill_service.dto.request.DishRequest;
 import com.swd392.group2.kgrill_service.exception.CustomSuccessHandler;
 import com.swd392.group2.kgrill_service.service.DishService;
@@ -12,6 +15,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.constraints.NotNull;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -23,8 +27,18 @@ public class DishController {
 
     private DishService dishService;
 
-    public DishController(DishService dishService) {
+    private CatalogDetailCacheService catalogDetailCacheService;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private DishSearchIndexService dishSearchIndexService;
+
+    public DishController(DishService dishService, CatalogDetailCacheService catalogDetailCacheService, ApplicationEventPublisher eventPublisher,
+                          DishSearchIndexService dishSearchIndexService) {
         this.dishService = dishService;
+        this.catalogDetailCacheService = catalogDetailCacheService;
+        this.eventPublisher = eventPublisher;
+        this.dishSearchIndexService = dishSearchIndexService;
     }
 
     @Operation(
@@ -67,6 +81,7 @@ public class DishController {
 
         return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully get package list", dishService.getAllDishes(pageNumber, pageSize, sortField, sortDir));
     }
+
     @Operation(
             summary = "Get dish",
             description = "Get all current dishes",
@@ -94,11 +109,12 @@ public class DishController {
     })
     @GetMapping("dish/dish-detail")
     public ResponseEntity<DishRequest> dish(@NotNull int id){
-        return ResponseEntity.ok(dishService.getDishByID(id));
+        return ResponseEntity.ok(catalogDetailCacheService.getDish(id));
     }
     @Operation(
             summary = "Search dish",
-            description = "Search dish by name and price",
+            description = "Search dish by name, category and price range. Also returns the number of matches per category " +
+                    "(category_facets) and the price range of the matches.",
             tags = {"Dish"})
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Get dish successfully",
@@ -136,6 +152,10 @@ public class DishController {
                                                      @Parameter(description = "Search dish's category") @RequestParam(value="category", required = false) String category,
                                                      @Parameter(description = "Min Price") @RequestParam(value="minPrice", required = false) Double minPrice,
                                                      @Parameter(description = "Max price") @RequestParam(value="maxPrice", required = false) Double maxPrice){
+        if (dishSearchIndexService.isReady()) {
+            return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully retrieved dishes list information",
+                    dishSearchIndexService.search(keyword, category, minPrice, maxPrice, sortField, sortDir, pageNumber, pageSize));
+        }
         return ResponseEntity.ok(dishService.searchDishByFilter(pageNumber, pageSize, minPrice, maxPrice, sortField, sortDir, keyword, category));
     }
     @Operation(
@@ -181,6 +201,7 @@ public class DishController {
     @ResponseStatus(HttpStatus.CREATED)
     public ResponseEntity<Object> dishCreate(@RequestBody DishRequest dishDTO){
         dishService.createDish(dishDTO);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Kind.DISH, CatalogChangedEvent.Action.CREATED, null));
         return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Create a new dish successfully", "");
     }
 
@@ -228,6 +249,9 @@ public class DishController {
     public ResponseEntity<Object> dishUpdate(@RequestBody DishRequest dishDTO){
 
         dishService.updateDish(dishDTO);
+        Integer dishId = dishDTO.getDishId();
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Kind.DISH, CatalogChangedEvent.Action.UPDATED,
+                dishId != null && dishId > 0 ? dishId : null));
         return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Updated dish successfully", "");
     }
     @Operation(
@@ -241,6 +265,7 @@ public class DishController {
     @DeleteMapping("dish/{id}")
     public ResponseEntity<String> dishDelete(@PathVariable("id") int id){
         dishService.deleteDish(id);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Kind.DISH, CatalogChangedEvent.Action.DELETED, id));
         return new ResponseEntity<>("Delete successfully", HttpStatus.OK);
     }
 }
@@ -1,6 +1,9 @@
 package com.group2.kgrill.controller;
 
 
+import com.group2.kgrill.event.CatalogChangedEvent;
+import com.group2.kgrill.service.CatalogDetailCacheService;
+import com.group2.kgrill.service.StockReservationService;
 import com.swd392.group2.kgrill_service.dto.IngredientDTO;
 import com.swd392.group2.kgrill_service.exception.CustomSuccessHandler;
 import com.swd392.group2.kgrill_service.service.IngredientService;
@@ -12,6 +15,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.constraints.NotNull;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -22,8 +26,18 @@ import org.springframework.web.bind.annotation.*;
 public class IngredientController {
     private IngredientService ingredientService;
 
-    public IngredientController(IngredientService ingredientService) {
+    private CatalogDetailCacheService catalogDetailCacheService;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private StockReservationService stockReservationService;
+
+    public IngredientController(IngredientService ingredientService, CatalogDetailCacheService catalogDetailCacheService, ApplicationEventPublisher eventPublisher,
+                                StockReservationService stockReservationService) {
         this.ingredientService = ingredientService;
+        this.catalogDetailCacheService = catalogDetailCacheService;
+        this.eventPublisher = eventPublisher;
+        this.stockReservationService = stockReservationService;
     }
     @Operation(
             summary = "Get ingredient's list",
@@ -96,7 +110,7 @@ public class IngredientController {
 
     @GetMapping("ingredient/ingredient-detail")
     public ResponseEntity<IngredientDTO> ingredient(@NotNull int id){
-        return ResponseEntity.ok(ingredientService.getIngredientByID(id));
+        return ResponseEntity.ok(catalogDetailCacheService.getIngredient(id));
     }
     @Operation(
             summary = "Create new ingredient",
@@ -131,6 +145,7 @@ public class IngredientController {
     @ResponseStatus(HttpStatus.CREATED)
     public ResponseEntity<Object> ingredientCreate(@RequestBody IngredientDTO ingredientDTO){
         ingredientService.createIngredient(ingredientDTO);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Kind.INGREDIENT, CatalogChangedEvent.Action.CREATED, null));
         return new ResponseEntity<>("Create new ingredient successfully",HttpStatus.CREATED);
     }
     @Operation(
@@ -144,8 +159,36 @@ public class IngredientController {
     @PutMapping("ingredient/{id}")
     public ResponseEntity<Object> ingredientUpdate(@RequestBody IngredientDTO ingredientDTO, @PathVariable("id") int id){
         ingredientService.updateIngredient(ingredientDTO, id);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Kind.INGREDIENT, CatalogChangedEvent.Action.UPDATED, id));
         return new ResponseEntity<>("Update ingredient successfully",HttpStatus.OK);
     }
+    @Operation(
+            summary = "Get ingredient stock",
+            description = "Get on-hand, reserved and available quantity of every tracked ingredient",
+            tags = {"Ingredient"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Get ingredient stock successfully"),
+    })
+    @GetMapping("ingredient/stock")
+    public ResponseEntity<Object> ingredientStock(){
+        return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully get ingredient stock", stockReservationService.getStockLevels());
+    }
+    @Operation(
+            summary = "Set ingredient stock",
+            description = "Set the on-hand quantity of an ingredient, in the unit its recipes use. Checkouts are refused " +
+                    "once the available quantity of one of their ingredients runs out.",
+            tags = {"Ingredient"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Set ingredient stock successfully"),
+            @ApiResponse(responseCode = "400", description = "Failed to set ingredient stock"),
+    })
+    @PutMapping("ingredient/{id}/stock")
+    public ResponseEntity<Object> ingredientStockUpdate(@PathVariable("id") int id, @NotNull double onHand){
+        if (onHand < 0) {
+            return CustomSuccessHandler.responseBuilder(HttpStatus.BAD_REQUEST, "On-hand quantity must not be negative", "");
+        }
+        return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully set ingredient stock", stockReservationService.setOnHand(id, onHand));
+    }
     @Operation(
             summary = "Delete an ingredient",
             description = "Delete an existed ingredient",
@@ -157,6 +200,7 @@ public class IngredientController {
     @DeleteMapping("ingredient/{id}/ingredient-removal")
     public ResponseEntity<String> ingredientDelete(@PathVariable("id") int id){
         ingredientService.deleteIngredient(id);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Kind.INGREDIENT, CatalogChangedEvent.Action.DELETED, id));
         return new ResponseEntity<>("Delete successfully", HttpStatus.OK);
     }
 }
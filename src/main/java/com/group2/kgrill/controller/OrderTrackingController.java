@@ -0,0 +1,125 @@
+package com.group2.kgrill.controller;
+
+import com.group2.kgrill.dto.CallerProfile;
+import com.group2.kgrill.service.OrderTrackingService;
+import com.group2.kgrill.util.ServiceResponseReader;
+import com.swd392.group2.kgrill_service.service.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("order-tracking")
+@RequiredArgsConstructor
+@Tag(name = "Order Tracking", description = "Server-sent event streams pushing delivery order status changes instead of polling")
+public class OrderTrackingController {
+
+    private static final String ADMIN_ROLE = "ADMIN";
+    private static final String MANAGER_ROLE = "MANAGER";
+    private static final String SHIPPER_ROLE = "SHIPPER";
+
+    private final OrderTrackingService orderTrackingService;
+
+    private final UserService userService;
+
+    private final ServiceResponseReader responseReader;
+
+    @Operation(
+            summary = "Track a delivery order",
+            description = "Stream status changes (accept, cancel, shipper assignment, location) of one delivery order as server-sent events",
+            tags = {"Order Tracking"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Subscribed to delivery order events"),
+    })
+    @GetMapping(value = "/order", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter trackOrder(@NotNull long orderId) {
+        return orderTrackingService.subscribeToOrder(orderId);
+    }
+
+    @Operation(
+            summary = "Track orders of a customer",
+            description = "Stream status changes of every order of the signed-in customer as server-sent events",
+            tags = {"Order Tracking"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Subscribed to customer order events"),
+            @ApiResponse(responseCode = "401", description = "No valid access token"),
+            @ApiResponse(responseCode = "403", description = "The user id is not the signed-in customer"),
+    })
+    @GetMapping(value = "/user", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter trackUserOrders(@Parameter(description = "Defaults to the signed-in customer") @RequestParam(required = false) UUID userId,
+                                      HttpServletRequest request) {
+        CallerProfile caller = caller(request);
+        if (userId != null && !userId.equals(caller.getUserId())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Only your own orders can be tracked");
+        }
+        return orderTrackingService.subscribeToUser(caller.getUserId());
+    }
+
+    @Operation(
+            summary = "Track orders of a shipper",
+            description = "Stream orders assigned to the signed-in shipper as server-sent events",
+            tags = {"Order Tracking"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Subscribed to shipper order events"),
+            @ApiResponse(responseCode = "401", description = "No valid access token"),
+            @ApiResponse(responseCode = "403", description = "The caller is not a shipper, or the shipper id is not theirs"),
+    })
+    @GetMapping(value = "/shipper", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter trackShipperOrders(@Parameter(description = "Defaults to the signed-in shipper") @RequestParam(required = false) Long shipperId,
+                                         HttpServletRequest request) {
+        CallerProfile caller = caller(request);
+        if (!caller.hasRole(SHIPPER_ROLE) || caller.getShipperId() == null) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Only shippers can track shipper orders");
+        }
+        if (shipperId != null && !shipperId.equals(caller.getShipperId())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Only your own orders can be tracked");
+        }
+        return orderTrackingService.subscribeToShipper(caller.getShipperId());
+    }
+
+    @Operation(
+            summary = "Track all orders for Manager",
+            description = "Stream every delivery order change as server-sent events for the manager console",
+            tags = {"Order Tracking"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Subscribed to all delivery order events"),
+            @ApiResponse(responseCode = "401", description = "No valid access token"),
+            @ApiResponse(responseCode = "403", description = "The caller is not a manager or an admin"),
+    })
+    @GetMapping(value = "/orders", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter trackAllOrders(HttpServletRequest request) {
+        CallerProfile caller = caller(request);
+        if (!caller.hasRole(MANAGER_ROLE) && !caller.hasRole(ADMIN_ROLE)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Only managers and admins can track all orders");
+        }
+        return orderTrackingService.subscribeToAllOrders();
+    }
+
+    // The account of the request's access token, as kgrill-service resolves it for the profile screen
+    private CallerProfile caller(HttpServletRequest request) {
+        ResponseEntity<Object> profile = userService.getUserInformation(request);
+        CallerProfile caller = profile != null && profile.getStatusCode().is2xxSuccessful()
+                ? responseReader.readRow(responseReader.readData(profile), CallerProfile.class)
+                : null;
+        if (caller == null || caller.getUserId() == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Sign in to track orders");
+        }
+        return caller;
+    }
+}
@@ -1,8 +1,12 @@
 package com.group2.kgrill.controller;
 
+import com.group2.kgrill.event.CatalogChangedEvent;
+import com.group2.kgrill.dto.ImageUploadJob;
+import com.group2.kgrill.service.CatalogDetailCacheService;
+import com.group2.kgrill.service.CatalogPricingService;
+import com.group2.kgrill.service.ImageUploadService;
 import com.swd392.group2.kgrill_service.dto.request.PackageRequest;
 import com.swd392.group2.kgrill_service.exception.CustomSuccessHandler;
-import com.swd392.group2.kgrill_service.service.CloudinaryUploadService;
 import com.swd392.group2.kgrill_service.service.PackageService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,6 +16,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -29,7 +34,10 @@ import java.util.UUID;
 public class PackageControllerForAdminAndManager {
 
     private final PackageService packageService;
-    private final CloudinaryUploadService cloudinaryUploadConfig;
+    private final ImageUploadService imageUploadService;
+    private final CatalogDetailCacheService catalogDetailCacheService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogPricingService catalogPricingService;
 
     @Operation(
             summary = "Get food package list",
@@ -59,7 +67,9 @@ public class PackageControllerForAdminAndManager {
     })
     @PostMapping(value = "/new-package")
     public ResponseEntity<Object> addNewFoodPackage(@RequestBody @Valid PackageRequest pkgRequest) {
-        return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Add a new package successfully", packageService.addPackage(pkgRequest));
+        Object pkg = packageService.addPackage(pkgRequest);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Kind.PACKAGE, CatalogChangedEvent.Action.CREATED, null));
+        return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Add a new package successfully", pkg);
     }
 
     @Operation(
@@ -72,7 +82,43 @@ public class PackageControllerForAdminAndManager {
     })
     @GetMapping(value = "/")
     public ResponseEntity<Object> getFoodPackageDetail(@NotNull int pkgId) {
-        return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully get package detail", packageService.getAPackageDetail(pkgId));
+        return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully get package detail", catalogDetailCacheService.getPackageDetail(pkgId));
+    }
+
+    @Operation(
+            summary = "Get pricing of a food package",
+            description = "Get the package price next to the current price total and ingredient cost of its dishes. " +
+                    "Values are kept up to date as packages, dishes and ingredients change.",
+            tags = {"Food Package"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Get package pricing successfully"),
+            @ApiResponse(responseCode = "404", description = "Package not found in the pricing graph"),
+            @ApiResponse(responseCode = "503", description = "Pricing graph is still being built"),
+    })
+    @GetMapping(value = "/pricing")
+    public ResponseEntity<Object> getFoodPackagePricing(@NotNull int pkgId) {
+        if (!catalogPricingService.isReady()) {
+            return CustomSuccessHandler.responseBuilder(HttpStatus.SERVICE_UNAVAILABLE, "Package pricing is not available yet", "");
+        }
+        return catalogPricingService.getPackagePricing(pkgId)
+                .map(pricing -> CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully get package pricing", pricing))
+                .orElseGet(() -> CustomSuccessHandler.responseBuilder(HttpStatus.NOT_FOUND, "Package not found", ""));
+    }
+
+    @Operation(
+            summary = "Get pricing of all food packages",
+            description = "Get the package price, dish price total, ingredient cost and margin of every package",
+            tags = {"Food Package"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Get package pricing list successfully"),
+            @ApiResponse(responseCode = "503", description = "Pricing graph is still being built"),
+    })
+    @GetMapping(value = "/pricing-list")
+    public ResponseEntity<Object> getAllFoodPackagePricing() {
+        if (!catalogPricingService.isReady()) {
+            return CustomSuccessHandler.responseBuilder(HttpStatus.SERVICE_UNAVAILABLE, "Package pricing is not available yet", "");
+        }
+        return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully get package pricing list", catalogPricingService.getAllPackagePricing());
     }
 
     @Operation(
@@ -86,25 +132,45 @@ public class PackageControllerForAdminAndManager {
     @PutMapping(value = "/")
     public ResponseEntity<Object> updateAFoodPackage(@RequestBody @Valid PackageRequest pkgRequest) {
         packageService.updatePackage(pkgRequest);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Kind.PACKAGE, CatalogChangedEvent.Action.UPDATED,
+                pkgRequest.getPackageId()));
         return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully update package", "");
     }
 
     @Operation(
             summary = "Update food package thumbnail",
-            description = "Update a food package's thumbnail",
+            description = "Accept a new thumbnail for a food package. The image is resized and uploaded in the background; " +
+                    "poll the returned job for the final thumbnail URL.",
             tags = {"Food Package"})
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Update package thumbnail successfully"),
+            @ApiResponse(responseCode = "202", description = "Package thumbnail accepted for upload"),
             @ApiResponse(responseCode = "400", description = "Failed to update package thumbnail"),
+            @ApiResponse(responseCode = "503", description = "Image upload queue is full"),
     })
     @PostMapping(value = "/package-thumbnail", consumes = {MediaType.MULTIPART_FORM_DATA_VALUE})
     public ResponseEntity<Object> updateAFoodPackageThumbnail(@NotNull int packageId,
                                                               @RequestParam(value = "thumbnail_pic", required = false) MultipartFile thumbnailPicture) throws IOException {
-        if (thumbnailPicture != null && !thumbnailPicture.isEmpty()) {
-            String imageURL = cloudinaryUploadConfig.uploadFile(thumbnailPicture);
-            packageService.uploadPackageThumbnail(packageId, imageURL);
+        if (thumbnailPicture == null || thumbnailPicture.isEmpty()) {
+            return CustomSuccessHandler.responseBuilder(HttpStatus.BAD_REQUEST, "No package thumbnail in the request", "");
         }
-        return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully update package thumbnail", "");
+        ImageUploadJob job = imageUploadService.submit(thumbnailPicture, ImageUploadJob.Target.PACKAGE_THUMBNAIL, String.valueOf(packageId));
+        return CustomSuccessHandler.responseBuilder(HttpStatus.ACCEPTED, "Package thumbnail accepted for upload", job);
+    }
+
+    @Operation(
+            summary = "Get food package thumbnail upload status",
+            description = "Get the status of a package thumbnail upload and, once completed, the thumbnail URL",
+            tags = {"Food Package"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Upload status retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "Upload job not found or expired"),
+    })
+    @GetMapping("/package-thumbnail/job")
+    public ResponseEntity<Object> getFoodPackageThumbnailUpload(@RequestParam("jobId") UUID jobId) {
+        return imageUploadService.getJob(jobId)
+                .filter(job -> job.getTarget() == ImageUploadJob.Target.PACKAGE_THUMBNAIL)
+                .map(job -> CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully get upload status", job))
+                .orElseGet(() -> CustomSuccessHandler.responseBuilder(HttpStatus.NOT_FOUND, "Upload job not found", ""));
     }
 
     @Operation(
@@ -118,6 +184,7 @@ public class PackageControllerForAdminAndManager {
     @DeleteMapping(value = "/{id}")
     public ResponseEntity<Object> deleteAFoodPackage(@PathVariable("id") int pkgId) {
         packageService.deletePackageById(pkgId);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Kind.PACKAGE, CatalogChangedEvent.Action.DELETED, pkgId));
         return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully delete package", "");
     }
 }
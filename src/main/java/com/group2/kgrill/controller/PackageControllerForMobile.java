@@ -1,13 +1,17 @@
 package com.group2.kgrill.controller;
 
+import com.group2.kgrill.dto.CatalogSnapshot;
+import com.group2.kgrill.service.CatalogDetailCacheService;
+import com.group2.kgrill.service.MobileCatalogService;
+import com.group2.kgrill.util.EntityTags;
 import com.swd392.group2.kgrill_service.exception.CustomSuccessHandler;
-import com.swd392.group2.kgrill_service.service.PackageService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -18,7 +22,8 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Food Package Mobile", description = "Controller responsible for handling Food Package operations on mobile")
 public class PackageControllerForMobile {
 
-    private final PackageService packageService;
+    private final MobileCatalogService mobileCatalogService;
+    private final CatalogDetailCacheService catalogDetailCacheService;
 
     @Operation(
             summary = "Get food package list on mobile",
@@ -26,14 +31,23 @@ public class PackageControllerForMobile {
             tags = {"Food Package Mobile"})
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Get food package list successfully"),
+            @ApiResponse(responseCode = "304", description = "Food package list has not changed since the given ETag"),
             @ApiResponse(responseCode = "400", description = "Failed to get food package list"),
     })
     @PostMapping(value = "/search")
     public ResponseEntity<Object> getAllFoodPackageOnMobile(
 //                                                              @Parameter(description = "Filter by name/size/") @RequestParam(name = "filter", required = false) String filter,
-                                                    @Parameter(description = "Search keyword") @RequestParam(value = "value", required = false) String value) {
+                                                    @Parameter(description = "Search keyword") @RequestParam(value = "value", required = false) String value,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
-        return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully get package list", packageService.getAllPackageOnMobile());
+        String eTag = mobileCatalogService.getCurrentETag();
+        if (EntityTags.noneMatchHit(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        CatalogSnapshot catalog = mobileCatalogService.search(value);
+        return ResponseEntity.status(HttpStatus.OK)
+                .eTag(catalog.eTag())
+                .body(CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully get package list", catalog.packages()).getBody());
     }
 
     @Operation(
@@ -46,6 +60,6 @@ public class PackageControllerForMobile {
     })
     @PostMapping(value = "/{id}")
     public ResponseEntity<Object> getFoodPackageDetailOnMobile(@PathVariable("id") int pkgId) {
-        return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully get package detail", packageService.getPackageDetailOnMobile(pkgId));
+        return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully get package detail", catalogDetailCacheService.getPackageDetailOnMobile(pkgId));
     }
 }
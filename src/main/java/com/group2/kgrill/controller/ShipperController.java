@@ -1,5 +1,8 @@
 package com.group2.kgrill.controller;
 
+import com.group2.kgrill.dto.GeoPoint;
+import com.group2.kgrill.event.DeliveryOrderEvent;
+import com.group2.kgrill.service.ShipperDispatchService;
 import com.swd392.group2.kgrill_service.exception.CustomSuccessHandler;
 import com.swd392.group2.kgrill_service.service.DeliveryOrderService;
 import com.swd392.group2.kgrill_service.service.ShipperService;
@@ -10,6 +13,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -24,6 +28,10 @@ public class ShipperController {
 
     private final ShipperService shipperService;
 
+    private final ShipperDispatchService shipperDispatchService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
     @Operation(
             summary = "Get available shipper list for Manager",
             description = "Get available shipper list for Manager",
@@ -52,9 +60,36 @@ public class ShipperController {
     @PostMapping(value = "/order")
     public ResponseEntity<Object> getCartDetail(@NotNull long shipperId, @NotNull long orderId) {
 
-        if (shipperService.assignShipperToOrder(shipperId, orderId)) {
-            return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully assign shipper to order", "");
-        }
-        return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Failed to assign shipper to order", "");
+        return switch (shipperDispatchService.assignShipper(shipperId, orderId)) {
+            case ASSIGNED -> {
+                eventPublisher.publishEvent(DeliveryOrderEvent.shipperAssigned(orderId, shipperId));
+                yield CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully assign shipper to order", "");
+            }
+            case SHIPPER_BUSY -> CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Failed to assign shipper to order, shipper is already assigned to another order", "");
+            case ORDER_ALREADY_ASSIGNED -> CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Failed to assign shipper to order, order is already being assigned", "");
+            case REJECTED -> CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Failed to assign shipper to order", "");
+        };
+    }
+
+    @Operation(
+            summary = "Auto assign the nearest shipper to an order",
+            description = "Assign the nearest available shipper, based on the latest known locations, to a 'Preparing' order. " +
+                    "The order location is used when latitude and longitude are not given",
+            tags = {"Shipper"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Auto assign shipper to order successfully"),
+            @ApiResponse(responseCode = "400", description = "Failed to auto assign shipper to order"),
+    })
+    @PostMapping(value = "/order/auto")
+    public ResponseEntity<Object> autoAssignShipper(@NotNull long orderId,
+                                                    @Parameter(description = "Delivery latitude") @RequestParam(name = "latitude", required = false) Double latitude,
+                                                    @Parameter(description = "Delivery longitude") @RequestParam(name = "longitude", required = false) Double longitude) {
+        GeoPoint destination = latitude != null && longitude != null ? new GeoPoint(latitude, longitude) : null;
+        return shipperDispatchService.autoAssign(orderId, destination)
+                .map(shipperId -> {
+                    eventPublisher.publishEvent(DeliveryOrderEvent.shipperAssigned(orderId, shipperId));
+                    return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully assign shipper to order", shipperId);
+                })
+                .orElseGet(() -> CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Failed to assign shipper to order, no available shipper nearby", ""));
     }
 }
@@ -1,8 +1,12 @@
 package com.group2.kgrill.controller;
 
+import com.group2.kgrill.dto.GeoPoint;
+import com.group2.kgrill.service.ShipperDispatchService;
+import com.group2.kgrill.service.ShipperHistoryService;
 import com.swd392.group2.kgrill_service.exception.CustomSuccessHandler;
 import com.swd392.group2.kgrill_service.service.DeliveryOrderService;
 import com.swd392.group2.kgrill_service.service.ShipperService;
+import com.swd392.group2.kgrill_service.util.AppConstants;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -12,7 +16,9 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -23,6 +29,8 @@ public class ShipperControllerForMobile {
 
     private final ShipperService shipperService;
     private final DeliveryOrderService deliveryOrderService;
+    private final ShipperDispatchService shipperDispatchService;
+    private final ShipperHistoryService shipperHistoryService;
 
     @Operation(
             summary = "Get delivered order history of shipper",
@@ -37,4 +45,51 @@ public class ShipperControllerForMobile {
 
         return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully get delivered order history of this shipper", deliveryOrderService.getOrderHistoryBasedOnShipperId(shipperId));
     }
+
+    @Operation(
+            summary = "Get delivered order history page of shipper",
+            description = "Get newest-first delivered orders of a shipper with delivery and order value counters. Pass next_cursor " +
+                    "to continue paging; pass the sync_token saved on the last app open as since to get only newer deliveries.",
+            tags = {"Shipper Mobile"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Get delivered order history page of this shipper successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or sync token"),
+    })
+    @GetMapping(value = "/order-history-of-shipper/page")
+    public ResponseEntity<Object> getOrderHistoryShipperPage(
+            @NotNull int shipperId,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "since", required = false) String since,
+            @RequestParam(name = "pageSize", defaultValue = AppConstants.DEFAULT_PAGE_SIZE, required = false) int pageSize
+    ) {
+        return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully get delivered order history of this shipper",
+                shipperHistoryService.getHistoryPage(shipperId, cursor, since, pageSize));
+    }
+
+    @Operation(
+            summary = "Get delivery statistics of shipper",
+            description = "Get number of delivered orders, their total order value and last delivery time of a shipper",
+            tags = {"Shipper Mobile"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Get delivery statistics of this shipper successfully"),
+    })
+    @GetMapping(value = "/order-history-of-shipper/stats")
+    public ResponseEntity<Object> getShipperDeliveryStats(@NotNull int shipperId) {
+        return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully get delivery statistics of this shipper",
+                shipperHistoryService.getStats(shipperId));
+    }
+
+    @Operation(
+            summary = "Update shipper location",
+            description = "Report the current location of a shipper, used to auto assign the nearest shipper to new orders",
+            tags = {"Shipper Mobile"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Update shipper location successfully"),
+            @ApiResponse(responseCode = "400", description = "Failed to update shipper location"),
+    })
+    @PostMapping(value = "/location")
+    public ResponseEntity<Object> updateShipperLocation(@NotNull long shipperId, @NotNull double latitude, @NotNull double longitude) {
+        shipperDispatchService.updateShipperLocation(shipperId, new GeoPoint(latitude, longitude));
+        return CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully update shipper location", "");
+    }
 }
@@ -1,8 +1,10 @@
 package com.group2.kgrill.controller;
 
+import com.group2.kgrill.dto.ImageUploadJob;
+import com.group2.kgrill.service.ImageUploadService;
 import com.swd392.group2.kgrill_service.dto.UserProfileDto;
 import com.swd392.group2.kgrill_service.dto.request.DeviceTokenRequest;
-import com.swd392.group2.kgrill_service.service.CloudinaryUploadService;
+import com.swd392.group2.kgrill_service.exception.CustomSuccessHandler;
 import com.swd392.group2.kgrill_service.service.UserService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -31,7 +33,7 @@ import java.util.UUID;
 public class UserController {
 
     private final UserService userService;
-    private final CloudinaryUploadService cloudinaryUploadConfig;
+    private final ImageUploadService imageUploadService;
     @Operation(
             summary = "View user profile",
             description = "View current user information after logging into the system. Passwords, tokens, etc., " +
@@ -88,25 +90,39 @@ public class UserController {
 
     @Operation(
             summary = "Update user profile picture",
-            description = "Update current user profile picture after logging into the system.",
+            description = "Accept a new profile picture for the current user. The image is resized and uploaded in the " +
+                    "background; poll the returned job for the final picture URL.",
             tags = {"Account"})
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "User profile picture updated successfully"),
-            @ApiResponse(responseCode = "500", description = "Failed to update user profile picture"),
+            @ApiResponse(responseCode = "202", description = "User profile picture accepted for upload"),
+            @ApiResponse(responseCode = "400", description = "No profile picture in the request"),
+            @ApiResponse(responseCode = "503", description = "Image upload queue is full"),
     })
     @PostMapping(value = "/image", consumes = {MediaType.MULTIPART_FORM_DATA_VALUE})
     public ResponseEntity<Object> updateUserProfilePicture(@NotNull UUID id,
                                                            @RequestParam(value = "profile_pic", required = false) MultipartFile profilePicture) throws IOException {
 
-        if (profilePicture != null && !profilePicture.isEmpty()) {
-            String imageURLMain = cloudinaryUploadConfig.uploadFile(profilePicture);
-            if (imageURLMain != null) {
-                userService.updateUserProfilePicture(id, imageURLMain);
-                return ResponseEntity.ok().body("User profile picture updated successfully");
-            }
+        if (profilePicture == null || profilePicture.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to update user profile picture");
         }
+        ImageUploadJob job = imageUploadService.submit(profilePicture, ImageUploadJob.Target.PROFILE_PICTURE, id.toString());
+        return CustomSuccessHandler.responseBuilder(HttpStatus.ACCEPTED, "User profile picture accepted for upload", job);
+    }
 
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to update user profile picture");
+    @Operation(
+            summary = "Get profile picture upload status",
+            description = "Get the status of a profile picture upload and, once completed, the picture URL",
+            tags = {"Account"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Upload status retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "Upload job not found or expired"),
+    })
+    @GetMapping("/image/job")
+    public ResponseEntity<Object> getProfilePictureUpload(@RequestParam("jobId") UUID jobId) {
+        return imageUploadService.getJob(jobId)
+                .filter(job -> job.getTarget() == ImageUploadJob.Target.PROFILE_PICTURE)
+                .map(job -> CustomSuccessHandler.responseBuilder(HttpStatus.OK, "Successfully get upload status", job))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("Upload job not found"));
     }
 
     @PostMapping("/save-device-token")
@@ -0,0 +1,31 @@
+package com.group2.kgrill.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDTO {
+
+    private String name;
+
+    private long hits;
+
+    private long misses;
+
+    @JsonProperty("hit_rate")
+    private double hitRate;
+
+    private long evictions;
+
+    @JsonProperty("estimated_size")
+    private long estimatedSize;
+
+    @JsonProperty("weighted_size_bytes")
+    private long weightedSizeBytes;
+}
@@ -0,0 +1,34 @@
+package com.group2.kgrill.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * The profile kgrill-service returns for the account of the current access token.
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CallerProfile {
+
+    @JsonProperty("userId")
+    private UUID userId;
+
+    @JsonProperty("role_name")
+    private String roleName;
+
+    /**
+     * Only filled in for shipper accounts.
+     */
+    @JsonProperty("shipper_id")
+    private Long shipperId;
+
+    public boolean hasRole(String role) {
+        return roleName != null && roleName.trim().toUpperCase(Locale.ROOT).equals(role);
+    }
+}
@@ -0,0 +1,28 @@
+package com.group2.kgrill.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of the cart detail of kgrill-service: a package of the customer's open delivery order.
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CartLine {
+
+    public static final String ORDER_DETAIL_ID_FIELD = "order_detail_id";
+    public static final String PACKAGE_ID_FIELD = "package_id";
+    public static final String QUANTITY_FIELD = "quantity";
+
+    @JsonProperty(ORDER_DETAIL_ID_FIELD)
+    private Integer orderDetailId;
+
+    @JsonProperty(PACKAGE_ID_FIELD)
+    private Integer packageId;
+
+    @JsonProperty(QUANTITY_FIELD)
+    private Double quantity;
+}
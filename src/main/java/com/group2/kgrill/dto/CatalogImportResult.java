@@ -0,0 +1,30 @@
+package com.group2.kgrill.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CatalogImportResult {
+
+    public enum Status {
+        CREATED, UPDATED, FAILED
+    }
+
+    /**
+     * 1-based position of the record in the upload, not counting the CSV header.
+     */
+    private long row;
+
+    private Status status;
+
+    private Integer id;
+
+    private String error;
+}
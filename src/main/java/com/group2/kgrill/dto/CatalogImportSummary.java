@@ -0,0 +1,27 @@
+package com.group2.kgrill.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogImportSummary {
+
+    private String kind;
+
+    private long rows;
+
+    private long created;
+
+    private long updated;
+
+    private long failed;
+
+    @JsonProperty("duration_ms")
+    private long durationMs;
+}
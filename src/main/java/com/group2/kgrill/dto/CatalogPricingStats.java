@@ -0,0 +1,27 @@
+package com.group2.kgrill.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogPricingStats {
+
+    private boolean ready;
+
+    private int ingredients;
+
+    private int dishes;
+
+    private int packages;
+
+    @JsonProperty("recent_changes")
+    private List<PricingChange> recentChanges;
+}
@@ -0,0 +1,8 @@
+package com.group2.kgrill.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+public record CatalogSnapshot(long version, String eTag, List<JsonNode> packages) {
+}
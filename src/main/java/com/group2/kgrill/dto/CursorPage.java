@@ -0,0 +1,35 @@
+package com.group2.kgrill.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> content;
+
+    @JsonProperty("page_size")
+    private int pageSize;
+
+    @JsonProperty("next_cursor")
+    private String nextCursor;
+
+    @JsonProperty("has_next")
+    private boolean hasNext;
+
+    /**
+     * Row count when the first page was read, only filled in when the client asked for it.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty("estimated_total")
+    private Long estimatedTotal;
+}
@@ -0,0 +1,22 @@
+package com.group2.kgrill.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.swd392.group2.kgrill_service.dto.DeliveryLocationDTO;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliveryLocationPing {
+
+    @NotNull
+    @JsonProperty("order_id")
+    private Long orderId;
+
+    @JsonUnwrapped
+    private DeliveryLocationDTO location;
+}
@@ -0,0 +1,43 @@
+package com.group2.kgrill.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One order of the delivery order detail lists of kgrill-service (customer history, shipper history, revenue
+ * details). Dates stay text because the service emits both ISO offsets and SQL timestamps, see
+ * {@link com.group2.kgrill.util.ServiceResponseReader#parseDateTime(String)}.
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class DeliveryOrderRow {
+
+    @JsonProperty("Delivery_order_id")
+    private Long orderId;
+
+    @JsonProperty("User_name")
+    private String userName;
+
+    @JsonProperty("Package_name")
+    private List<String> packageNames;
+
+    @JsonProperty("Delivery_order_status")
+    private String status;
+
+    @JsonProperty("Delivery_order_date")
+    private String orderDate;
+
+    @JsonProperty("Delivery_shipped_date")
+    private String shippedDate;
+
+    @JsonProperty("Shipper_name")
+    private String shipperName;
+
+    @JsonProperty("Delivery_order_value")
+    private Double orderValue;
+}
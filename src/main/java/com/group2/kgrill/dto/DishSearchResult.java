@@ -0,0 +1,45 @@
+package com.group2.kgrill.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DishSearchResult {
+
+    private List<JsonNode> content;
+
+    @JsonProperty("page_no")
+    private int pageNo;
+
+    @JsonProperty("page_size")
+    private int pageSize;
+
+    @JsonProperty("total_elements")
+    private long totalElements;
+
+    @JsonProperty("total_pages")
+    private int totalPages;
+
+    private boolean last;
+
+    /**
+     * Matches per category for the keyword and price filter, ignoring the selected category.
+     */
+    @JsonProperty("category_facets")
+    private List<FacetCount> categoryFacets;
+
+    @JsonProperty("min_price")
+    private Double minPrice;
+
+    @JsonProperty("max_price")
+    private Double maxPrice;
+}
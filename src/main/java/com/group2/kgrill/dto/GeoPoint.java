@@ -0,0 +1,35 @@
+package com.group2.kgrill.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Optional;
+
+public record GeoPoint(double latitude, double longitude) {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    public double distanceKm(GeoPoint other) {
+        double dLat = Math.toRadians(other.latitude - latitude);
+        double dLon = Math.toRadians(other.longitude - longitude);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(latitude)) * Math.cos(Math.toRadians(other.latitude))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+
+    /**
+     * Reads a latitude/longitude pair from a service DTO, accepting both the lower and capitalised field names used across the API.
+     */
+    public static Optional<GeoPoint> from(JsonNode node) {
+        JsonNode latitude = node.has("latitude") ? node.get("latitude") : node.path("Latitude");
+        JsonNode longitude = node.has("longitude") ? node.get("longitude") : node.path("Longitude");
+        if (latitude.isMissingNode() || longitude.isMissingNode() || latitude.isNull() || longitude.isNull()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new GeoPoint(Double.parseDouble(latitude.asText()), Double.parseDouble(longitude.asText())));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.group2.kgrill.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageUploadJob {
+
+    public enum Target {
+        PROFILE_PICTURE,
+        PACKAGE_THUMBNAIL
+    }
+
+    public enum Status {
+        QUEUED,
+        PROCESSING,
+        COMPLETED,
+        FAILED
+    }
+
+    @JsonProperty("job_id")
+    private UUID jobId;
+
+    @JsonProperty("target")
+    private Target target;
+
+    @JsonProperty("target_id")
+    private String targetId;
+
+    @JsonProperty("status")
+    private Status status;
+
+    @JsonProperty("image_url")
+    private String imageUrl;
+
+    @JsonProperty("original_bytes")
+    private long originalBytes;
+
+    @JsonProperty("uploaded_bytes")
+    private long uploadedBytes;
+
+    @JsonProperty("error")
+    private String error;
+
+    @JsonProperty("created_at")
+    private Instant createdAt;
+
+    @JsonProperty("completed_at")
+    private Instant completedAt;
+}
@@ -0,0 +1,12 @@
+package com.group2.kgrill.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.swd392.group2.kgrill_service.dto.DeliveryLocationDTO;
+
+import java.time.Instant;
+
+public record LatestDeliveryLocation(@JsonProperty("order_id") long orderId,
+                                     @JsonUnwrapped DeliveryLocationDTO location,
+                                     @JsonProperty("received_at") Instant receivedAt) {
+}
@@ -0,0 +1,53 @@
+package com.group2.kgrill.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MailOutboxStatus {
+
+    @JsonProperty("queued")
+    private int queued;
+
+    @JsonProperty("waiting_retry")
+    private int waitingRetry;
+
+    @JsonProperty("sent")
+    private long sent;
+
+    @JsonProperty("rejected")
+    private long rejected;
+
+    @JsonProperty("smtp_sessions")
+    private long smtpSessions;
+
+    @JsonProperty("dead_letters")
+    private List<DeadLetter> deadLetters;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DeadLetter {
+
+        private List<String> recipients;
+
+        private String subject;
+
+        private int attempts;
+
+        private String error;
+
+        @JsonProperty("failed_at")
+        private Instant failedAt;
+    }
+}
@@ -0,0 +1,52 @@
+package com.group2.kgrill.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationOutboxStatus {
+
+    @JsonProperty("queued")
+    private int queued;
+
+    @JsonProperty("waiting_retry")
+    private int waitingRetry;
+
+    @JsonProperty("sent")
+    private long sent;
+
+    @JsonProperty("rejected")
+    private long rejected;
+
+    @JsonProperty("dead_letters")
+    private List<DeadLetter> deadLetters;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DeadLetter {
+
+        @JsonProperty("user_id")
+        private UUID userId;
+
+        private String title;
+
+        private String body;
+
+        private int attempts;
+
+        @JsonProperty("failed_at")
+        private Instant failedAt;
+    }
+}
@@ -0,0 +1,34 @@
+package com.group2.kgrill.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderTrackingMessage {
+
+    private String type;
+
+    @JsonProperty("order_id")
+    private Long orderId;
+
+    @JsonProperty("user_id")
+    private UUID userId;
+
+    @JsonProperty("shipper_id")
+    private Long shipperId;
+
+    private LatestDeliveryLocation location;
+
+    private Instant timestamp;
+}
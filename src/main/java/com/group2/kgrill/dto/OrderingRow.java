@@ -0,0 +1,53 @@
+package com.group2.kgrill.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One order of the manager ordering list of kgrill-service.
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class OrderingRow {
+
+    public static final String STATUS_FIELD = "Order_status";
+    public static final String SHIPPER_NAME_FIELD = "Shipper_name";
+
+    @JsonProperty("Delivery_Order_Id")
+    private Long orderId;
+
+    @JsonProperty("User_name")
+    private String userName;
+
+    @JsonProperty("Phone")
+    private String phone;
+
+    @JsonProperty("Package_name")
+    private List<String> packageNames;
+
+    @JsonProperty("Order_value")
+    private Double orderValue;
+
+    @JsonProperty("Address")
+    private String address;
+
+    @JsonProperty("Latitude")
+    private Double latitude;
+
+    @JsonProperty("Longitude")
+    private Double longitude;
+
+    @JsonProperty("Order_date")
+    private String orderDate;
+
+    @JsonProperty(STATUS_FIELD)
+    private String status;
+
+    @JsonProperty(SHIPPER_NAME_FIELD)
+    private String shipperName;
+}
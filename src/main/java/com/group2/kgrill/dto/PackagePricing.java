@@ -0,0 +1,37 @@
+package com.group2.kgrill.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PackagePricing {
+
+    @JsonProperty("package_id")
+    private int packageId;
+
+    /**
+     * Price stored on the package.
+     */
+    @JsonProperty("package_price")
+    private double packagePrice;
+
+    /**
+     * Sum of the current prices of the package's dishes.
+     */
+    @JsonProperty("dish_price_total")
+    private double dishPriceTotal;
+
+    /**
+     * Sum of the ingredient costs of the package's dishes.
+     */
+    @JsonProperty("ingredient_cost")
+    private double ingredientCost;
+
+    private double margin;
+}
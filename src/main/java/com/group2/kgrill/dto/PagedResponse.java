@@ -0,0 +1,48 @@
+package com.group2.kgrill.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PagedResponse<T> {
+
+    private List<T> content;
+
+    @JsonProperty("page_no")
+    private int pageNo;
+
+    @JsonProperty("page_size")
+    private int pageSize;
+
+    @JsonProperty("total_elements")
+    private long totalElements;
+
+    @JsonProperty("total_pages")
+    private int totalPages;
+
+    private boolean last;
+
+    public static <T> PagedResponse<T> of(List<T> all, int pageNo, int pageSize) {
+        int size = Math.max(pageSize, 1);
+        int page = Math.max(pageNo, 0);
+        int from = (int) Math.min((long) page * size, all.size());
+        int to = Math.min(from + size, all.size());
+        int totalPages = (all.size() + size - 1) / size;
+        return PagedResponse.<T>builder()
+                .content(List.copyOf(all.subList(from, to)))
+                .pageNo(page)
+                .pageSize(size)
+                .totalElements(all.size())
+                .totalPages(totalPages)
+                .last(page >= totalPages - 1)
+                .build();
+    }
+}
@@ -0,0 +1,34 @@
+package com.group2.kgrill.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PricingChange {
+
+    private String kind;
+
+    private String action;
+
+    private Integer id;
+
+    @JsonProperty("dishes_touched")
+    private int dishesTouched;
+
+    @JsonProperty("packages_touched")
+    private int packagesTouched;
+
+    @JsonProperty("duration_micros")
+    private long durationMicros;
+
+    @JsonProperty("applied_at")
+    private Instant appliedAt;
+}
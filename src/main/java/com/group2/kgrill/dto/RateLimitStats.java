@@ -0,0 +1,31 @@
+package com.group2.kgrill.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateLimitStats {
+
+    private String policy;
+
+    private int capacity;
+
+    @JsonProperty("refill_tokens")
+    private int refillTokens;
+
+    @JsonProperty("refill_period_seconds")
+    private long refillPeriodSeconds;
+
+    private long allowed;
+
+    private long throttled;
+
+    @JsonProperty("active_buckets")
+    private long activeBuckets;
+}
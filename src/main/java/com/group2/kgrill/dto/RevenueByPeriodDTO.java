@@ -0,0 +1,37 @@
+package com.group2.kgrill.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevenueByPeriodDTO {
+
+    @JsonProperty("order_date")
+    private String orderDate;
+
+    @JsonProperty("total_order_number")
+    private long totalOrderNumber;
+
+    @JsonProperty("completed_number")
+    private long completedNumber;
+
+    @JsonProperty("cancelled_number")
+    private long cancelledNumber;
+
+    @JsonProperty("total_revenue")
+    private BigDecimal totalRevenue;
+
+    @JsonProperty("completed_order")
+    private BigDecimal completedOrder;
+
+    @JsonProperty("cancelled_order")
+    private BigDecimal cancelledOrder;
+}
@@ -0,0 +1,30 @@
+package com.group2.kgrill.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShipperDeliveryStats {
+
+    @JsonProperty("shipper_id")
+    private int shipperId;
+
+    private long deliveries;
+
+    /**
+     * Sum of the order values of the delivered orders, which is revenue and not the shipper's pay.
+     */
+    @JsonProperty("delivered_order_value")
+    private double deliveredOrderValue;
+
+    @JsonProperty("last_delivered_at")
+    private LocalDateTime lastDeliveredAt;
+}
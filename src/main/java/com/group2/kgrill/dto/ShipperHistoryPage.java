@@ -0,0 +1,36 @@
+package com.group2.kgrill.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShipperHistoryPage {
+
+    private List<JsonNode> content;
+
+    @JsonProperty("page_size")
+    private int pageSize;
+
+    @JsonProperty("next_cursor")
+    private String nextCursor;
+
+    @JsonProperty("has_next")
+    private boolean hasNext;
+
+    /**
+     * Marks the newest delivery known so far; passed back as {@code since} on the next app open.
+     */
+    @JsonProperty("sync_token")
+    private String syncToken;
+
+    private ShipperDeliveryStats stats;
+}
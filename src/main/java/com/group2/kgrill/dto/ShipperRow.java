@@ -0,0 +1,18 @@
+package com.group2.kgrill.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One shipper of the available shipper list of kgrill-service.
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ShipperRow {
+
+    @JsonProperty("shipper_id")
+    private Long shipperId;
+}
@@ -0,0 +1,30 @@
+package com.group2.kgrill.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLevel {
+
+    @JsonProperty("ingredient_id")
+    private int ingredientId;
+
+    /**
+     * Quantity in the kitchen, in the unit the recipes use.
+     */
+    @JsonProperty("on_hand")
+    private double onHand;
+
+    /**
+     * Quantity held by checked-out orders that the kitchen has not accepted yet.
+     */
+    private double reserved;
+
+    private double available;
+}
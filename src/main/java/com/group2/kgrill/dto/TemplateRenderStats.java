@@ -0,0 +1,29 @@
+package com.group2.kgrill.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TemplateRenderStats {
+
+    private String template;
+
+    private boolean precompiled;
+
+    @JsonProperty("precompile_micros")
+    private long precompileMicros;
+
+    private long renders;
+
+    @JsonProperty("average_render_micros")
+    private long averageRenderMicros;
+
+    @JsonProperty("max_render_micros")
+    private long maxRenderMicros;
+}
@@ -0,0 +1,33 @@
+package com.group2.kgrill.event;
+
+import lombok.Getter;
+
+/**
+ * Published after a package, dish or ingredient was created, updated or deleted.
+ * A {@code null} id means the changed entity could not be identified and every entry of that kind is affected.
+ */
+@Getter
+public class CatalogChangedEvent {
+
+    public enum Kind {
+        PACKAGE,
+        DISH,
+        INGREDIENT
+    }
+
+    public enum Action {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Kind kind;
+    private final Action action;
+    private final Integer id;
+
+    public CatalogChangedEvent(Kind kind, Action action, Integer id) {
+        this.kind = kind;
+        this.action = action;
+        this.id = id;
+    }
+}
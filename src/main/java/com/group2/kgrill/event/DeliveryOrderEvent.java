@@ -0,0 +1,57 @@
+package com.group2.kgrill.event;
+
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Published by the controllers after a delivery order changed state, so in-memory views
+ * (revenue rollup, tracking, queues, ...) can update without polling the database. Only the parties the
+ * publisher knows are set; listeners that need the others look them up in the order directory.
+ */
+@Getter
+public class DeliveryOrderEvent {
+
+    public enum Type {
+        CHECKED_OUT,
+        ACCEPTED,
+        CANCELLED,
+        SHIPPER_ASSIGNED,
+        LOCATION_UPDATED
+    }
+
+    private final Type type;
+    private final Long orderId;
+    private final UUID userId;
+    private final Long shipperId;
+
+    private DeliveryOrderEvent(Type type, Long orderId, UUID userId, Long shipperId) {
+        this.type = type;
+        this.orderId = orderId;
+        this.userId = userId;
+        this.shipperId = shipperId;
+    }
+
+    /**
+     * @param orderId the order the cart became, {@code null} when the cart did not carry its id
+     */
+    public static DeliveryOrderEvent checkedOut(Long orderId, UUID userId) {
+        return new DeliveryOrderEvent(Type.CHECKED_OUT, orderId, userId, null);
+    }
+
+    public static DeliveryOrderEvent accepted(long orderId) {
+        return new DeliveryOrderEvent(Type.ACCEPTED, orderId, null, null);
+    }
+
+    public static DeliveryOrderEvent cancelled(long orderId) {
+        return new DeliveryOrderEvent(Type.CANCELLED, orderId, null, null);
+    }
+
+    public static DeliveryOrderEvent shipperAssigned(long orderId, long shipperId) {
+        return new DeliveryOrderEvent(Type.SHIPPER_ASSIGNED, orderId, null, shipperId);
+    }
+
+    public static DeliveryOrderEvent locationUpdated(long orderId) {
+        return new DeliveryOrderEvent(Type.LOCATION_UPDATED, orderId, null, null);
+    }
+}
@@ -0,0 +1,34 @@
+package com.group2.kgrill.service;
+
+import java.util.UUID;
+
+public interface CartService {
+
+    /**
+     * @throws org.springframework.web.server.ResponseStatusException 400 for a quantity below 1, 404 for an
+     *                                                                unknown package
+     */
+    void addPackage(UUID userId, int packageId, int quantity);
+
+    /**
+     * @param userId the cart owner; when given, the order detail must be in that user's cart
+     * @throws org.springframework.web.server.ResponseStatusException 400 for a quantity below 1, 404 when the
+     *                                                                detail is not in the user's cart
+     */
+    void updateOrderDetail(UUID userId, int orderDetailId, int quantity);
+
+    Object getCartDetail(UUID userId);
+
+    /**
+     * Id of the delivery order that holds the user's cart and becomes the placed order on checkout, or
+     * {@code null} when the cart detail does not carry it.
+     */
+    Long getCartOrderId(UUID userId);
+
+    /**
+     * Writes the user's pending cart changes now; failures are rethrown.
+     */
+    void flush(UUID userId);
+
+    int flushAll();
+}
@@ -0,0 +1,28 @@
+package com.group2.kgrill.service;
+
+import com.group2.kgrill.event.CatalogChangedEvent;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface CatalogBulkService {
+
+    enum Format {
+        NDJSON, CSV
+    }
+
+    /**
+     * Creates or updates (when the record carries an id) one catalog entity per record and streams one
+     * {@link com.group2.kgrill.dto.CatalogImportResult} per record followed by a
+     * {@link com.group2.kgrill.dto.CatalogImportSummary}, as NDJSON. Records are written concurrently: only
+     * records of the same id keep their upload order, so entities another record depends on (the dishes of a
+     * package) must be imported by an earlier call.
+     */
+    void importCatalog(CatalogChangedEvent.Kind kind, Format format, InputStream input, OutputStream output) throws IOException;
+
+    /**
+     * Streams every entity of the kind in the shape {@link #importCatalog} accepts.
+     */
+    void exportCatalog(CatalogChangedEvent.Kind kind, Format format, OutputStream output) throws IOException;
+}
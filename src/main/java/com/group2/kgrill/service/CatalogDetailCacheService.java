@@ -0,0 +1,20 @@
+package com.group2.kgrill.service;
+
+import com.group2.kgrill.dto.CacheStatsDTO;
+import com.swd392.group2.kgrill_service.dto.IngredientDTO;
+import com.swd392.group2.kgrill_service.dto.request.DishRequest;
+
+import java.util.List;
+
+public interface CatalogDetailCacheService {
+
+    Object getPackageDetail(int packageId);
+
+    Object getPackageDetailOnMobile(int packageId);
+
+    DishRequest getDish(int dishId);
+
+    IngredientDTO getIngredient(int ingredientId);
+
+    List<CacheStatsDTO> getStats();
+}
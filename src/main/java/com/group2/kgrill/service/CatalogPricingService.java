@@ -0,0 +1,39 @@
+package com.group2.kgrill.service;
+
+import com.group2.kgrill.dto.CatalogPricingStats;
+import com.group2.kgrill.dto.PackagePricing;
+import com.group2.kgrill.event.CatalogChangedEvent;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public interface CatalogPricingService {
+
+    boolean isReady();
+
+    Optional<PackagePricing> getPackagePricing(int packageId);
+
+    List<PackagePricing> getAllPackagePricing();
+
+    /**
+     * Dishes built from the ingredient, or empty when the graph cannot tell (not built yet).
+     */
+    Optional<Set<Integer>> dishesDependingOn(int ingredientId);
+
+    /**
+     * Packages containing the dish or ingredient, or empty when the graph cannot tell (not built yet).
+     */
+    Optional<Set<Integer>> packagesDependingOn(CatalogChangedEvent.Kind kind, int id);
+
+    /**
+     * Quantity of each ingredient that goes into one unit of the package, or empty when the package is unknown
+     * to the graph (not built yet or created since).
+     */
+    Optional<Map<Integer, Double>> ingredientsOf(int packageId);
+
+    CatalogPricingStats getStats();
+
+    void rebuild();
+}
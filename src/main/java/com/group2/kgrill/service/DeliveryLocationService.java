@@ -0,0 +1,15 @@
+package com.group2.kgrill.service;
+
+import com.group2.kgrill.dto.LatestDeliveryLocation;
+import com.swd392.group2.kgrill_service.dto.DeliveryLocationDTO;
+
+import java.util.Optional;
+
+public interface DeliveryLocationService {
+
+    void recordLocation(long orderId, DeliveryLocationDTO location);
+
+    Optional<LatestDeliveryLocation> getLatestLocation(long orderId);
+
+    int flush();
+}
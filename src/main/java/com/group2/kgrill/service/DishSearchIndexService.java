@@ -0,0 +1,16 @@
+package com.group2.kgrill.service;
+
+import com.group2.kgrill.dto.DishSearchResult;
+
+public interface DishSearchIndexService {
+
+    boolean isReady();
+
+    /**
+     * @param pageNumber page number, starting from 1
+     */
+    DishSearchResult search(String keyword, String category, Double minPrice, Double maxPrice,
+                            String sortField, String sortDir, int pageNumber, int pageSize);
+
+    void rebuild();
+}
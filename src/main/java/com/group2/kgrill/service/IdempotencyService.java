@@ -0,0 +1,16 @@
+package com.group2.kgrill.service;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    /**
+     * Runs the action once per scope and key. A repeated call with the same key returns the recorded result, or
+     * waits for it while the first call is still running; a failed call is not recorded so it can be retried.
+     * Reusing a key for a different request (another {@code fingerprint}) is rejected with 422.
+     */
+    <T> Outcome<T> execute(String scope, String key, Object fingerprint, Class<T> resultType, Supplier<T> action);
+
+    record Outcome<T>(T result, boolean replayed) {
+    }
+}
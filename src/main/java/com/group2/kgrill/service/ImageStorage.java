@@ -0,0 +1,12 @@
+package com.group2.kgrill.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public interface ImageStorage {
+
+    /**
+     * Uploads the image file and returns its public URL.
+     */
+    String store(Path image, String fileName, String contentType) throws IOException;
+}
@@ -0,0 +1,19 @@
+package com.group2.kgrill.service;
+
+import com.group2.kgrill.dto.ImageUploadJob;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ImageUploadService {
+
+    /**
+     * Spools the file to disk and queues it for resizing and upload. The returned job is {@code QUEUED};
+     * the target is updated with the image URL once the upload completes.
+     */
+    ImageUploadJob submit(MultipartFile file, ImageUploadJob.Target target, String targetId) throws IOException;
+
+    Optional<ImageUploadJob> getJob(UUID jobId);
+}
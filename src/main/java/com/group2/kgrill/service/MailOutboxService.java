@@ -0,0 +1,16 @@
+package com.group2.kgrill.service;
+
+import com.group2.kgrill.dto.MailOutboxStatus;
+import jakarta.mail.internet.MimeMessage;
+
+public interface MailOutboxService {
+
+    /**
+     * Queues a fully prepared message for delivery.
+     *
+     * @return {@code false} when the outbox is full and the message was not accepted
+     */
+    boolean enqueue(MimeMessage message);
+
+    MailOutboxStatus getStatus();
+}
@@ -0,0 +1,15 @@
+package com.group2.kgrill.service;
+
+import com.group2.kgrill.dto.CatalogSnapshot;
+
+public interface MobileCatalogService {
+
+    String getCurrentETag();
+
+    /**
+     * Returns the packages matching every keyword token (the last token as a prefix), or the whole catalog for a blank keyword.
+     */
+    CatalogSnapshot search(String keyword);
+
+    void invalidate();
+}
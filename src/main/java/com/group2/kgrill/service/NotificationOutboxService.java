@@ -0,0 +1,12 @@
+package com.group2.kgrill.service;
+
+import com.group2.kgrill.dto.NotificationOutboxStatus;
+
+import java.util.UUID;
+
+public interface NotificationOutboxService {
+
+    boolean enqueue(UUID userId, String title, String body);
+
+    NotificationOutboxStatus getStatus();
+}
@@ -0,0 +1,19 @@
+package com.group2.kgrill.service;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Who placed an order and which shipper carries it. kgrill-service cannot look an order up by id, so the parties
+ * are learned from checkouts, shipper assignments and the order histories read through this backend.
+ */
+public interface OrderDirectoryService {
+
+    void recordOwner(long orderId, UUID userId);
+
+    void recordShipper(long orderId, long shipperId);
+
+    Optional<UUID> ownerOf(long orderId);
+
+    Optional<Long> shipperOf(long orderId);
+}
@@ -0,0 +1,22 @@
+package com.group2.kgrill.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.group2.kgrill.dto.CursorPage;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+public interface OrderHistoryService {
+
+    /**
+     * Newest-first page of order summaries (the order row without its detail lists), optionally limited to orders
+     * placed between {@code from} and {@code to} inclusive.
+     */
+    CursorPage<JsonNode> getOrderHistoryPage(UUID userId, String cursor, int pageSize, LocalDate from, LocalDate to);
+
+    Optional<JsonNode> getOrderDetail(UUID userId, long orderId);
+
+    Set<Long> getOrderIds(UUID userId);
+}
@@ -0,0 +1,23 @@
+package com.group2.kgrill.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.group2.kgrill.dto.PagedResponse;
+
+import java.util.Map;
+
+public interface OrderQueueService {
+
+    boolean isReady();
+
+    /**
+     * A page of the ordering queue, optionally of one status, in the page shape of the service layer.
+     */
+    PagedResponse<JsonNode> getQueuePage(String status, int pageNo, int pageSize, String sortBy, String sortDir);
+
+    /**
+     * Number of queued orders per status.
+     */
+    Map<String, Integer> getStatusCounts();
+
+    void rebuild();
+}
@@ -0,0 +1,18 @@
+package com.group2.kgrill.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+public interface OrderTrackingService {
+
+    SseEmitter subscribeToOrder(long orderId);
+
+    SseEmitter subscribeToUser(UUID userId);
+
+    SseEmitter subscribeToShipper(long shipperId);
+
+    SseEmitter subscribeToAllOrders();
+
+    int getSubscriberCount();
+}
@@ -0,0 +1,13 @@
+package com.group2.kgrill.service;
+
+import java.util.List;
+
+public interface PushNotificationSender {
+
+    /**
+     * Sends the same notification to every device token.
+     *
+     * @return the tokens that could not be delivered and should be retried
+     */
+    List<String> sendMulticast(String title, String body, List<String> deviceTokens);
+}
@@ -0,0 +1,44 @@
+package com.group2.kgrill.service;
+
+import com.group2.kgrill.dto.RateLimitStats;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+public interface RateLimitService {
+
+    @Getter
+    @RequiredArgsConstructor
+    enum Policy {
+        SIGN_IN_IP("sign-in.ip", 20, 10, 60),
+        SIGN_IN_ACCOUNT("sign-in.account", 5, 5, 300),
+        REGISTER_IP("register.ip", 5, 5, 3600),
+        REGISTER_ACCOUNT("register.account", 3, 3, 3600);
+
+        private final String propertyName;
+        private final int defaultCapacity;
+        private final int defaultRefillTokens;
+        private final long defaultRefillPeriodSeconds;
+    }
+
+    /**
+     * @param retryAfterSeconds seconds until the next attempt would be allowed, 0 when allowed
+     */
+    record Decision(boolean allowed, long retryAfterSeconds) {
+
+        public static final Decision ALLOWED = new Decision(true, 0);
+    }
+
+    /**
+     * Takes a token from the caller's bucket of the policy.
+     */
+    Decision tryAcquire(Policy policy, String key);
+
+    /**
+     * Takes a token from the per-IP bucket and, when that allows it and an account is given, from the per-account bucket.
+     */
+    Decision tryAcquire(Policy ipPolicy, String ip, Policy accountPolicy, String account);
+
+    List<RateLimitStats> getStats();
+}
@@ -0,0 +1,14 @@
+package com.group2.kgrill.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+public interface RevenueDetailExportService {
+
+    enum ExportFormat {
+        NDJSON, CSV
+    }
+
+    void exportRevenueDetails(OutputStream outputStream, ExportFormat format, String period, LocalDate date) throws IOException;
+}
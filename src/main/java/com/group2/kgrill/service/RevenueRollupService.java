@@ -0,0 +1,17 @@
+package com.group2.kgrill.service;
+
+import com.group2.kgrill.dto.PagedResponse;
+import com.group2.kgrill.dto.RevenueByPeriodDTO;
+
+import java.time.LocalDate;
+
+public interface RevenueRollupService {
+
+    PagedResponse<RevenueByPeriodDTO> getRevenueByPeriod(int pageNo, int pageSize, String sortBy, String sortDir, String period, LocalDate date);
+
+    void markOrderChanged(Long orderId);
+
+    void refreshDirtyDays();
+
+    void rebuild();
+}
@@ -0,0 +1,31 @@
+package com.group2.kgrill.service;
+
+import com.group2.kgrill.dto.GeoPoint;
+
+import java.util.Optional;
+
+public interface ShipperDispatchService {
+
+    enum AssignmentResult {
+        ASSIGNED,
+        SHIPPER_BUSY,
+        ORDER_ALREADY_ASSIGNED,
+        REJECTED
+    }
+
+    AssignmentResult assignShipper(long shipperId, long orderId);
+
+    /**
+     * Assigns the nearest free shipper with a known location to the order. When no destination is given
+     * the latest known location of the order is used.
+     *
+     * @return the assigned shipper id, empty when no free shipper could be claimed
+     */
+    Optional<Long> autoAssign(long orderId, GeoPoint destination);
+
+    void updateShipperLocation(long shipperId, GeoPoint location);
+
+    void releaseOrder(long orderId);
+
+    void synchronizeWithDatabase();
+}
@@ -0,0 +1,15 @@
+package com.group2.kgrill.service;
+
+import com.group2.kgrill.dto.ShipperDeliveryStats;
+import com.group2.kgrill.dto.ShipperHistoryPage;
+
+public interface ShipperHistoryService {
+
+    /**
+     * Newest-first page of the shipper's deliveries. With a {@code since} sync token only deliveries recorded after
+     * that token was handed out are returned.
+     */
+    ShipperHistoryPage getHistoryPage(int shipperId, String cursor, String since, int pageSize);
+
+    ShipperDeliveryStats getStats(int shipperId);
+}
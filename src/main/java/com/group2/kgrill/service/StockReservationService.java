@@ -0,0 +1,33 @@
+package com.group2.kgrill.service;
+
+import com.group2.kgrill.dto.StockLevel;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface StockReservationService {
+
+    /**
+     * Reserves the ingredients of every package in the cart, all or nothing.
+     *
+     * @return the reservation id
+     * @throws org.springframework.web.server.ResponseStatusException 409 when an ingredient is short
+     */
+    UUID reserve(UUID userId, Object cartDetail);
+
+    /**
+     * Ties a reservation to the order its checkout placed, so accepting the order consumes it and cancelling
+     * releases it. Without an order id, or when the order already holds another reservation, the reservation
+     * stays unbound and is released by the sweep.
+     */
+    void attachToOrder(UUID reservationId, Long orderId);
+
+    void release(UUID reservationId);
+
+    StockLevel setOnHand(int ingredientId, double onHand);
+
+    Optional<StockLevel> getStockLevel(int ingredientId);
+
+    List<StockLevel> getStockLevels();
+}
@@ -0,0 +1,39 @@
+package com.group2.kgrill.service;
+
+import com.group2.kgrill.dto.CacheStatsDTO;
+import com.swd392.group2.kgrill_service.dto.AuthenticationResponse;
+import org.springframework.security.core.Authentication;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface TokenVerificationService {
+
+    /**
+     * Returns the authentication of a token that was verified before and has not been revoked since.
+     */
+    Optional<Authentication> lookup(String token);
+
+    /**
+     * Remembers the authentication the JWT filter established for the token.
+     */
+    void remember(String token, Authentication authentication);
+
+    /**
+     * Stops serving cached authentications for tokens of the token's subject issued before {@code issuedBefore}.
+     */
+    void revokeSubject(String token, Instant issuedBefore);
+
+    /**
+     * Stops serving cached authentications for every token issued to the account so far, so a lock, disable or
+     * role change takes effect on the next request. Token subjects are the account email.
+     */
+    void revokeAccount(String email);
+
+    /**
+     * Revokes the older tokens of the subject the tokens in a sign-in or refresh response were issued to.
+     */
+    void onTokensIssued(AuthenticationResponse authenticationResponse);
+
+    CacheStatsDTO getStats();
+}
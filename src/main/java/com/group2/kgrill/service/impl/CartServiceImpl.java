@@ -0,0 +1,429 @@
+package com.group2.kgrill.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.group2.kgrill.dto.CartLine;
+import com.group2.kgrill.event.DeliveryOrderEvent;
+import com.group2.kgrill.service.CartService;
+import com.group2.kgrill.service.CatalogDetailCacheService;
+import com.group2.kgrill.service.CatalogPricingService;
+import com.group2.kgrill.util.ServiceErrors;
+import com.group2.kgrill.util.ServiceResponseReader;
+import com.swd392.group2.kgrill_service.service.DeliveryOrderService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind cart. Taps on "+" and quantity edits are queued per user and merged into the previous pending change
+ * when it targets the same package or order detail, then written by the periodic flush, so a burst of taps costs one
+ * transactional write. Changes keep their order, a change is only merged into the one directly before it.
+ * <p>
+ * Every user has its own state lock (held only to queue or take changes) and flush lock (held while writing), so
+ * users never wait on each other and a user's writes reach the database in tap order. The cart read is served from
+ * the in-memory cart: the cart last loaded from the database with every change since laid over the quantities of
+ * its lines. It is loaded again, after writing the pending changes, once it is older than
+ * {@code kgrill.cart.snapshot-ttl-seconds} or a change cannot be laid over it (a package not in the cart yet, a
+ * change that was dropped). Checkout flushes first.
+ * <p>
+ * A change is validated before it is queued (the package exists, the quantity is positive, the order detail is in
+ * the user's cart), so the caller gets the error instead of a success followed by a silently dropped write. A
+ * queued change that still fails for good is dropped at once; only transient failures are retried, and only
+ * checkout sees them, the cart read is served regardless.
+ */
+@Slf4j
+@Service
+public class CartServiceImpl implements CartService {
+
+    private static final String CART_ORDER_ID_FIELD = "Delivery_order_id";
+
+    private final DeliveryOrderService deliveryOrderService;
+    private final CatalogPricingService catalogPricingService;
+    private final CatalogDetailCacheService catalogDetailCacheService;
+    private final ServiceResponseReader responseReader;
+    private final int maxPendingChanges;
+    private final int maxAttempts;
+    private final long snapshotTtlNanos;
+
+    private final Map<UUID, CartState> carts = new ConcurrentHashMap<>();
+    private final Map<Integer, UUID> orderDetailOwners = new ConcurrentHashMap<>();
+
+    public CartServiceImpl(DeliveryOrderService deliveryOrderService,
+                           CatalogPricingService catalogPricingService,
+                           CatalogDetailCacheService catalogDetailCacheService,
+                           ServiceResponseReader responseReader,
+                           @Value("${kgrill.cart.max-pending-changes:50}") int maxPendingChanges,
+                           @Value("${kgrill.cart.max-attempts:3}") int maxAttempts,
+                           @Value("${kgrill.cart.snapshot-ttl-seconds:30}") long snapshotTtlSeconds) {
+        this.deliveryOrderService = deliveryOrderService;
+        this.catalogPricingService = catalogPricingService;
+        this.catalogDetailCacheService = catalogDetailCacheService;
+        this.responseReader = responseReader;
+        this.maxPendingChanges = maxPendingChanges;
+        this.maxAttempts = maxAttempts;
+        this.snapshotTtlNanos = TimeUnit.SECONDS.toNanos(snapshotTtlSeconds);
+    }
+
+    @Override
+    public void addPackage(UUID userId, int packageId, int quantity) {
+        requireUser(userId);
+        requirePositive(quantity);
+        requirePackage(packageId);
+        queue(userId, new CartChange(CartChange.Kind.ADD_PACKAGE, packageId, quantity));
+    }
+
+    @Override
+    public void updateOrderDetail(UUID userId, int orderDetailId, int quantity) {
+        requirePositive(quantity);
+        if (userId != null) {
+            if (!inCart(userId, orderDetailId)) {
+                // Not seen in this user's cart yet, or the cart in memory is older than the detail
+                invalidate(state(userId));
+                getCartDetail(userId);
+                if (!inCart(userId, orderDetailId)) {
+                    throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Order detail " + orderDetailId + " is not in the cart");
+                }
+            }
+            queue(userId, new CartChange(CartChange.Kind.SET_QUANTITY, orderDetailId, quantity));
+            return;
+        }
+        UUID owner = orderDetailOwners.get(orderDetailId);
+        if (owner == null) {
+            // The detail was never seen in a cart read, so there is no user to serialize with; written now so
+            // an invalid id fails this request
+            deliveryOrderService.updateOrderDetail(orderDetailId, quantity);
+            return;
+        }
+        queue(owner, new CartChange(CartChange.Kind.SET_QUANTITY, orderDetailId, quantity));
+    }
+
+    @Override
+    public Object getCartDetail(UUID userId) {
+        requireUser(userId);
+        CartState cart = state(userId);
+        JsonNode view = cart.view;
+        if (view != null && System.nanoTime() - cart.viewAt < snapshotTtlNanos) {
+            return view.deepCopy();
+        }
+        cart.flushLock.lock();
+        try {
+            // A change that keeps failing must not take the cart read down with it, it stays queued
+            write(userId, cart, false);
+            long version = cart.version;
+            JsonNode loaded = responseReader.readBody(deliveryOrderService.getOrderDetailAfterLogin(userId));
+            Set<Integer> orderDetailIds = new HashSet<>();
+            collectOrderDetailIds(loaded, orderDetailIds);
+            orderDetailIds.forEach(orderDetailId -> orderDetailOwners.put(orderDetailId, userId));
+            synchronized (cart) {
+                cart.orderDetailIds.addAll(orderDetailIds);
+                // Changes still queued (failed or queued while loading) are not in the database yet
+                view = loaded.deepCopy();
+                boolean complete = true;
+                for (CartChange change : cart.pending) {
+                    complete &= change.overlay(view);
+                }
+                if (complete && cart.version == version) {
+                    cart.view = view;
+                    cart.viewAt = System.nanoTime();
+                }
+            }
+            return view.deepCopy();
+        } finally {
+            cart.flushLock.unlock();
+        }
+    }
+
+    @Override
+    public Long getCartOrderId(UUID userId) {
+        JsonNode orderId = responseReader.readData(getCartDetail(userId)).path(CART_ORDER_ID_FIELD);
+        return orderId.canConvertToLong() ? orderId.asLong() : null;
+    }
+
+    @Override
+    public void flush(UUID userId) {
+        CartState cart = userId == null ? null : carts.get(userId);
+        if (cart != null) {
+            write(userId, cart, true);
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${kgrill.cart.flush-delay-ms:500}")
+    public int flushAll() {
+        int written = 0;
+        for (Map.Entry<UUID, CartState> entry : carts.entrySet()) {
+            CartState cart = entry.getValue();
+            if (!cart.pending.isEmpty()) {
+                written += write(entry.getKey(), cart, false);
+            } else if (cart.view == null || System.nanoTime() - cart.viewAt >= snapshotTtlNanos) {
+                retireIfIdle(entry.getKey(), cart);
+            }
+        }
+        if (written > 0) {
+            log.debug("Flushed {} coalesced cart changes", written);
+        }
+        return written;
+    }
+
+    @EventListener
+    public void onDeliveryOrderEvent(DeliveryOrderEvent event) {
+        if (event.getType() == DeliveryOrderEvent.Type.CHECKED_OUT && event.getUserId() != null) {
+            CartState cart = carts.get(event.getUserId());
+            if (cart != null) {
+                invalidate(cart);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushAll();
+    }
+
+    private void queue(UUID userId, CartChange change) {
+        while (true) {
+            CartState cart = state(userId);
+            boolean flushNow;
+            synchronized (cart) {
+                if (cart.retired) {
+                    continue;
+                }
+                CartChange last = cart.pending.peekLast();
+                if (last != null && last.attempts == 0 && last.merge(change)) {
+                    log.trace("Merged cart change {} {} for user {}", change.kind, change.targetId, userId);
+                } else {
+                    cart.pending.addLast(change);
+                }
+                if (cart.view != null) {
+                    // Readers copy the view without the lock, so it is replaced rather than changed
+                    JsonNode view = cart.view.deepCopy();
+                    cart.view = change.overlay(view) ? view : null;
+                }
+                flushNow = cart.pending.size() >= maxPendingChanges;
+            }
+            if (flushNow) {
+                write(userId, cart, false);
+            }
+            return;
+        }
+    }
+
+    private int write(UUID userId, CartState cart, boolean rethrow) {
+        cart.flushLock.lock();
+        try {
+            List<CartChange> changes;
+            synchronized (cart) {
+                changes = new ArrayList<>(cart.pending);
+                cart.pending.clear();
+            }
+            for (int i = 0; i < changes.size(); i++) {
+                CartChange change = changes.get(i);
+                try {
+                    change.apply(deliveryOrderService, userId);
+                } catch (RuntimeException e) {
+                    if (!ServiceErrors.isRetryable(e)) {
+                        // Fails the same way on every attempt, holding it would block the changes behind it
+                        log.error("Dropping cart change {} {} of user {} that was rejected", change.kind, change.targetId, userId, e);
+                        invalidate(cart);
+                        continue;
+                    }
+                    requeue(userId, cart, change, changes.subList(i + 1, changes.size()));
+                    log.warn("Failed to write cart change {} {} of user {}", change.kind, change.targetId, userId, e);
+                    if (rethrow) {
+                        throw e;
+                    }
+                    return i;
+                }
+            }
+            return changes.size();
+        } finally {
+            cart.flushLock.unlock();
+        }
+    }
+
+    // Failed changes go back in front of anything queued meanwhile, so the tap order is kept
+    private void requeue(UUID userId, CartState cart, CartChange failed, List<CartChange> remaining) {
+        synchronized (cart) {
+            for (int i = remaining.size() - 1; i >= 0; i--) {
+                cart.pending.addFirst(remaining.get(i));
+            }
+            failed.attempts++;
+            if (failed.attempts < maxAttempts) {
+                cart.pending.addFirst(failed);
+            } else {
+                log.error("Dropping cart change {} {} of user {} after {} attempts", failed.kind, failed.targetId, userId, failed.attempts);
+                cart.version++;
+                cart.view = null;
+            }
+        }
+    }
+
+    // The in-memory cart no longer matches the database plus the queued changes, the next read loads it again
+    private static void invalidate(CartState cart) {
+        synchronized (cart) {
+            cart.version++;
+            cart.view = null;
+        }
+    }
+
+    private boolean inCart(UUID userId, int orderDetailId) {
+        CartState cart = carts.get(userId);
+        if (cart == null) {
+            return false;
+        }
+        synchronized (cart) {
+            return cart.orderDetailIds.contains(orderDetailId);
+        }
+    }
+
+    private static void requireUser(UUID userId) {
+        if (userId == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "userId is required");
+        }
+    }
+
+    private static void requirePositive(int quantity) {
+        if (quantity <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Quantity must be greater than 0");
+        }
+    }
+
+    private void requirePackage(int packageId) {
+        if (catalogPricingService.getPackagePricing(packageId).isPresent()) {
+            return;
+        }
+        // Not in the pricing graph: it is still loading or the package was created since
+        Object detail = catalogDetailCacheService.getPackageDetail(packageId);
+        boolean found = !(detail instanceof ResponseEntity<?> response && !response.getStatusCode().is2xxSuccessful())
+                && !responseReader.readData(detail).isMissingNode() && !responseReader.readData(detail).isNull();
+        if (!found) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Package " + packageId + " does not exist");
+        }
+    }
+
+    private CartState state(UUID userId) {
+        return carts.computeIfAbsent(userId, id -> new CartState());
+    }
+
+    private void retireIfIdle(UUID userId, CartState cart) {
+        carts.computeIfPresent(userId, (id, current) -> {
+            synchronized (current) {
+                if (current != cart || !current.pending.isEmpty() || current.flushLock.isLocked()) {
+                    return current;
+                }
+                current.retired = true;
+                current.orderDetailIds.forEach(orderDetailId -> orderDetailOwners.remove(orderDetailId, userId));
+                return null;
+            }
+        });
+    }
+
+    private static void collectOrderDetailIds(JsonNode node, Set<Integer> orderDetailIds) {
+        if (node.path(CartLine.ORDER_DETAIL_ID_FIELD).canConvertToInt()) {
+            orderDetailIds.add(node.get(CartLine.ORDER_DETAIL_ID_FIELD).asInt());
+        }
+        if (node.isContainerNode()) {
+            node.forEach(child -> collectOrderDetailIds(child, orderDetailIds));
+        }
+    }
+
+    private static final class CartState {
+
+        private final Deque<CartChange> pending = new ArrayDeque<>();
+        private final Set<Integer> orderDetailIds = new HashSet<>();
+        private final ReentrantLock flushLock = new ReentrantLock();
+        // Set under the state lock and never changed once set; readers get a copy
+        private volatile JsonNode view;
+        private volatile long viewAt;
+        // Bumped when the view is invalidated, so a load that started before does not install a stale view
+        private volatile long version;
+        private boolean retired;
+    }
+
+    private static final class CartChange {
+
+        private enum Kind {
+            ADD_PACKAGE, SET_QUANTITY
+        }
+
+        private final Kind kind;
+        private final int targetId;
+        private int quantity;
+        private int attempts;
+
+        private CartChange(Kind kind, int targetId, int quantity) {
+            this.kind = kind;
+            this.targetId = targetId;
+            this.quantity = quantity;
+        }
+
+        /**
+         * Adds of the same package sum up, a new quantity for the same order detail replaces the previous one.
+         */
+        private boolean merge(CartChange next) {
+            if (next.kind != kind || next.targetId != targetId) {
+                return false;
+            }
+            quantity = kind == Kind.ADD_PACKAGE ? quantity + next.quantity : next.quantity;
+            return true;
+        }
+
+        /**
+         * Lays this change over the quantity of its line in the cart; false when the cart has no such line.
+         */
+        private boolean overlay(JsonNode cart) {
+            String idField = kind == Kind.ADD_PACKAGE ? CartLine.PACKAGE_ID_FIELD : CartLine.ORDER_DETAIL_ID_FIELD;
+            ObjectNode line = quantityHolder(cart, idField, null);
+            if (line == null) {
+                return false;
+            }
+            int current = line.path(CartLine.QUANTITY_FIELD).asInt();
+            line.put(CartLine.QUANTITY_FIELD, kind == Kind.ADD_PACKAGE ? current + quantity : quantity);
+            return true;
+        }
+
+        // The line carrying the quantity of the target, which is the node with the id or the line it is nested under
+        private ObjectNode quantityHolder(JsonNode node, String idField, ObjectNode line) {
+            if (node instanceof ObjectNode object && object.has(CartLine.QUANTITY_FIELD)) {
+                line = object;
+            }
+            if (node.isObject() && node.path(idField).canConvertToInt() && node.get(idField).asInt() == targetId) {
+                return line;
+            }
+            if (node.isContainerNode()) {
+                for (JsonNode child : node) {
+                    ObjectNode found = quantityHolder(child, idField, line);
+                    if (found != null) {
+                        return found;
+                    }
+                }
+            }
+            return null;
+        }
+
+        private void apply(DeliveryOrderService deliveryOrderService, UUID userId) {
+            switch (kind) {
+                case ADD_PACKAGE -> deliveryOrderService.addPackageToDeliveryOrder(userId, targetId, quantity);
+                case SET_QUANTITY -> deliveryOrderService.updateOrderDetail(targetId, quantity);
+            }
+        }
+    }
+}
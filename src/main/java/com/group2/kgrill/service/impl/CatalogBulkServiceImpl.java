@@ -0,0 +1,487 @@
+package com.group2.kgrill.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.group2.kgrill.dto.CatalogImportResult;
+import com.group2.kgrill.dto.CatalogImportSummary;
+import com.group2.kgrill.event.CatalogChangedEvent;
+import com.group2.kgrill.service.CatalogBulkService;
+import com.group2.kgrill.service.CatalogDetailCacheService;
+import com.group2.kgrill.util.CsvRecordReader;
+import com.group2.kgrill.util.ServiceResponseReader;
+import com.swd392.group2.kgrill_service.dto.IngredientDTO;
+import com.swd392.group2.kgrill_service.dto.request.DishRequest;
+import com.swd392.group2.kgrill_service.dto.request.PackageRequest;
+import com.swd392.group2.kgrill_service.service.DishService;
+import com.swd392.group2.kgrill_service.service.IngredientService;
+import com.swd392.group2.kgrill_service.service.PackageService;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Bulk catalog import and export. Uploads are parsed as a stream, so memory is bounded by one chunk of
+ * {@code kgrill.catalog-import.chunk-size} records whatever the file size. The records of a chunk are validated and
+ * written concurrently by {@code kgrill.catalog-import.parallelism} workers, each write being its own service
+ * transaction, and their results are streamed back in upload order once the chunk is done. Caches and search
+ * indexes are refreshed once at the end of the import instead of once per record.
+ * <p>
+ * Upload order is therefore not write order. Records carrying the same id are written by the same worker in
+ * upload order, so the last one wins; records of different entities, including new ones, may be written in any
+ * order.
+ * <p>
+ * CSV records map columns to the JSON field names of the entity; a cell starting with {@code [} or {@code {} is read
+ * as JSON so nested lists (a dish's ingredients, a package's dishes) survive an export/import round trip.
+ */
+@Slf4j
+@Service
+public class CatalogBulkServiceImpl implements CatalogBulkService {
+
+    private static final int EXPORT_PAGE_SIZE = 500;
+
+    private final DishService dishService;
+    private final IngredientService ingredientService;
+    private final PackageService packageService;
+    private final CatalogDetailCacheService catalogDetailCacheService;
+    private final ServiceResponseReader responseReader;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final long maxRows;
+    private final int parallelism;
+    private final ExecutorService workers;
+
+    public CatalogBulkServiceImpl(DishService dishService,
+                                  IngredientService ingredientService,
+                                  PackageService packageService,
+                                  CatalogDetailCacheService catalogDetailCacheService,
+                                  ServiceResponseReader responseReader,
+                                  ObjectMapper objectMapper,
+                                  Validator validator,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${kgrill.catalog-import.chunk-size:200}") int chunkSize,
+                                  @Value("${kgrill.catalog-import.parallelism:4}") int parallelism,
+                                  @Value("${kgrill.catalog-import.max-rows:20000}") long maxRows) {
+        this.dishService = dishService;
+        this.ingredientService = ingredientService;
+        this.packageService = packageService;
+        this.catalogDetailCacheService = catalogDetailCacheService;
+        this.responseReader = responseReader;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = Math.max(chunkSize, 1);
+        this.maxRows = maxRows;
+        this.parallelism = Math.max(parallelism, 1);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(this.parallelism, this.parallelism, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "kgrill-catalog-import-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    @Override
+    public void importCatalog(CatalogChangedEvent.Kind kind, Format format, InputStream input, OutputStream output) throws IOException {
+        long startedAt = System.nanoTime();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Lines are separated explicitly, without the default space between root values
+        generator.setPrettyPrinter(new MinimalPrettyPrinter(""));
+
+        Iterator<ObjectNode> records = format == Format.CSV ? csvRecords(reader) : ndjsonRecords(reader);
+        CatalogImportSummary summary = CatalogImportSummary.builder().kind(kind.name()).build();
+        List<ObjectNode> chunk = new ArrayList<>(chunkSize);
+        long overflowRow = 0;
+        try {
+            while (records.hasNext()) {
+                ObjectNode record = records.next();
+                long row = summary.getRows() + chunk.size() + 1;
+                if (row > maxRows) {
+                    overflowRow = row;
+                    break;
+                }
+                chunk.add(record);
+                if (chunk.size() == chunkSize) {
+                    applyChunk(kind, chunk, summary, generator, writer);
+                    chunk.clear();
+                }
+            }
+            applyChunk(kind, chunk, summary, generator, writer);
+            if (overflowRow > 0) {
+                write(CatalogImportResult.builder()
+                        .row(overflowRow)
+                        .status(CatalogImportResult.Status.FAILED)
+                        .error("Import is limited to " + maxRows + " rows, the remaining rows were not imported")
+                        .build(), generator, writer);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            if (summary.getCreated() + summary.getUpdated() > 0) {
+                // One refresh of the caches, pricing graph and search index for the whole import
+                eventPublisher.publishEvent(new CatalogChangedEvent(kind, CatalogChangedEvent.Action.UPDATED, null));
+            }
+        }
+        summary.setDurationMs((System.nanoTime() - startedAt) / 1_000_000);
+        log.info("Imported {} {} row(s): {} created, {} updated, {} failed in {} ms", summary.getRows(), kind,
+                summary.getCreated(), summary.getUpdated(), summary.getFailed(), summary.getDurationMs());
+        write(summary, generator, writer);
+        generator.close();
+        writer.flush();
+    }
+
+    @Override
+    public void exportCatalog(CatalogChangedEvent.Kind kind, Format format, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Lines are separated explicitly, without the default space between root values
+        generator.setPrettyPrinter(new MinimalPrettyPrinter(""));
+
+        IntFunction<Object> page = switch (kind) {
+            case DISH -> pageNumber -> dishService.getAllDishes(pageNumber, EXPORT_PAGE_SIZE, "id", "asc");
+            case INGREDIENT -> pageNumber -> ingredientService.getAllIngredients(pageNumber, EXPORT_PAGE_SIZE, "id", "asc");
+            case PACKAGE -> pageNumber -> packageService.getAllPackagePages(pageNumber, EXPORT_PAGE_SIZE, "id", "asc");
+        };
+        List<String> columns = null;
+        Set<Integer> exported = new HashSet<>();
+        for (int pageNumber = 1; ; pageNumber++) {
+            JsonNode data = responseReader.readData(page.apply(pageNumber));
+            List<JsonNode> rows = responseReader.readContent(data);
+            boolean progressed = false;
+            for (JsonNode row : rows) {
+                JsonNode id = row.path(idField(kind));
+                if (id.canConvertToInt() && !exported.add(id.asInt())) {
+                    continue;
+                }
+                progressed = true;
+                JsonNode record = withDetail(kind, row);
+                if (format == Format.CSV) {
+                    if (columns == null) {
+                        columns = new ArrayList<>();
+                        record.fieldNames().forEachRemaining(columns::add);
+                        writer.write(CsvRecordReader.toLine(columns));
+                        writer.write('\n');
+                    }
+                    writer.write(toCsvLine(record, columns));
+                } else {
+                    generator.writeTree(record);
+                    generator.flush();
+                }
+                writer.write('\n');
+            }
+            writer.flush();
+            // Also stop when a page brings nothing new, in case the service ignores the page number
+            if (rows.isEmpty() || responseReader.isLastPage(data) || !progressed) {
+                break;
+            }
+        }
+        generator.close();
+        writer.flush();
+    }
+
+    private void applyChunk(CatalogChangedEvent.Kind kind, List<ObjectNode> chunk, CatalogImportSummary summary,
+                            JsonGenerator generator, Writer writer) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        long firstRow = summary.getRows() + 1;
+        // Records of one entity share a lane and are written in upload order, new entities are spread round robin
+        List<List<Integer>> lanes = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            lanes.add(new ArrayList<>());
+        }
+        for (int i = 0; i < chunk.size(); i++) {
+            int id = chunk.get(i).path(idField(kind)).asInt(0);
+            lanes.get(Math.floorMod(id > 0 ? id : i, parallelism)).add(i);
+        }
+        CatalogImportResult[] results = new CatalogImportResult[chunk.size()];
+        List<CompletableFuture<Void>> running = new ArrayList<>(parallelism);
+        for (List<Integer> lane : lanes) {
+            if (!lane.isEmpty()) {
+                running.add(CompletableFuture.runAsync(() -> lane.forEach(i -> results[i] = apply(kind, firstRow + i, chunk.get(i))), workers));
+            }
+        }
+        CompletableFuture.allOf(running.toArray(CompletableFuture[]::new)).join();
+        for (CatalogImportResult result : results) {
+            summary.setRows(summary.getRows() + 1);
+            switch (result.getStatus()) {
+                case CREATED -> summary.setCreated(summary.getCreated() + 1);
+                case UPDATED -> summary.setUpdated(summary.getUpdated() + 1);
+                case FAILED -> summary.setFailed(summary.getFailed() + 1);
+            }
+            write(result, generator, writer);
+        }
+        // Results reach the client chunk by chunk, so a long import shows progress
+        writer.flush();
+    }
+
+    private CatalogImportResult apply(CatalogChangedEvent.Kind kind, long row, ObjectNode record) {
+        if (record.has(ParseFailure.FIELD)) {
+            return failed(row, null, record.get(ParseFailure.FIELD).asText());
+        }
+        // CSV cells arrive as text
+        int parsedId = record.path(idField(kind)).asInt(0);
+        Integer id = parsedId > 0 ? parsedId : null;
+        try {
+            Object dto = objectMapper.convertValue(record, dtoType(kind));
+            Set<ConstraintViolation<Object>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                StringJoiner error = new StringJoiner("; ");
+                violations.forEach(violation -> error.add(violation.getPropertyPath() + " " + violation.getMessage()));
+                return failed(row, id, error.toString());
+            }
+            switch (kind) {
+                case DISH -> {
+                    if (id == null) {
+                        dishService.createDish((DishRequest) dto);
+                    } else {
+                        dishService.updateDish((DishRequest) dto);
+                    }
+                }
+                case INGREDIENT -> {
+                    if (id == null) {
+                        ingredientService.createIngredient((IngredientDTO) dto);
+                    } else {
+                        ingredientService.updateIngredient((IngredientDTO) dto, id);
+                    }
+                }
+                case PACKAGE -> {
+                    if (id == null) {
+                        JsonNode created = responseReader.readData(packageService.addPackage((PackageRequest) dto)).path(idField(kind));
+                        return CatalogImportResult.builder()
+                                .row(row)
+                                .status(CatalogImportResult.Status.CREATED)
+                                .id(created.canConvertToInt() ? created.asInt() : null)
+                                .build();
+                    }
+                    packageService.updatePackage((PackageRequest) dto);
+                }
+            }
+            return CatalogImportResult.builder()
+                    .row(row)
+                    .status(id == null ? CatalogImportResult.Status.CREATED : CatalogImportResult.Status.UPDATED)
+                    .id(id)
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return failed(row, id, "Invalid record: " + firstLine(e.getMessage()));
+        } catch (RuntimeException e) {
+            log.debug("Catalog import of {} row {} failed", kind, row, e);
+            return failed(row, id, firstLine(e.getMessage()));
+        }
+    }
+
+    private JsonNode withDetail(CatalogChangedEvent.Kind kind, JsonNode row) {
+        JsonNode id = row.path(idField(kind));
+        if (!id.canConvertToInt()) {
+            return row;
+        }
+        // List rows leave out the nested dishes and ingredients an import needs to reproduce the entity
+        JsonNode detail = switch (kind) {
+            case DISH -> responseReader.readData(catalogDetailCacheService.getDish(id.asInt()));
+            case PACKAGE -> responseReader.readData(catalogDetailCacheService.getPackageDetail(id.asInt()));
+            case INGREDIENT -> row;
+        };
+        return detail.isObject() ? detail : row;
+    }
+
+    private Iterator<ObjectNode> ndjsonRecords(BufferedReader reader) {
+        return new RecordIterator() {
+            @Override
+            ObjectNode read() throws IOException {
+                String line;
+                do {
+                    line = reader.readLine();
+                    if (line == null) {
+                        return null;
+                    }
+                } while (line.isBlank());
+                try {
+                    JsonNode node = objectMapper.readTree(line);
+                    return node.isObject() ? (ObjectNode) node : ParseFailure.of(objectMapper, "Record is not a JSON object");
+                } catch (JsonProcessingException e) {
+                    return ParseFailure.of(objectMapper, "Invalid JSON: " + firstLine(e.getOriginalMessage()));
+                }
+            }
+        };
+    }
+
+    private Iterator<ObjectNode> csvRecords(BufferedReader reader) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.next();
+        if (header != null && !header.isEmpty() && header.get(0).startsWith("\uFEFF")) {
+            // Spreadsheet exports often start with a byte order mark
+            header.set(0, header.get(0).substring(1));
+        }
+        return new RecordIterator() {
+            @Override
+            ObjectNode read() throws IOException {
+                List<String> values;
+                do {
+                    values = csv.next();
+                    if (values == null || header == null) {
+                        return null;
+                    }
+                } while (values.size() == 1 && values.get(0).isBlank());
+                if (values.size() != header.size()) {
+                    return ParseFailure.of(objectMapper, "Expected " + header.size() + " columns but found " + values.size());
+                }
+                ObjectNode record = objectMapper.createObjectNode();
+                for (int i = 0; i < header.size(); i++) {
+                    String value = values.get(i);
+                    if (value.isEmpty()) {
+                        continue;
+                    }
+                    if (value.startsWith("[") || value.startsWith("{")) {
+                        try {
+                            record.set(header.get(i).trim(), objectMapper.readTree(value));
+                            continue;
+                        } catch (JsonProcessingException e) {
+                            return ParseFailure.of(objectMapper, "Invalid JSON in column " + header.get(i).trim());
+                        }
+                    }
+                    record.put(header.get(i).trim(), value);
+                }
+                return record;
+            }
+        };
+    }
+
+    private String toCsvLine(JsonNode record, List<String> columns) throws JsonProcessingException {
+        List<String> values = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            JsonNode value = record.path(column);
+            if (value.isContainerNode()) {
+                values.add(objectMapper.writeValueAsString(value));
+            } else {
+                values.add(value.isMissingNode() || value.isNull() ? "" : value.asText());
+            }
+        }
+        return CsvRecordReader.toLine(values);
+    }
+
+    private static void write(Object value, JsonGenerator generator, Writer writer) throws IOException {
+        generator.writeObject(value);
+        generator.flush();
+        writer.write('\n');
+    }
+
+    private static CatalogImportResult failed(long row, Integer id, String error) {
+        return CatalogImportResult.builder()
+                .row(row)
+                .status(CatalogImportResult.Status.FAILED)
+                .id(id)
+                .error(error)
+                .build();
+    }
+
+    private static String idField(CatalogChangedEvent.Kind kind) {
+        return switch (kind) {
+            case DISH -> "dish_id";
+            case INGREDIENT -> "ingredient_id";
+            case PACKAGE -> "package_id";
+        };
+    }
+
+    private static Class<?> dtoType(CatalogChangedEvent.Kind kind) {
+        return switch (kind) {
+            case DISH -> DishRequest.class;
+            case INGREDIENT -> IngredientDTO.class;
+            case PACKAGE -> PackageRequest.class;
+        };
+    }
+
+    private static String firstLine(String message) {
+        if (message == null) {
+            return "Unknown error";
+        }
+        int newline = message.indexOf('\n');
+        return newline < 0 ? message : message.substring(0, newline);
+    }
+
+    /**
+     * Placeholder record for an input line that could not be parsed, so it still gets its row number and result.
+     */
+    private static final class ParseFailure {
+
+        private static final String FIELD = "__import_error";
+
+        private static ObjectNode of(ObjectMapper objectMapper, String error) {
+            return objectMapper.createObjectNode().put(FIELD, error);
+        }
+    }
+
+    private abstract static class RecordIterator implements Iterator<ObjectNode> {
+
+        private ObjectNode next;
+        private boolean done;
+
+        abstract ObjectNode read() throws IOException;
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !done) {
+                try {
+                    next = read();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                done = next == null;
+            }
+            return next != null;
+        }
+
+        @Override
+        public ObjectNode next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ObjectNode current = next;
+            next = null;
+            return current;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.group2.kgrill.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.group2.kgrill.config.CacheConfig;
+import com.group2.kgrill.dto.CacheStatsDTO;
+import com.group2.kgrill.event.CatalogChangedEvent;
+import com.group2.kgrill.service.CatalogDetailCacheService;
+import com.group2.kgrill.service.CatalogPricingService;
+import com.swd392.group2.kgrill_service.dto.IngredientDTO;
+import com.swd392.group2.kgrill_service.dto.request.DishRequest;
+import com.swd392.group2.kgrill_service.service.DishService;
+import com.swd392.group2.kgrill_service.service.IngredientService;
+import com.swd392.group2.kgrill_service.service.PackageService;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache in front of the package, dish and ingredient detail lookups.
+ * Writes evict the changed entry by id. Aggregates embedding the changed entity (a package embeds its dishes,
+ * a dish its ingredients) are evicted along the pricing graph's dependency edges, and cleared as a whole while
+ * the graph cannot tell which entries depend on it.
+ * <p>
+ * Entries are JSON snapshots weighed by their serialized size, and every read gets its own copy, so a caller
+ * changing the returned DTO cannot change what the next caller sees. Each cache carries a generation that
+ * evictions bump; a load that started before an eviction is returned to its caller but not cached, so it cannot
+ * put the old detail back. Error responses are never cached, so a 404 does not outlive a later create.
+ */
+@Service
+public class CatalogDetailCacheServiceImpl implements CatalogDetailCacheService {
+
+    private final PackageService packageService;
+    private final DishService dishService;
+    private final IngredientService ingredientService;
+    private final CacheManager cacheManager;
+    private final CatalogPricingService catalogPricingService;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, DetailCache> caches = new ConcurrentHashMap<>();
+
+    public CatalogDetailCacheServiceImpl(PackageService packageService,
+                                         DishService dishService,
+                                         IngredientService ingredientService,
+                                         CacheManager cacheManager,
+                                         CatalogPricingService catalogPricingService,
+                                         ObjectMapper objectMapper) {
+        this.packageService = packageService;
+        this.dishService = dishService;
+        this.ingredientService = ingredientService;
+        this.cacheManager = cacheManager;
+        this.catalogPricingService = catalogPricingService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Object getPackageDetail(int packageId) {
+        Snapshot snapshot = read(CacheConfig.PACKAGE_DETAIL, packageId, () -> packageService.getAPackageDetail(packageId));
+        return snapshot == null ? null : snapshot.copy();
+    }
+
+    @Override
+    public Object getPackageDetailOnMobile(int packageId) {
+        Snapshot snapshot = read(CacheConfig.MOBILE_PACKAGE_DETAIL, packageId, () -> packageService.getPackageDetailOnMobile(packageId));
+        return snapshot == null ? null : snapshot.copy();
+    }
+
+    @Override
+    public DishRequest getDish(int dishId) {
+        Snapshot snapshot = read(CacheConfig.DISH_DETAIL, dishId, () -> dishService.getDishByID(dishId));
+        return snapshot == null ? null : objectMapper.convertValue(snapshot.body(), DishRequest.class);
+    }
+
+    @Override
+    public IngredientDTO getIngredient(int ingredientId) {
+        Snapshot snapshot = read(CacheConfig.INGREDIENT_DETAIL, ingredientId, () -> ingredientService.getIngredientByID(ingredientId));
+        return snapshot == null ? null : objectMapper.convertValue(snapshot.body(), IngredientDTO.class);
+    }
+
+    @Override
+    public List<CacheStatsDTO> getStats() {
+        List<CacheStatsDTO> stats = new ArrayList<>();
+        for (String name : cacheManager.getCacheNames()) {
+            if (cacheManager.getCache(name) instanceof CaffeineCache caffeineCache) {
+                com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = caffeineCache.getNativeCache();
+                CacheStats cacheStats = nativeCache.stats();
+                stats.add(CacheStatsDTO.builder()
+                        .name(name)
+                        .hits(cacheStats.hitCount())
+                        .misses(cacheStats.missCount())
+                        .hitRate(cacheStats.hitRate())
+                        .evictions(cacheStats.evictionCount())
+                        .estimatedSize(nativeCache.estimatedSize())
+                        .weightedSizeBytes(nativeCache.policy().eviction()
+                                .map(eviction -> eviction.weightedSize().orElse(0L))
+                                .orElse(0L))
+                        .build());
+            }
+        }
+        return stats;
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getAction() == CatalogChangedEvent.Action.CREATED) {
+            // A new entity has no cached detail yet and is not part of any cached aggregate
+            return;
+        }
+        switch (event.getKind()) {
+            case PACKAGE -> {
+                evict(CacheConfig.PACKAGE_DETAIL, event.getId());
+                evict(CacheConfig.MOBILE_PACKAGE_DETAIL, event.getId());
+            }
+            case DISH -> {
+                evict(CacheConfig.DISH_DETAIL, event.getId());
+                Optional<Set<Integer>> packages = event.getId() == null
+                        ? Optional.empty()
+                        : catalogPricingService.packagesDependingOn(CatalogChangedEvent.Kind.DISH, event.getId());
+                evictAll(CacheConfig.PACKAGE_DETAIL, packages);
+                evictAll(CacheConfig.MOBILE_PACKAGE_DETAIL, packages);
+            }
+            case INGREDIENT -> {
+                evict(CacheConfig.INGREDIENT_DETAIL, event.getId());
+                Optional<Set<Integer>> dishes = event.getId() == null
+                        ? Optional.empty()
+                        : catalogPricingService.dishesDependingOn(event.getId());
+                Optional<Set<Integer>> packages = event.getId() == null
+                        ? Optional.empty()
+                        : catalogPricingService.packagesDependingOn(CatalogChangedEvent.Kind.INGREDIENT, event.getId());
+                evictAll(CacheConfig.DISH_DETAIL, dishes);
+                evictAll(CacheConfig.PACKAGE_DETAIL, packages);
+                evictAll(CacheConfig.MOBILE_PACKAGE_DETAIL, packages);
+            }
+        }
+    }
+
+    private Snapshot read(String cacheName, int id, Supplier<Object> loader) {
+        DetailCache cache = cache(cacheName);
+        if (cache == null) {
+            Object loaded = loader.get();
+            return loaded == null ? null : snapshotOf(loaded);
+        }
+        if (cache.entries.getIfPresent(id) instanceof Snapshot cached) {
+            return cached;
+        }
+        long generation = cache.generation;
+        Object loaded = loader.get();
+        if (loaded == null) {
+            return null;
+        }
+        Snapshot snapshot = snapshotOf(loaded);
+        if (snapshot.status() != null && !snapshot.status().is2xxSuccessful()) {
+            return snapshot;
+        }
+        cache.lock.readLock().lock();
+        try {
+            if (cache.generation == generation) {
+                cache.entries.put(id, snapshot);
+            }
+        } finally {
+            cache.lock.readLock().unlock();
+        }
+        return snapshot;
+    }
+
+    private Snapshot snapshotOf(Object loaded) {
+        Object body = loaded instanceof ResponseEntity<?> response ? response.getBody() : loaded;
+        HttpStatusCode status = loaded instanceof ResponseEntity<?> response ? response.getStatusCode() : null;
+        try {
+            // Serialized once, the bytes give both the tree and the weight of the entry
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            return new Snapshot(objectMapper.readTree(json), status, json.length);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to snapshot the catalog detail", e);
+        }
+    }
+
+    private DetailCache cache(String cacheName) {
+        return caches.computeIfAbsent(cacheName, name -> cacheManager.getCache(name) instanceof CaffeineCache caffeineCache
+                ? new DetailCache(caffeineCache.getNativeCache())
+                : null);
+    }
+
+    private void evictAll(String cacheName, Optional<Set<Integer>> ids) {
+        ids.ifPresentOrElse(present -> present.forEach(id -> evict(cacheName, id)), () -> clear(cacheName));
+    }
+
+    private void evict(String cacheName, Integer id) {
+        DetailCache cache = cache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        // Under the write lock no load can be between its generation check and its put
+        cache.lock.writeLock().lock();
+        try {
+            cache.generation++;
+            if (id == null) {
+                cache.entries.invalidateAll();
+            } else {
+                cache.entries.invalidate(id);
+            }
+        } finally {
+            cache.lock.writeLock().unlock();
+        }
+    }
+
+    private void clear(String cacheName) {
+        evict(cacheName, null);
+    }
+
+    private record Snapshot(JsonNode body, HttpStatusCode status, int sizeBytes) implements CacheConfig.SizedValue {
+
+        private Object copy() {
+            JsonNode copy = body.deepCopy();
+            return status == null ? copy : ResponseEntity.status(status).body(copy);
+        }
+    }
+
+    private static final class DetailCache {
+
+        private final com.github.benmanes.caffeine.cache.Cache<Object, Object> entries;
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private volatile long generation;
+
+        private DetailCache(com.github.benmanes.caffeine.cache.Cache<Object, Object> entries) {
+            this.entries = entries;
+        }
+    }
+}
@@ -0,0 +1,561 @@
+package com.group2.kgrill.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.group2.kgrill.dto.CatalogPricingStats;
+import com.group2.kgrill.dto.PackagePricing;
+import com.group2.kgrill.dto.PricingChange;
+import com.group2.kgrill.event.CatalogChangedEvent;
+import com.group2.kgrill.service.CatalogPricingService;
+import com.group2.kgrill.util.ServiceResponseReader;
+import com.swd392.group2.kgrill_service.service.DishService;
+import com.swd392.group2.kgrill_service.service.IngredientService;
+import com.swd392.group2.kgrill_service.service.PackageService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntFunction;
+
+/**
+ * Dependency graph ingredient → dish → package with materialized costs and prices. A dish's cost is the sum of its
+ * ingredient costs, a package's totals the sums over its dishes, each weighted by the quantity in the recipe.
+ * A change re-reads only the changed entity and recomputes only the dishes and packages that depend on it, from
+ * their direct children, so values never drift and a catalog read is a map lookup instead of a join.
+ * <p>
+ * Composition edges are owned by the parent: deleting a dish or ingredient keeps the edges pointing at it (it then
+ * counts as zero) until the parent itself is re-read, so dependents stay discoverable for cache eviction.
+ * <p>
+ * A full rebuild (startup, a change without an id, or a change that failed to apply) runs on its own thread into
+ * a fresh graph and replaces the live one in a single swap; reads and incremental changes carry on against the
+ * previous graph meanwhile.
+ */
+@Slf4j
+@Service
+public class CatalogPricingServiceImpl implements CatalogPricingService {
+
+    private static final int LOAD_PAGE_SIZE = 100;
+    private static final int NEWEST_ON_CREATE = 5;
+    private static final String[] INGREDIENT_COST_FIELDS = {"ingredient_price", "ingredient_cost", "unit_price", "price", "cost"};
+    private static final String[] DISH_PRICE_FIELDS = {"dish_price", "price"};
+    private static final String[] PACKAGE_ID_FIELDS = {"package_id", "packageId", "id"};
+    private static final String[] PACKAGE_PRICE_FIELDS = {"package_price", "price"};
+    private static final String[] QUANTITY_FIELDS = {"quantity", "dish_quantity", "ingredient_quantity", "amount"};
+
+    private final IngredientService ingredientService;
+    private final DishService dishService;
+    private final PackageService packageService;
+    private final ServiceResponseReader responseReader;
+    private final int recentChangeCapacity;
+
+    private final Deque<PricingChange> recentChanges = new ConcurrentLinkedDeque<>();
+    private final Object graphLock = new Object();
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "kgrill-pricing-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile Graph graph = new Graph();
+    private volatile boolean ready;
+    // Changes applied while a rebuild reads the catalog, replayed on the new graph before it goes live
+    private List<CatalogChangedEvent> changedDuringRebuild;
+
+    public CatalogPricingServiceImpl(IngredientService ingredientService,
+                                     DishService dishService,
+                                     PackageService packageService,
+                                     ServiceResponseReader responseReader,
+                                     @Value("${kgrill.pricing.recent-changes:50}") int recentChangeCapacity) {
+        this.ingredientService = ingredientService;
+        this.dishService = dishService;
+        this.packageService = packageService;
+        this.responseReader = responseReader;
+        this.recentChangeCapacity = recentChangeCapacity;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public Optional<PackagePricing> getPackagePricing(int packageId) {
+        PackageNode node = graph.packages.get(packageId);
+        return node == null ? Optional.empty() : Optional.of(node.pricing);
+    }
+
+    @Override
+    public List<PackagePricing> getAllPackagePricing() {
+        Collection<PackageNode> nodes = graph.packages.values();
+        List<PackagePricing> pricing = new ArrayList<>(nodes.size());
+        nodes.forEach(node -> pricing.add(node.pricing));
+        return pricing;
+    }
+
+    @Override
+    public Optional<Set<Integer>> dishesDependingOn(int ingredientId) {
+        Graph current = graph;
+        return ready ? Optional.of(Set.copyOf(current.dishesByIngredient.getOrDefault(ingredientId, Set.of()))) : Optional.empty();
+    }
+
+    @Override
+    public Optional<Set<Integer>> packagesDependingOn(CatalogChangedEvent.Kind kind, int id) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        Graph current = graph;
+        return switch (kind) {
+            case PACKAGE -> Optional.of(Set.of(id));
+            case DISH -> Optional.of(Set.copyOf(current.packagesByDish.getOrDefault(id, Set.of())));
+            case INGREDIENT -> {
+                Set<Integer> affected = new HashSet<>();
+                current.dishesByIngredient.getOrDefault(id, Set.of())
+                        .forEach(dishId -> affected.addAll(current.packagesByDish.getOrDefault(dishId, Set.of())));
+                yield Optional.of(affected);
+            }
+        };
+    }
+
+    @Override
+    public Optional<Map<Integer, Double>> ingredientsOf(int packageId) {
+        Graph current = graph;
+        PackageNode pkg = current.packages.get(packageId);
+        if (pkg == null) {
+            return Optional.empty();
+        }
+        Map<Integer, Double> ingredients = new HashMap<>();
+        pkg.dishes.forEach((dishId, dishQuantity) -> {
+            DishNode dish = current.dishes.get(dishId);
+            if (dish != null) {
+                dish.ingredients.forEach((ingredientId, quantity) -> ingredients.merge(ingredientId, quantity * dishQuantity, Double::sum));
+            }
+        });
+        return Optional.of(ingredients);
+    }
+
+    @Override
+    public CatalogPricingStats getStats() {
+        Graph current = graph;
+        return CatalogPricingStats.builder()
+                .ready(ready)
+                .ingredients(current.ingredientCosts.size())
+                .dishes(current.dishes.size())
+                .packages(current.packages.size())
+                .recentChanges(List.copyOf(recentChanges))
+                .build();
+    }
+
+    /**
+     * Reads the whole catalog into a fresh graph while the current one keeps serving and receiving changes, then
+     * replays the changes made meanwhile on the new graph and swaps it in.
+     */
+    @Override
+    public synchronized void rebuild() {
+        long startedAt = System.nanoTime();
+        synchronized (graphLock) {
+            changedDuringRebuild = new ArrayList<>();
+        }
+        Graph next = new Graph();
+        try {
+            readAll(pageNumber -> ingredientService.getAllIngredients(pageNumber, LOAD_PAGE_SIZE, "id", "asc"))
+                    .forEach(row -> {
+                        JsonNode id = row.path("ingredient_id");
+                        if (id.canConvertToInt()) {
+                            next.ingredientCosts.put(id.asInt(), number(row, INGREDIENT_COST_FIELDS));
+                        }
+                    });
+            for (JsonNode row : readAll(pageNumber -> dishService.getAllDishes(pageNumber, LOAD_PAGE_SIZE, "id", "asc"))) {
+                JsonNode id = row.path("dish_id");
+                if (id.canConvertToInt()) {
+                    // The list may not embed the recipe, the detail always does
+                    next.putDish(id.asInt(), children(row, "ingredient_id").isEmpty()
+                            ? responseReader.readData(dishService.getDishByID(id.asInt()))
+                            : row);
+                }
+            }
+            for (JsonNode row : readAll(pageNumber -> packageService.getAllPackagePages(pageNumber, LOAD_PAGE_SIZE, "id", "asc"))) {
+                Integer id = packageIdOf(row);
+                if (id != null) {
+                    next.putPackage(id, responseReader.readData(packageService.getAPackageDetail(id)));
+                }
+            }
+        } catch (RuntimeException e) {
+            synchronized (graphLock) {
+                changedDuringRebuild = null;
+            }
+            throw e;
+        }
+        synchronized (graphLock) {
+            for (CatalogChangedEvent event : changedDuringRebuild) {
+                try {
+                    applyChange(next, event);
+                } catch (RuntimeException e) {
+                    // The graph read after this change already; the next rebuild covers it otherwise
+                    log.warn("Failed to replay {} {} {} on the rebuilt pricing graph", event.getKind(), event.getAction(), event.getId(), e);
+                }
+            }
+            changedDuringRebuild = null;
+            graph = next;
+            ready = true;
+        }
+        log.info("Catalog pricing graph built with {} ingredients, {} dishes and {} packages in {} ms",
+                next.ingredientCosts.size(), next.dishes.size(), next.packages.size(), (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        scheduleRebuild();
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getId() == null && event.getAction() != CatalogChangedEvent.Action.CREATED) {
+            // Bulk changes do not name the entity
+            scheduleRebuild();
+            return;
+        }
+        long startedAt = System.nanoTime();
+        try {
+            Touched touched;
+            synchronized (graphLock) {
+                if (changedDuringRebuild != null) {
+                    changedDuringRebuild.add(event);
+                }
+                if (!ready) {
+                    // Nothing built yet, the running or next rebuild covers the change
+                    return;
+                }
+                touched = applyChange(graph, event);
+            }
+            recordChange(event, touched, System.nanoTime() - startedAt);
+        } catch (RuntimeException e) {
+            log.warn("Failed to apply {} {} {} to the pricing graph, rebuilding it", event.getKind(), event.getAction(), event.getId(), e);
+            scheduleRebuild();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        rebuilder.shutdownNow();
+    }
+
+    /**
+     * Runs a rebuild on the rebuild thread, at most one queued behind the running one; the request thread that
+     * published the change never waits for it.
+     */
+    private void scheduleRebuild() {
+        if (!rebuildScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        rebuilder.execute(() -> {
+            rebuildScheduled.set(false);
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.error("Catalog pricing graph build failed, {}", ready
+                        ? "serving the previous graph until the next rebuild" : "pricing is unavailable until the next rebuild", e);
+            }
+        });
+    }
+
+    private Touched applyChange(Graph target, CatalogChangedEvent event) {
+        Touched touched = new Touched();
+        Integer id = event.getId();
+        switch (event.getKind()) {
+            case INGREDIENT -> {
+                if (id == null) {
+                    return touched;
+                }
+                if (event.getAction() == CatalogChangedEvent.Action.DELETED) {
+                    target.ingredientCosts.remove(id);
+                } else {
+                    target.ingredientCosts.put(id, number(responseReader.readData(ingredientService.getIngredientByID(id)), INGREDIENT_COST_FIELDS));
+                }
+                // A new ingredient is not in any recipe yet
+                if (event.getAction() != CatalogChangedEvent.Action.CREATED) {
+                    target.dishesByIngredient.getOrDefault(id, Set.of()).forEach(dishId -> target.recomputeDish(dishId, touched));
+                }
+            }
+            case DISH -> {
+                if (event.getAction() == CatalogChangedEvent.Action.CREATED) {
+                    // The new id is not known to the caller; dish ids are ascending, so it is among the newest dishes
+                    for (JsonNode row : responseReader.readContent(responseReader.readData(
+                            dishService.getAllDishes(1, NEWEST_ON_CREATE, "id", "desc")))) {
+                        JsonNode dishId = row.path("dish_id");
+                        if (dishId.canConvertToInt() && !target.dishes.containsKey(dishId.asInt())) {
+                            target.putDish(dishId.asInt(), responseReader.readData(dishService.getDishByID(dishId.asInt())));
+                            touched.dishes++;
+                        }
+                    }
+                } else {
+                    if (event.getAction() == CatalogChangedEvent.Action.DELETED) {
+                        target.removeDish(id);
+                    } else {
+                        target.putDish(id, responseReader.readData(dishService.getDishByID(id)));
+                    }
+                    touched.dishes++;
+                    target.packagesByDish.getOrDefault(id, Set.of()).forEach(packageId -> target.recomputePackage(packageId, touched));
+                }
+            }
+            case PACKAGE -> {
+                if (event.getAction() == CatalogChangedEvent.Action.CREATED) {
+                    for (JsonNode row : responseReader.readContent(responseReader.readData(
+                            packageService.getAllPackagePages(1, NEWEST_ON_CREATE, "id", "desc")))) {
+                        Integer packageId = packageIdOf(row);
+                        if (packageId != null && !target.packages.containsKey(packageId)) {
+                            target.putPackage(packageId, responseReader.readData(packageService.getAPackageDetail(packageId)));
+                            touched.packages++;
+                        }
+                    }
+                } else if (event.getAction() == CatalogChangedEvent.Action.DELETED) {
+                    target.removePackage(id);
+                    touched.packages++;
+                } else {
+                    target.putPackage(id, responseReader.readData(packageService.getAPackageDetail(id)));
+                    touched.packages++;
+                }
+            }
+        }
+        return touched;
+    }
+
+    private void recordChange(CatalogChangedEvent event, Touched touched, long elapsedNanos) {
+        PricingChange change = PricingChange.builder()
+                .kind(event.getKind().name())
+                .action(event.getAction().name())
+                .id(event.getId())
+                .dishesTouched(touched.dishes)
+                .packagesTouched(touched.packages)
+                .durationMicros(elapsedNanos / 1000)
+                .appliedAt(Instant.now())
+                .build();
+        recentChanges.addFirst(change);
+        while (recentChanges.size() > recentChangeCapacity) {
+            recentChanges.pollLast();
+        }
+        log.debug("Pricing change {} {} {} touched {} dish(es) and {} package(s)", change.getKind(), change.getAction(),
+                change.getId(), change.getDishesTouched(), change.getPackagesTouched());
+    }
+
+    private List<JsonNode> readAll(IntFunction<Object> page) {
+        List<JsonNode> all = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        int pageNumber = 1;
+        while (true) {
+            JsonNode data = responseReader.readData(page.apply(pageNumber++));
+            List<JsonNode> rows = responseReader.readContent(data);
+            boolean progressed = false;
+            for (JsonNode row : rows) {
+                if (seen.add(row.toString())) {
+                    all.add(row);
+                    progressed = true;
+                }
+            }
+            // Stop as well when a page brings nothing new, in case the service ignores the page number
+            if (rows.isEmpty() || responseReader.isLastPage(data) || !progressed) {
+                return all;
+            }
+        }
+    }
+
+    private static Integer packageIdOf(JsonNode row) {
+        for (String field : PACKAGE_ID_FIELDS) {
+            if (row.path(field).canConvertToInt()) {
+                return row.get(field).asInt();
+            }
+        }
+        return null;
+    }
+
+    private static double number(JsonNode node, String[] fields) {
+        for (String field : fields) {
+            JsonNode value = node.path(field);
+            if (value.isNumber() || (value.isTextual() && !value.asText().isBlank())) {
+                return value.asDouble(0);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Quantity per child id of every nested object carrying {@code idField}, whatever nesting the DTO uses.
+     */
+    private static Map<Integer, Double> children(JsonNode parent, String idField) {
+        Map<Integer, Double> children = new HashMap<>();
+        parent.forEach(child -> collectChildren(child, idField, children));
+        return children;
+    }
+
+    private static void collectChildren(JsonNode node, String idField, Map<Integer, Double> children) {
+        if (node.isObject() && node.path(idField).canConvertToInt()) {
+            double quantity = number(node, QUANTITY_FIELDS);
+            children.merge(node.get(idField).asInt(), quantity > 0 ? quantity : 1, Double::sum);
+            return;
+        }
+        if (node.isContainerNode()) {
+            node.forEach(child -> collectChildren(child, idField, children));
+        }
+    }
+
+    private static void link(Map<Integer, Set<Integer>> edges, int from, int to) {
+        edges.computeIfAbsent(from, key -> ConcurrentHashMap.newKeySet()).add(to);
+    }
+
+    private static void unlink(Map<Integer, Set<Integer>> edges, int from, int to) {
+        edges.computeIfPresent(from, (key, targets) -> {
+            targets.remove(to);
+            return targets.isEmpty() ? null : targets;
+        });
+    }
+
+    /**
+     * One generation of the graph. The live one is replaced as a whole by a rebuild, so readers never see it half
+     * loaded; incremental changes mutate the live one under the graph lock.
+     */
+    private final class Graph {
+
+        private final Map<Integer, Double> ingredientCosts = new ConcurrentHashMap<>();
+        private final Map<Integer, DishNode> dishes = new ConcurrentHashMap<>();
+        private final Map<Integer, PackageNode> packages = new ConcurrentHashMap<>();
+        private final Map<Integer, Set<Integer>> dishesByIngredient = new ConcurrentHashMap<>();
+        private final Map<Integer, Set<Integer>> packagesByDish = new ConcurrentHashMap<>();
+
+        private void recomputeDish(int dishId, Touched touched) {
+            DishNode dish = dishes.get(dishId);
+            if (dish == null) {
+                return;
+            }
+            dish.cost = costOf(dish);
+            touched.dishes++;
+            packagesByDish.getOrDefault(dishId, Set.of()).forEach(packageId -> recomputePackage(packageId, touched));
+        }
+
+        private void recomputePackage(int packageId, Touched touched) {
+            PackageNode pkg = packages.get(packageId);
+            // An ingredient shared by several dishes of one package reaches it once per dish, recompute it once
+            if (pkg != null && touched.packageIds.add(packageId)) {
+                pkg.pricing = pricingOf(pkg);
+                touched.packages++;
+            }
+        }
+
+        private void putDish(int dishId, JsonNode detail) {
+            DishNode dish = new DishNode(number(detail, DISH_PRICE_FIELDS), children(detail, "ingredient_id"));
+            for (Integer ingredientId : dish.ingredients.keySet()) {
+                link(dishesByIngredient, ingredientId, dishId);
+                if (!ingredientCosts.containsKey(ingredientId)) {
+                    ingredientCosts.put(ingredientId, number(responseReader.readData(ingredientService.getIngredientByID(ingredientId)), INGREDIENT_COST_FIELDS));
+                }
+            }
+            dish.cost = costOf(dish);
+            // Replaced in place, the dish is never missing for a concurrent reader
+            DishNode previous = dishes.put(dishId, dish);
+            if (previous != null) {
+                previous.ingredients.keySet().stream().filter(ingredientId -> !dish.ingredients.containsKey(ingredientId))
+                        .forEach(ingredientId -> unlink(dishesByIngredient, ingredientId, dishId));
+            }
+        }
+
+        private void removeDish(int dishId) {
+            DishNode removed = dishes.remove(dishId);
+            if (removed != null) {
+                removed.ingredients.keySet().forEach(ingredientId -> unlink(dishesByIngredient, ingredientId, dishId));
+            }
+        }
+
+        private void putPackage(int packageId, JsonNode detail) {
+            PackageNode pkg = new PackageNode(packageId, number(detail, PACKAGE_PRICE_FIELDS), children(detail, "dish_id"));
+            pkg.dishes.keySet().forEach(dishId -> link(packagesByDish, dishId, packageId));
+            pkg.pricing = pricingOf(pkg);
+            PackageNode previous = packages.put(packageId, pkg);
+            if (previous != null) {
+                previous.dishes.keySet().stream().filter(dishId -> !pkg.dishes.containsKey(dishId))
+                        .forEach(dishId -> unlink(packagesByDish, dishId, packageId));
+            }
+        }
+
+        private void removePackage(int packageId) {
+            PackageNode removed = packages.remove(packageId);
+            if (removed != null) {
+                removed.dishes.keySet().forEach(dishId -> unlink(packagesByDish, dishId, packageId));
+            }
+        }
+
+        private double costOf(DishNode dish) {
+            double cost = 0;
+            for (Map.Entry<Integer, Double> ingredient : dish.ingredients.entrySet()) {
+                cost += ingredientCosts.getOrDefault(ingredient.getKey(), 0.0) * ingredient.getValue();
+            }
+            return cost;
+        }
+
+        private PackagePricing pricingOf(PackageNode pkg) {
+            double dishPriceTotal = 0;
+            double cost = 0;
+            for (Map.Entry<Integer, Double> entry : pkg.dishes.entrySet()) {
+                DishNode dish = dishes.get(entry.getKey());
+                if (dish != null) {
+                    dishPriceTotal += dish.price * entry.getValue();
+                    cost += dish.cost * entry.getValue();
+                }
+            }
+            return PackagePricing.builder()
+                    .packageId(pkg.id)
+                    .packagePrice(pkg.price)
+                    .dishPriceTotal(dishPriceTotal)
+                    .ingredientCost(cost)
+                    .margin(pkg.price - cost)
+                    .build();
+        }
+    }
+
+    private static final class DishNode {
+
+        private final double price;
+        private final Map<Integer, Double> ingredients;
+        private volatile double cost;
+
+        private DishNode(double price, Map<Integer, Double> ingredients) {
+            this.price = price;
+            this.ingredients = Map.copyOf(ingredients);
+        }
+    }
+
+    private static final class PackageNode {
+
+        private final int id;
+        private final double price;
+        private final Map<Integer, Double> dishes;
+        private volatile PackagePricing pricing;
+
+        private PackageNode(int id, double price, Map<Integer, Double> dishes) {
+            this.id = id;
+            this.price = price;
+            this.dishes = Map.copyOf(dishes);
+        }
+    }
+
+    private static final class Touched {
+
+        private final Set<Integer> packageIds = new HashSet<>();
+        private int dishes;
+        private int packages;
+    }
+}
@@ -0,0 +1,83 @@
+package com.group2.kgrill.service.impl;
+
+import com.group2.kgrill.service.ImageStorage;
+import com.swd392.group2.kgrill_service.service.CloudinaryUploadService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "kgrill.image.storage", havingValue = "cloudinary", matchIfMissing = true)
+public class CloudinaryImageStorage implements ImageStorage {
+
+    private final CloudinaryUploadService cloudinaryUploadService;
+
+    @Override
+    public String store(Path image, String fileName, String contentType) throws IOException {
+        String url = cloudinaryUploadService.uploadFile(new PathMultipartFile(image, fileName, contentType));
+        if (url == null) {
+            throw new IOException("Cloudinary did not return a URL for " + fileName);
+        }
+        return url;
+    }
+
+    private record PathMultipartFile(Path path, String fileName, String contentType) implements MultipartFile {
+
+        @Override
+        public String getName() {
+            return "file";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return fileName;
+        }
+
+        @Override
+        public String getContentType() {
+            return contentType;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return getSize() == 0;
+        }
+
+        @Override
+        public long getSize() {
+            try {
+                return Files.size(path);
+            } catch (IOException e) {
+                return 0;
+            }
+        }
+
+        @Override
+        public byte[] getBytes() throws IOException {
+            return Files.readAllBytes(path);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(path);
+        }
+
+        @Override
+        public void transferTo(java.io.File dest) throws IOException {
+            transferTo(dest.toPath());
+        }
+
+        @Override
+        public void transferTo(Path dest) throws IOException {
+            Files.copy(path, dest, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.group2.kgrill.service.impl;
+
+import com.group2.kgrill.dto.LatestDeliveryLocation;
+import com.group2.kgrill.event.DeliveryOrderEvent;
+import com.group2.kgrill.service.DeliveryLocationService;
+import com.group2.kgrill.util.ServiceErrors;
+import com.swd392.group2.kgrill_service.dto.DeliveryLocationDTO;
+import com.swd392.group2.kgrill_service.service.DeliveryOrderService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps only the latest GPS ping per order in memory and writes the coalesced positions to the
+ * database on a fixed delay, so a shipper pinging every few seconds costs one write per flush interval.
+ * The first ping of an order is written synchronously, so an unknown order is still rejected on the request;
+ * later pings of a confirmed order are coalesced. A failed flush is retried up to
+ * {@code kgrill.location.max-attempts} times, failures that cannot succeed on retry are dropped at once.
+ */
+@Slf4j
+@Service
+public class DeliveryLocationServiceImpl implements DeliveryLocationService {
+
+    private final DeliveryOrderService deliveryOrderService;
+    private final Duration retention;
+    private final int maxAttempts;
+
+    private final Map<Long, LatestDeliveryLocation> latest = new ConcurrentHashMap<>();
+    private final Map<Long, PendingWrite> pending = new ConcurrentHashMap<>();
+    private final Map<Long, Instant> confirmedOrders = new ConcurrentHashMap<>();
+
+    public DeliveryLocationServiceImpl(DeliveryOrderService deliveryOrderService,
+                                       @Value("${kgrill.location.retention-minutes:120}") long retentionMinutes,
+                                       @Value("${kgrill.location.max-attempts:5}") int maxAttempts) {
+        this.deliveryOrderService = deliveryOrderService;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Override
+    public void recordLocation(long orderId, DeliveryLocationDTO location) {
+        LatestDeliveryLocation update = new LatestDeliveryLocation(orderId, location, Instant.now());
+        if (!confirmedOrders.containsKey(orderId)) {
+            // Throws for an unknown or finished order, exactly like the direct write did
+            deliveryOrderService.updateDeliveryOrderLocation(orderId, location);
+            confirmedOrders.put(orderId, update.receivedAt());
+            latest.put(orderId, update);
+            return;
+        }
+        confirmedOrders.put(orderId, update.receivedAt());
+        latest.put(orderId, update);
+        pending.put(orderId, new PendingWrite(update, 0));
+    }
+
+    @Override
+    public Optional<LatestDeliveryLocation> getLatestLocation(long orderId) {
+        return Optional.ofNullable(latest.get(orderId));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${kgrill.location.flush-delay-ms:5000}")
+    public int flush() {
+        int written = 0;
+        for (Long orderId : List.copyOf(pending.keySet())) {
+            PendingWrite write = pending.remove(orderId);
+            if (write == null) {
+                continue;
+            }
+            try {
+                deliveryOrderService.updateDeliveryOrderLocation(orderId, write.update().location());
+                written++;
+            } catch (RuntimeException e) {
+                if (!ServiceErrors.isRetryable(e) || write.attempts() + 1 >= maxAttempts) {
+                    // The order is revalidated synchronously on its next ping
+                    confirmedOrders.remove(orderId);
+                    log.warn("Dropping location of delivery order {} after {} attempt(s)", orderId, write.attempts() + 1, e);
+                    continue;
+                }
+                // Keep the failed position unless a newer ping arrived in the meantime
+                pending.putIfAbsent(orderId, new PendingWrite(write.update(), write.attempts() + 1));
+                log.debug("Failed to flush location of delivery order {}, will retry", orderId, e);
+            }
+        }
+
+        Instant expiry = Instant.now().minus(retention);
+        latest.values().removeIf(location -> location.receivedAt().isBefore(expiry) && !pending.containsKey(location.orderId()));
+        confirmedOrders.values().removeIf(lastPing -> lastPing.isBefore(expiry));
+        if (written > 0) {
+            log.debug("Flushed {} coalesced delivery locations", written);
+        }
+        return written;
+    }
+
+    @EventListener
+    public void onDeliveryOrderEvent(DeliveryOrderEvent event) {
+        if (event.getType() == DeliveryOrderEvent.Type.CANCELLED && event.getOrderId() != null) {
+            confirmedOrders.remove(event.getOrderId());
+            pending.remove(event.getOrderId());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private record PendingWrite(LatestDeliveryLocation update, int attempts) {
+    }
+}
@@ -0,0 +1,340 @@
+package com.group2.kgrill.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.group2.kgrill.dto.DishSearchResult;
+import com.group2.kgrill.dto.FacetCount;
+import com.group2.kgrill.event.CatalogChangedEvent;
+import com.group2.kgrill.service.DishSearchIndexService;
+import com.group2.kgrill.util.SearchTokenizer;
+import com.group2.kgrill.util.ServiceResponseReader;
+import com.swd392.group2.kgrill_service.service.DishService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory faceted index for the admin dish search. Dishes are numbered in price order, so a price range is a
+ * contiguous range of positions; name tokens and categories map to sorted position arrays, and a query is a few
+ * array intersections clipped to that range. Dish changes are applied to the indexed documents (an updated or
+ * created dish is re-read by id, a deleted one dropped) and the immutable index is rebuilt from them in memory;
+ * only a change without an id reloads every dish.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DishSearchIndexServiceImpl implements DishSearchIndexService {
+
+    private static final int LOAD_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int NEWEST_DISHES_ON_CREATE = 5;
+    private static final int[] NONE = new int[0];
+
+    private final DishService dishService;
+    private final ServiceResponseReader responseReader;
+
+    private volatile DishIndex index;
+
+    @Override
+    public boolean isReady() {
+        return index != null;
+    }
+
+    @Override
+    public DishSearchResult search(String keyword, String category, Double minPrice, Double maxPrice,
+                                   String sortField, String sortDir, int pageNumber, int pageSize) {
+        DishIndex current = index;
+        if (current == null) {
+            throw new IllegalStateException("Dish search index has not been built yet");
+        }
+        int from = minPrice == null ? 0 : current.firstPriceAtLeast(minPrice);
+        int to = maxPrice == null ? current.dishes.length : current.firstPriceAbove(maxPrice);
+
+        int[] matches = null;
+        List<String> tokens = new ArrayList<>(SearchTokenizer.tokenize(keyword));
+        for (int i = 0; i < tokens.size() && (matches == null || matches.length > 0); i++) {
+            // The last token is still being typed in the search box
+            int[] postings = i == tokens.size() - 1 ? current.prefixPostings(tokens.get(i)) : current.tokens.getOrDefault(tokens.get(i), NONE);
+            matches = matches == null ? clip(postings, from, to) : intersect(matches, postings);
+        }
+        if (matches == null) {
+            matches = range(from, to);
+        }
+
+        Map<String, Long> facets = new LinkedHashMap<>();
+        for (int position : matches) {
+            facets.merge(current.dishes[position].categoryLabel, 1L, Long::sum);
+        }
+        if (category != null && !category.isBlank()) {
+            matches = intersect(matches, current.categories.getOrDefault(SearchTokenizer.normalize(category.trim()), NONE));
+        }
+
+        List<Dish> found = new ArrayList<>(matches.length);
+        for (int position : matches) {
+            found.add(current.dishes[position]);
+        }
+        // Positions follow the price order, so the first and last match hold the price bounds
+        Double lowestPrice = matches.length == 0 ? null : current.dishes[matches[0]].price;
+        Double highestPrice = matches.length == 0 ? null : current.dishes[matches[matches.length - 1]].price;
+        found.sort(comparator(sortField, sortDir));
+
+        int size = Math.min(Math.max(pageSize, 1), MAX_PAGE_SIZE);
+        int page = Math.max(pageNumber, 1);
+        int start = (int) Math.min((long) (page - 1) * size, found.size());
+        int end = Math.min(start + size, found.size());
+        int totalPages = (found.size() + size - 1) / size;
+        List<JsonNode> content = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            content.add(found.get(i).source);
+        }
+        List<FacetCount> categoryFacets = new ArrayList<>(facets.size());
+        facets.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .forEach(facet -> categoryFacets.add(new FacetCount(facet.getKey(), facet.getValue())));
+
+        return DishSearchResult.builder()
+                .content(content)
+                .pageNo(page)
+                .pageSize(size)
+                .totalElements(found.size())
+                .totalPages(totalPages)
+                .last(page >= totalPages)
+                .categoryFacets(categoryFacets)
+                .minPrice(lowestPrice)
+                .maxPrice(highestPrice)
+                .build();
+    }
+
+    @Override
+    public synchronized void rebuild() {
+        long startedAt = System.nanoTime();
+        Map<Integer, Dish> dishes = new HashMap<>();
+        int pageNumber = 1;
+        while (true) {
+            JsonNode data = responseReader.readData(dishService.getAllDishes(pageNumber++, LOAD_PAGE_SIZE, "id", "asc"));
+            List<JsonNode> rows = responseReader.readContent(data);
+            int before = dishes.size();
+            rows.forEach(row -> put(dishes, row));
+            // Stop as well when a page brings nothing new, in case the service ignores the page number
+            if (rows.isEmpty() || responseReader.isLastPage(data) || dishes.size() == before) {
+                break;
+            }
+        }
+        index = DishIndex.of(dishes.values());
+        log.info("Dish search index built with {} dishes in {} µs", dishes.size(), (System.nanoTime() - startedAt) / 1000);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Initial dish search index build failed, dish search falls back to the database", e);
+        }
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getKind() != CatalogChangedEvent.Kind.DISH || index == null) {
+            return;
+        }
+        try {
+            if (event.getAction() == CatalogChangedEvent.Action.CREATED) {
+                indexNewestDishes();
+            } else if (event.getId() == null) {
+                rebuild();
+            } else if (event.getAction() == CatalogChangedEvent.Action.DELETED) {
+                apply(dishes -> dishes.remove(event.getId()));
+            } else {
+                JsonNode dish = responseReader.readData(dishService.getDishByID(event.getId()));
+                apply(dishes -> {
+                    dishes.remove(event.getId());
+                    put(dishes, dish);
+                });
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to update dish search index for dish {}, rebuilding it", event.getId(), e);
+            rebuild();
+        }
+    }
+
+    // The new id is not known to the caller; dish ids are ascending, so the dish is among the newest ones
+    private void indexNewestDishes() {
+        List<JsonNode> newest = responseReader.readContent(responseReader.readData(
+                dishService.getAllDishes(1, NEWEST_DISHES_ON_CREATE, "id", "desc")));
+        apply(dishes -> newest.forEach(row -> put(dishes, row)));
+    }
+
+    private synchronized void apply(Consumer<Map<Integer, Dish>> change) {
+        Map<Integer, Dish> dishes = new HashMap<>();
+        for (Dish dish : index.dishes) {
+            dishes.put(dish.id, dish);
+        }
+        change.accept(dishes);
+        index = DishIndex.of(dishes.values());
+    }
+
+    private static void put(Map<Integer, Dish> dishes, JsonNode row) {
+        JsonNode id = row.hasNonNull("dish_id") ? row.get("dish_id") : row.get("id");
+        if (id == null || !id.canConvertToInt()) {
+            return;
+        }
+        String name = row.path("dish_name").asText(row.path("name").asText(""));
+        JsonNode category = row.path("dish_category");
+        String categoryLabel = category.isObject() ? category.path("category_name").asText("") : category.asText("");
+        dishes.put(id.asInt(), new Dish(id.asInt(), name, row.path("dish_price").asDouble(row.path("price").asDouble(0)),
+                categoryLabel, row));
+    }
+
+    private static Comparator<Dish> comparator(String sortField, String sortDir) {
+        Comparator<Dish> comparator = switch (sortField == null ? "id" : sortField.toLowerCase()) {
+            case "name", "dish_name", "dishname" -> Comparator.comparing((Dish dish) -> dish.sortName);
+            case "price", "dish_price", "dishprice" -> Comparator.comparingDouble((Dish dish) -> dish.price);
+            case "category", "dish_category" -> Comparator.comparing((Dish dish) -> dish.categoryKey);
+            default -> Comparator.comparingInt((Dish dish) -> dish.id);
+        };
+        comparator = comparator.thenComparingInt(dish -> dish.id);
+        return "desc".equalsIgnoreCase(sortDir) ? comparator.reversed() : comparator;
+    }
+
+    private static int[] clip(int[] positions, int from, int to) {
+        int start = Arrays.binarySearch(positions, from);
+        int end = Arrays.binarySearch(positions, to);
+        start = start < 0 ? -start - 1 : start;
+        end = end < 0 ? -end - 1 : end;
+        return start == 0 && end == positions.length ? positions : Arrays.copyOfRange(positions, start, end);
+    }
+
+    private static int[] range(int from, int to) {
+        int[] positions = new int[Math.max(to - from, 0)];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = from + i;
+        }
+        return positions;
+    }
+
+    private static int[] intersect(int[] left, int[] right) {
+        int[] result = new int[Math.min(left.length, right.length)];
+        int i = 0, j = 0, size = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] == right[j]) {
+                result[size++] = left[i];
+                i++;
+                j++;
+            } else if (left[i] < right[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static final class Dish {
+
+        private final int id;
+        private final double price;
+        private final String sortName;
+        private final String categoryLabel;
+        private final String categoryKey;
+        private final String name;
+        private final JsonNode source;
+
+        private Dish(int id, String name, double price, String categoryLabel, JsonNode source) {
+            this.id = id;
+            this.name = name;
+            this.price = price;
+            this.sortName = SearchTokenizer.normalize(name.trim());
+            this.categoryLabel = categoryLabel;
+            this.categoryKey = SearchTokenizer.normalize(categoryLabel.trim());
+            this.source = source;
+        }
+    }
+
+    private static final class DishIndex {
+
+        private final Dish[] dishes;
+        private final double[] prices;
+        private final TreeMap<String, int[]> tokens;
+        private final Map<String, int[]> categories;
+
+        private DishIndex(Dish[] dishes, TreeMap<String, int[]> tokens, Map<String, int[]> categories) {
+            this.dishes = dishes;
+            this.prices = Arrays.stream(dishes).mapToDouble(dish -> dish.price).toArray();
+            this.tokens = tokens;
+            this.categories = categories;
+        }
+
+        private static DishIndex of(Collection<Dish> all) {
+            Dish[] dishes = all.stream()
+                    .sorted(Comparator.comparingDouble((Dish dish) -> dish.price).thenComparingInt(dish -> dish.id))
+                    .toArray(Dish[]::new);
+            Map<String, List<Integer>> tokenPostings = new HashMap<>();
+            Map<String, List<Integer>> categoryPostings = new HashMap<>();
+            for (int position = 0; position < dishes.length; position++) {
+                for (String token : SearchTokenizer.tokenize(dishes[position].name)) {
+                    tokenPostings.computeIfAbsent(token, key -> new ArrayList<>()).add(position);
+                }
+                categoryPostings.computeIfAbsent(dishes[position].categoryKey, key -> new ArrayList<>()).add(position);
+            }
+            TreeMap<String, int[]> tokens = new TreeMap<>();
+            tokenPostings.forEach((token, positions) -> tokens.put(token, positions.stream().mapToInt(Integer::intValue).toArray()));
+            Map<String, int[]> categories = new HashMap<>();
+            categoryPostings.forEach((category, positions) -> categories.put(category, positions.stream().mapToInt(Integer::intValue).toArray()));
+            return new DishIndex(dishes, tokens, categories);
+        }
+
+        private int firstPriceAtLeast(double price) {
+            int low = 0;
+            int high = prices.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (prices[mid] < price) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int firstPriceAbove(double price) {
+            int low = 0;
+            int high = prices.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (prices[mid] <= price) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int[] prefixPostings(String prefix) {
+            NavigableMap<String, int[]> range = tokens.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+            if (range.size() == 1) {
+                return range.firstEntry().getValue();
+            }
+            return range.values().stream()
+                    .flatMapToInt(Arrays::stream)
+                    .distinct()
+                    .sorted()
+                    .toArray();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.group2.kgrill.service.impl;
+
+import com.group2.kgrill.service.ImageStorage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+/**
+ * Offline stand-in for Cloudinary, enabled with {@code kgrill.image.storage=filesystem}.
+ * Copies each image into {@code kgrill.image.storage-dir} and returns its {@code file:} URL.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "kgrill.image.storage", havingValue = "filesystem")
+public class FileSystemImageStorage implements ImageStorage {
+
+    private final Path directory;
+
+    public FileSystemImageStorage(@Value("${kgrill.image.storage-dir:${java.io.tmpdir}/kgrill-images}") String directory) throws IOException {
+        this.directory = Files.createDirectories(Path.of(directory));
+    }
+
+    @Override
+    public String store(Path image, String fileName, String contentType) throws IOException {
+        Path target = directory.resolve(UUID.randomUUID() + extensionOf(fileName));
+        Files.copy(image, target, StandardCopyOption.REPLACE_EXISTING);
+        log.info("Stored image {} as {}", fileName, target);
+        return target.toUri().toString();
+    }
+
+    private static String extensionOf(String fileName) {
+        int dot = fileName == null ? -1 : fileName.lastIndexOf('.');
+        return dot < 0 ? "" : fileName.substring(dot).toLowerCase();
+    }
+}
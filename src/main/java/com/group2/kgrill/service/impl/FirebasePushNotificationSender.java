@@ -0,0 +1,34 @@
+package com.group2.kgrill.service.impl;
+
+import com.group2.kgrill.service.PushNotificationSender;
+import com.swd392.group2.kgrill_service.service.impl.FirebaseMessagingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "kgrill.notification.sender", havingValue = "firebase", matchIfMissing = true)
+public class FirebasePushNotificationSender implements PushNotificationSender {
+
+    private final FirebaseMessagingService firebaseMessagingService;
+
+    @Override
+    public List<String> sendMulticast(String title, String body, List<String> deviceTokens) {
+        List<String> failed = new ArrayList<>();
+        for (String deviceToken : deviceTokens) {
+            try {
+                firebaseMessagingService.sendNotification(deviceToken, title, body);
+            } catch (RuntimeException e) {
+                log.debug("FCM send failed for a device token", e);
+                failed.add(deviceToken);
+            }
+        }
+        return failed;
+    }
+}
@@ -0,0 +1,184 @@
+package com.group2.kgrill.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.group2.kgrill.service.IdempotencyService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-memory record of idempotent requests, evicted {@code kgrill.idempotency.ttl-minutes} after they completed.
+ * The first call for a key stores a pending future before running the action, so concurrent duplicates wait for it
+ * instead of running the transaction again. With {@code kgrill.idempotency.persistence-file} set, completed results
+ * are also snapshotted to that file and reloaded on startup, so retries that straddle a restart are still answered.
+ */
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final Path persistenceFile;
+
+    private final Cache<String, Entry> entries;
+    private volatile boolean dirty;
+
+    public IdempotencyServiceImpl(ObjectMapper objectMapper,
+                                  @Value("${kgrill.idempotency.max-keys:100000}") long maxKeys,
+                                  @Value("${kgrill.idempotency.ttl-minutes:60}") long ttlMinutes,
+                                  @Value("${kgrill.idempotency.wait-timeout-seconds:30}") long waitTimeoutSeconds,
+                                  @Value("${kgrill.idempotency.persistence-file:}") String persistenceFile) {
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.waitTimeout = Duration.ofSeconds(waitTimeoutSeconds);
+        this.persistenceFile = persistenceFile.isBlank() ? null : Path.of(persistenceFile);
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public <T> Outcome<T> execute(String scope, String key, Object fingerprint, Class<T> resultType, Supplier<T> action) {
+        String cacheKey = scope + ':' + key;
+        String requestHash = hash(fingerprint);
+        Entry created = new Entry(requestHash, new CompletableFuture<>(), null);
+        Entry entry = entries.asMap().putIfAbsent(cacheKey, created);
+        if (entry == null) {
+            return new Outcome<>(run(cacheKey, created, action), false);
+        }
+        if (!entry.requestHash.equals(requestHash)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key was already used for a different request");
+        }
+        JsonNode result = await(entry);
+        if (result == null) {
+            // The first attempt failed and gave up the key, this call becomes the new first attempt
+            return execute(scope, key, fingerprint, resultType, action);
+        }
+        return new Outcome<>(objectMapper.convertValue(result, resultType), true);
+    }
+
+    @PostConstruct
+    public void load() {
+        if (persistenceFile == null || !Files.exists(persistenceFile)) {
+            return;
+        }
+        try {
+            Instant expiry = Instant.now().minus(ttl);
+            int loaded = 0;
+            for (PersistedEntry persisted : objectMapper.readValue(persistenceFile.toFile(), PersistedEntry[].class)) {
+                if (persisted.completedAt().isAfter(expiry)) {
+                    entries.put(persisted.key(), new Entry(persisted.requestHash(),
+                            CompletableFuture.completedFuture(persisted.result()), persisted.completedAt()));
+                    loaded++;
+                }
+            }
+            log.info("Loaded {} idempotency record(s) from {}", loaded, persistenceFile);
+        } catch (IOException e) {
+            log.warn("Could not load idempotency records from {}", persistenceFile, e);
+        }
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${kgrill.idempotency.persist-ms:30000}")
+    public void persist() {
+        if (persistenceFile == null || !dirty) {
+            return;
+        }
+        dirty = false;
+        List<PersistedEntry> snapshot = new ArrayList<>();
+        entries.asMap().forEach((key, entry) -> {
+            if (entry.completedAt != null) {
+                snapshot.add(new PersistedEntry(key, entry.requestHash, entry.result.join(), entry.completedAt));
+            }
+        });
+        try {
+            if (persistenceFile.getParent() != null) {
+                Files.createDirectories(persistenceFile.getParent());
+            }
+            Path temp = persistenceFile.resolveSibling(persistenceFile.getFileName() + ".tmp");
+            objectMapper.writeValue(temp.toFile(), snapshot);
+            Files.move(temp, persistenceFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty = true;
+            log.warn("Could not persist idempotency records to {}", persistenceFile, e);
+        }
+    }
+
+    private <T> T run(String cacheKey, Entry entry, Supplier<T> action) {
+        T result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            entries.asMap().remove(cacheKey, entry);
+            entry.result.complete(null);
+            throw e;
+        }
+        // A completed entry always holds a node, null is reserved for "first attempt failed"
+        JsonNode recorded = result == null ? NullNode.getInstance() : objectMapper.valueToTree(result);
+        entries.put(cacheKey, new Entry(entry.requestHash, CompletableFuture.completedFuture(recorded), Instant.now()));
+        entry.result.complete(recorded);
+        dirty = true;
+        return result;
+    }
+
+    private JsonNode await(Entry entry) {
+        try {
+            return entry.result.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "The original request is still in progress");
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "The original request is still in progress");
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    private String hash(Object fingerprint) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = fingerprint instanceof String text
+                    ? text.getBytes(StandardCharsets.UTF_8)
+                    : objectMapper.writeValueAsBytes(fingerprint);
+            return HexFormat.of().formatHex(digest.digest(bytes));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Failed to fingerprint idempotent request", e);
+        }
+    }
+
+    private record Entry(String requestHash, CompletableFuture<JsonNode> result, Instant completedAt) {
+    }
+
+    private record PersistedEntry(String key, String requestHash, JsonNode result, Instant completedAt) {
+    }
+}
@@ -0,0 +1,300 @@
+package com.group2.kgrill.service.impl;
+
+import com.group2.kgrill.dto.ImageUploadJob;
+import com.group2.kgrill.event.CatalogChangedEvent;
+import com.group2.kgrill.service.ImageStorage;
+import com.group2.kgrill.service.ImageUploadService;
+import com.group2.kgrill.util.ExifOrientation;
+import com.swd392.group2.kgrill_service.service.PackageService;
+import com.swd392.group2.kgrill_service.service.UserService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/**
+ * Moves image uploads off the request thread. The request only spools the multipart body to a temp file
+ * (Undertow moves its on-disk part, nothing is buffered on the heap); a bounded worker pool then decodes a
+ * subsampled copy, turns it upright from its EXIF orientation, scales it down to {@code kgrill.image.max-dimension},
+ * recompresses it (PNG when it has transparency, JPEG otherwise), uploads it and writes the URL to the user or
+ * package. A full queue is answered with 503 instead of piling up temp files.
+ */
+@Slf4j
+@Service
+public class ImageUploadServiceImpl implements ImageUploadService {
+
+    private static final String JPEG_CONTENT_TYPE = "image/jpeg";
+    private static final String PNG_CONTENT_TYPE = "image/png";
+
+    private final UserService userService;
+    private final PackageService packageService;
+    private final ImageStorage imageStorage;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxDimension;
+    private final float jpegQuality;
+    private final Duration jobRetention;
+    private final Path spoolDirectory;
+
+    private final Map<UUID, ImageUploadJob> jobs = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor workers;
+
+    public ImageUploadServiceImpl(UserService userService,
+                                  PackageService packageService,
+                                  ImageStorage imageStorage,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${kgrill.image.worker-threads:2}") int workerThreads,
+                                  @Value("${kgrill.image.queue-capacity:100}") int queueCapacity,
+                                  @Value("${kgrill.image.max-dimension:1280}") int maxDimension,
+                                  @Value("${kgrill.image.jpeg-quality:0.82}") float jpegQuality,
+                                  @Value("${kgrill.image.job-retention-minutes:60}") long jobRetentionMinutes,
+                                  @Value("${kgrill.image.spool-dir:${java.io.tmpdir}/kgrill-image-spool}") String spoolDirectory) throws IOException {
+        this.userService = userService;
+        this.packageService = packageService;
+        this.imageStorage = imageStorage;
+        this.eventPublisher = eventPublisher;
+        this.maxDimension = maxDimension;
+        this.jpegQuality = jpegQuality;
+        this.jobRetention = Duration.ofMinutes(jobRetentionMinutes);
+        this.spoolDirectory = Files.createDirectories(Path.of(spoolDirectory));
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "kgrill-image-upload-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public ImageUploadJob submit(MultipartFile file, ImageUploadJob.Target target, String targetId) throws IOException {
+        // The multipart request is cleaned up once the request completes, the worker only gets plain values
+        String originalFileName = file.getOriginalFilename();
+        String contentType = file.getContentType();
+        Path spooled = Files.createTempFile(spoolDirectory, "upload-", ".tmp");
+        try {
+            file.transferTo(spooled);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spooled);
+            throw e;
+        }
+
+        ImageUploadJob job = ImageUploadJob.builder()
+                .jobId(UUID.randomUUID())
+                .target(target)
+                .targetId(targetId)
+                .status(ImageUploadJob.Status.QUEUED)
+                .originalBytes(Files.size(spooled))
+                .createdAt(Instant.now())
+                .build();
+        jobs.put(job.getJobId(), job);
+        try {
+            workers.execute(() -> process(job.getJobId(), spooled, originalFileName, contentType));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getJobId());
+            Files.deleteIfExists(spooled);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Image upload queue is full, try again later");
+        }
+        return job;
+    }
+
+    @Override
+    public Optional<ImageUploadJob> getJob(UUID jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    @Scheduled(fixedDelayString = "${kgrill.image.job-cleanup-ms:600000}")
+    public void removeExpiredJobs() {
+        Instant expiry = Instant.now().minus(jobRetention);
+        jobs.values().removeIf(job -> job.getCompletedAt() != null && job.getCompletedAt().isBefore(expiry));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("{} image upload(s) still pending at shutdown", workers.getQueue().size() + workers.getActiveCount());
+            workers.shutdownNow();
+        }
+    }
+
+    private void process(UUID jobId, Path spooled, String originalFileName, String contentType) {
+        ImageUploadJob job = update(jobId, current -> current.toBuilder().status(ImageUploadJob.Status.PROCESSING).build());
+        Resized resized = null;
+        try {
+            resized = resize(spooled);
+            // The original keeps its EXIF orientation, so it is only preferred when it needs no turning
+            boolean useResized = resized != null && (resized.rotated() || Files.size(resized.file()) < Files.size(spooled));
+            Path upload = useResized ? resized.file() : spooled;
+            String url = useResized
+                    ? imageStorage.store(upload, baseName(originalFileName) + resized.extension(), resized.contentType())
+                    : imageStorage.store(upload, originalFileName, contentType);
+            applyToTarget(job, url);
+            long uploadedBytes = Files.size(upload);
+            update(jobId, current -> current.toBuilder()
+                    .status(ImageUploadJob.Status.COMPLETED)
+                    .imageUrl(url)
+                    .uploadedBytes(uploadedBytes)
+                    .completedAt(Instant.now())
+                    .build());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Image upload {} for {} {} failed", jobId, job.getTarget(), job.getTargetId(), e);
+            update(jobId, current -> current.toBuilder()
+                    .status(ImageUploadJob.Status.FAILED)
+                    .error(e.getMessage())
+                    .completedAt(Instant.now())
+                    .build());
+        } finally {
+            deleteQuietly(spooled);
+            deleteQuietly(resized == null ? null : resized.file());
+        }
+    }
+
+    private void applyToTarget(ImageUploadJob job, String url) {
+        switch (job.getTarget()) {
+            case PROFILE_PICTURE -> userService.updateUserProfilePicture(UUID.fromString(job.getTargetId()), url);
+            case PACKAGE_THUMBNAIL -> {
+                int packageId = Integer.parseInt(job.getTargetId());
+                packageService.uploadPackageThumbnail(packageId, url);
+                eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Kind.PACKAGE, CatalogChangedEvent.Action.UPDATED, packageId));
+            }
+        }
+    }
+
+    /**
+     * Returns an upright, scaled-down copy of the image, or {@code null} when ImageIO cannot decode the format
+     * (the original is then uploaded unchanged).
+     */
+    private Resized resize(Path original) throws IOException {
+        BufferedImage decoded;
+        int orientation;
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, false);
+                orientation = orientationOf(reader);
+                int longestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                // Decoding every second/third/... pixel keeps a 12 MP photo from being fully expanded on the heap;
+                // the remaining 1-2x reduction is done with interpolation below for quality
+                int subsampling = Math.max(1, longestSide / (maxDimension * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                decoded = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(decoded.getWidth(), decoded.getHeight()));
+        int width = Math.max(1, (int) Math.round(decoded.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(decoded.getHeight() * scale));
+        boolean transparent = decoded.getColorModel().hasAlpha();
+        boolean transposed = ExifOrientation.isTransposed(orientation);
+        BufferedImage scaled = new BufferedImage(transposed ? height : width, transposed ? width : height,
+                transparent ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            // The re-encoded copy carries no EXIF, so the rotation the tag asked for is baked into the pixels
+            graphics.transform(ExifOrientation.toUpright(orientation, width, height));
+            graphics.drawImage(decoded, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        // JPEG has no alpha channel, images with transparency stay PNG so their background is kept
+        String extension = transparent ? ".png" : ".jpg";
+        Resized resized = new Resized(Files.createTempFile(spoolDirectory, "resized-", extension),
+                transparent ? PNG_CONTENT_TYPE : JPEG_CONTENT_TYPE, extension, orientation != ExifOrientation.NORMAL);
+        ImageWriter writer = ImageIO.getImageWritersByMIMEType(resized.contentType()).next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(resized.file().toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (!transparent) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(jpegQuality);
+            }
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(scaled, null, null), param);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(resized.file());
+            throw e;
+        } finally {
+            writer.dispose();
+        }
+        return resized;
+    }
+
+    private static int orientationOf(ImageReader reader) {
+        try {
+            return ExifOrientation.read(reader.getImageMetadata(0));
+        } catch (IOException | RuntimeException e) {
+            // The JPEG metadata parser is stricter than the decoder, an odd marker order must not fail the upload
+            log.debug("Could not read the metadata of an uploaded image, keeping its stored orientation", e);
+            return ExifOrientation.NORMAL;
+        }
+    }
+
+    private ImageUploadJob update(UUID jobId, UnaryOperator<ImageUploadJob> change) {
+        return jobs.computeIfPresent(jobId, (id, job) -> change.apply(job));
+    }
+
+    private static String baseName(String fileName) {
+        if (fileName == null || fileName.isBlank()) {
+            return "image";
+        }
+        int dot = fileName.lastIndexOf('.');
+        return dot > 0 ? fileName.substring(0, dot) : fileName;
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.debug("Could not delete temp image {}", path, e);
+        }
+    }
+
+    private record Resized(Path file, String contentType, String extension, boolean rotated) {
+    }
+}
@@ -0,0 +1,44 @@
+package com.group2.kgrill.service.impl;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Offline stand-in for the SMTP server, enabled with {@code kgrill.mail.transport=memory}.
+ * Messages are fully built (headers, multipart body) but recorded instead of sent.
+ */
+@Slf4j
+public class InMemoryMailSender extends JavaMailSenderImpl {
+
+    private final List<MimeMessage> sent = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) {
+        for (MimeMessage mimeMessage : mimeMessages) {
+            try {
+                mimeMessage.saveChanges();
+            } catch (MessagingException e) {
+                throw new MailSendException("Failed to prepare message", e);
+            }
+            sent.add(mimeMessage);
+        }
+        log.debug("In-memory mail transport accepted {} message(s)", mimeMessages.length);
+    }
+
+    public List<MimeMessage> getSent() {
+        synchronized (sent) {
+            return List.copyOf(sent);
+        }
+    }
+
+    public void clear() {
+        sent.clear();
+    }
+}
@@ -0,0 +1,290 @@
+package com.group2.kgrill.service.impl;
+
+import com.group2.kgrill.dto.MailOutboxStatus;
+import com.group2.kgrill.service.MailOutboxService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process outbox for outgoing mail. Senders only enqueue prepared messages; a single worker thread drains
+ * the queue in batches and hands each batch to the transport in one call, which {@code JavaMailSenderImpl}
+ * delivers over a single SMTP connection. Messages the server refused are retried with exponential backoff
+ * and parked in a bounded dead-letter list once they keep failing. On shutdown the queue and the retries still
+ * waiting for their backoff are sent once more within {@code kgrill.mail.shutdown-drain-seconds}; whatever is
+ * left after that is logged with its recipients so it can be resent by hand.
+ */
+@Slf4j
+@Service
+public class MailOutboxServiceImpl implements MailOutboxService {
+
+    private final JavaMailSender mailTransport;
+    private final int batchSize;
+    private final long batchLingerNanos;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final int deadLetterCapacity;
+    private final long shutdownDrainNanos;
+
+    private final BlockingQueue<PendingMail> queue;
+    private final DelayQueue<PendingMail> retries = new DelayQueue<>();
+    private final Deque<MailOutboxStatus.DeadLetter> deadLetters = new ConcurrentLinkedDeque<>();
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong sessionCount = new AtomicLong();
+
+    private volatile boolean running;
+    private volatile boolean draining;
+    private Thread worker;
+
+    public MailOutboxServiceImpl(@Qualifier("mailTransport") JavaMailSender mailTransport,
+                                 @Value("${kgrill.mail.queue-capacity:5000}") int queueCapacity,
+                                 @Value("${kgrill.mail.batch-size:50}") int batchSize,
+                                 @Value("${kgrill.mail.batch-linger-ms:250}") long batchLingerMs,
+                                 @Value("${kgrill.mail.max-attempts:5}") int maxAttempts,
+                                 @Value("${kgrill.mail.initial-backoff-ms:2000}") long initialBackoffMs,
+                                 @Value("${kgrill.mail.dead-letter-capacity:500}") int deadLetterCapacity,
+                                 @Value("${kgrill.mail.shutdown-drain-seconds:10}") long shutdownDrainSeconds) {
+        this.mailTransport = mailTransport;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.batchLingerNanos = TimeUnit.MILLISECONDS.toNanos(batchLingerMs);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.deadLetterCapacity = deadLetterCapacity;
+        this.shutdownDrainNanos = TimeUnit.SECONDS.toNanos(shutdownDrainSeconds);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = new Thread(this::runWorker, "kgrill-mail-outbox");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        long deadline = System.nanoTime() + shutdownDrainNanos;
+        running = false;
+        // Let the worker finish the batch it is sending, the rest is flushed from this thread
+        worker.join(Math.max(TimeUnit.NANOSECONDS.toMillis(shutdownDrainNanos), 1));
+        if (worker.isAlive()) {
+            worker.interrupt();
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        draining = true;
+        Deque<PendingMail> pending = new ArrayDeque<>(retries);
+        retries.clear();
+        while (true) {
+            List<PendingMail> batch = new ArrayList<>(batchSize);
+            while (batch.size() < batchSize && !pending.isEmpty()) {
+                batch.add(pending.poll());
+            }
+            queue.drainTo(batch, batchSize - batch.size());
+            if (batch.isEmpty()) {
+                return;
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                pending.addAll(batch);
+                queue.drainTo(pending);
+                pending.forEach(mail -> logUnsent(mail, "shutdown drain timed out"));
+                log.error("Mail outbox stopped with {} unsent mail(s)", pending.size());
+                return;
+            }
+            try {
+                deliver(batch);
+            } catch (RuntimeException e) {
+                batch.forEach(mail -> logUnsent(mail, e.getMessage()));
+            }
+        }
+    }
+
+    @Override
+    public boolean enqueue(MimeMessage message) {
+        if (queue.offer(new PendingMail(message))) {
+            return true;
+        }
+        rejectedCount.incrementAndGet();
+        log.warn("Mail outbox is full, rejecting message '{}'", subjectOf(message));
+        return false;
+    }
+
+    @Override
+    public MailOutboxStatus getStatus() {
+        return MailOutboxStatus.builder()
+                .queued(queue.size())
+                .waitingRetry(retries.size())
+                .sent(sentCount.get())
+                .rejected(rejectedCount.get())
+                .smtpSessions(sessionCount.get())
+                .deadLetters(List.copyOf(deadLetters))
+                .build();
+    }
+
+    private void runWorker() {
+        List<PendingMail> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                PendingMail first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    fillBatch(batch);
+                }
+                retries.drainTo(batch, Math.max(batchSize - batch.size(), 0));
+                if (!batch.isEmpty()) {
+                    deliver(batch);
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                // Hand the half-filled batch to the shutdown drain
+                retries.addAll(batch);
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Mail outbox worker failed to deliver a batch", e);
+                batch.forEach(mail -> scheduleRetry(mail, e));
+                batch.clear();
+            }
+        }
+    }
+
+    // An SMTP session costs a TLS handshake and a login, so wait briefly for more messages to share it
+    private void fillBatch(List<PendingMail> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + batchLingerNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                return;
+            }
+            PendingMail next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void deliver(List<PendingMail> batch) {
+        Map<MimeMessage, PendingMail> byMessage = new IdentityHashMap<>(batch.size());
+        batch.forEach(mail -> byMessage.put(mail.message, mail));
+        sessionCount.incrementAndGet();
+        try {
+            mailTransport.send(batch.stream().map(mail -> mail.message).toArray(MimeMessage[]::new));
+            sentCount.addAndGet(batch.size());
+        } catch (MailSendException e) {
+            Map<Object, Exception> failed = e.getFailedMessages();
+            if (failed.isEmpty()) {
+                log.warn("Mail batch of {} failed, retrying all", batch.size(), e);
+                batch.forEach(mail -> scheduleRetry(mail, e));
+                return;
+            }
+            sentCount.addAndGet(batch.size() - failed.size());
+            log.warn("{} of {} mail(s) in the batch failed, retrying them", failed.size(), batch.size());
+            failed.forEach((message, cause) -> {
+                PendingMail mail = byMessage.get(message);
+                if (mail != null) {
+                    scheduleRetry(mail, cause);
+                }
+            });
+        } catch (MailException e) {
+            log.warn("Mail transport unavailable, retrying {} mail(s)", batch.size(), e);
+            batch.forEach(mail -> scheduleRetry(mail, e));
+        }
+    }
+
+    private void scheduleRetry(PendingMail mail, Exception cause) {
+        mail.attempts++;
+        if (draining) {
+            // No backoff left to wait for while shutting down
+            logUnsent(mail, cause.getMessage());
+            return;
+        }
+        if (mail.attempts >= maxAttempts) {
+            deadLetters.addFirst(MailOutboxStatus.DeadLetter.builder()
+                    .recipients(recipientsOf(mail.message))
+                    .subject(subjectOf(mail.message))
+                    .attempts(mail.attempts)
+                    .error(cause.getMessage())
+                    .failedAt(Instant.now())
+                    .build());
+            while (deadLetters.size() > deadLetterCapacity) {
+                deadLetters.pollLast();
+            }
+            log.warn("Mail '{}' moved to dead letters after {} attempts", subjectOf(mail.message), mail.attempts);
+            return;
+        }
+        long backoff = initialBackoffMs << Math.min(mail.attempts - 1, 10);
+        mail.retryAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoff);
+        retries.put(mail);
+    }
+
+    private static void logUnsent(PendingMail mail, String reason) {
+        log.error("Mail '{}' to {} was not sent before shutdown after {} attempt(s): {}",
+                subjectOf(mail.message), recipientsOf(mail.message), mail.attempts, reason);
+    }
+
+    private static List<String> recipientsOf(MimeMessage message) {
+        try {
+            Address[] recipients = message.getAllRecipients();
+            return recipients == null ? List.of() : Arrays.stream(recipients).map(Address::toString).toList();
+        } catch (MessagingException e) {
+            return List.of();
+        }
+    }
+
+    private static String subjectOf(MimeMessage message) {
+        try {
+            return message.getSubject();
+        } catch (MessagingException e) {
+            return null;
+        }
+    }
+
+    private static final class PendingMail implements Delayed {
+
+        private final MimeMessage message;
+        private int attempts;
+        private long retryAt;
+
+        private PendingMail(MimeMessage message) {
+            this.message = message;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(retryAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
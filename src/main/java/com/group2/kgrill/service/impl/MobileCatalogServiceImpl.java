@@ -0,0 +1,186 @@
+package com.group2.kgrill.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group2.kgrill.dto.CatalogSnapshot;
+import com.group2.kgrill.event.CatalogChangedEvent;
+import com.group2.kgrill.service.MobileCatalogService;
+import com.group2.kgrill.util.SearchTokenizer;
+import com.group2.kgrill.util.ServiceResponseReader;
+import com.swd392.group2.kgrill_service.service.PackageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves the mobile package catalog from an immutable in-memory snapshot with a keyword index.
+ * Any package, dish or ingredient change bumps the generation and the next read rebuilds the snapshot once.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MobileCatalogServiceImpl implements MobileCatalogService {
+
+    private final PackageService packageService;
+    private final ServiceResponseReader responseReader;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicLong generation = new AtomicLong(1);
+    private volatile IndexedCatalog catalog;
+
+    @Override
+    public String getCurrentETag() {
+        return current().eTag;
+    }
+
+    @Override
+    public CatalogSnapshot search(String keyword) {
+        IndexedCatalog current = current();
+        List<String> tokens = new ArrayList<>(SearchTokenizer.tokenize(keyword));
+        if (tokens.isEmpty()) {
+            return new CatalogSnapshot(current.generation, current.eTag, current.packages);
+        }
+
+        int[] matches = null;
+        for (int i = 0; i < tokens.size(); i++) {
+            int[] postings = i == tokens.size() - 1
+                    ? current.prefixPostings(tokens.get(i))
+                    : current.index.getOrDefault(tokens.get(i), new int[0]);
+            matches = matches == null ? postings : intersect(matches, postings);
+            if (matches.length == 0) {
+                break;
+            }
+        }
+
+        List<JsonNode> result = new ArrayList<>(matches.length);
+        for (int position : matches) {
+            result.add(current.packages.get(position));
+        }
+        return new CatalogSnapshot(current.generation, current.eTag, List.copyOf(result));
+    }
+
+    @Override
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        invalidate();
+    }
+
+    private IndexedCatalog current() {
+        IndexedCatalog current = catalog;
+        if (current != null && current.generation == generation.get()) {
+            return current;
+        }
+        return rebuild();
+    }
+
+    private synchronized IndexedCatalog rebuild() {
+        long target = generation.get();
+        IndexedCatalog current = catalog;
+        if (current != null && current.generation == target) {
+            return current;
+        }
+
+        long startedAt = System.nanoTime();
+        List<JsonNode> packages = List.copyOf(responseReader.readContent(
+                responseReader.readData(packageService.getAllPackageOnMobile())));
+        IndexedCatalog rebuilt = new IndexedCatalog(target, eTagOf(packages), packages, buildIndex(packages));
+        catalog = rebuilt;
+        log.debug("Mobile catalog v{} rebuilt with {} packages in {} µs", target, packages.size(), (System.nanoTime() - startedAt) / 1000);
+        return rebuilt;
+    }
+
+    private String eTagOf(List<JsonNode> packages) {
+        try {
+            return "\"" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(packages)) + "\"";
+        } catch (JsonProcessingException e) {
+            return "\"v" + generation.get() + "\"";
+        }
+    }
+
+    private static TreeMap<String, int[]> buildIndex(List<JsonNode> packages) {
+        Map<String, List<Integer>> postings = new HashMap<>();
+        for (int position = 0; position < packages.size(); position++) {
+            StringBuilder text = new StringBuilder();
+            collectNames(packages.get(position), null, text);
+            for (String token : SearchTokenizer.tokenize(text.toString())) {
+                postings.computeIfAbsent(token, key -> new ArrayList<>()).add(position);
+            }
+        }
+        TreeMap<String, int[]> index = new TreeMap<>();
+        postings.forEach((token, positions) -> index.put(token, positions.stream().mapToInt(Integer::intValue).toArray()));
+        return index;
+    }
+
+    // Indexes the package name and the names of its dishes, whatever nesting the DTO uses
+    private static void collectNames(JsonNode node, String fieldName, StringBuilder text) {
+        if (node.isTextual()) {
+            if (fieldName != null && fieldName.toLowerCase().contains("name")) {
+                text.append(node.asText()).append(' ');
+            }
+        } else if (node.isObject()) {
+            node.fields().forEachRemaining(field -> collectNames(field.getValue(), field.getKey(), text));
+        } else if (node.isArray()) {
+            node.forEach(element -> collectNames(element, fieldName, text));
+        }
+    }
+
+    private static int[] intersect(int[] left, int[] right) {
+        int[] result = new int[Math.min(left.length, right.length)];
+        int i = 0, j = 0, size = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] == right[j]) {
+                result[size++] = left[i];
+                i++;
+                j++;
+            } else if (left[i] < right[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static final class IndexedCatalog {
+
+        private final long generation;
+        private final String eTag;
+        private final List<JsonNode> packages;
+        private final TreeMap<String, int[]> index;
+
+        private IndexedCatalog(long generation, String eTag, List<JsonNode> packages, TreeMap<String, int[]> index) {
+            this.generation = generation;
+            this.eTag = eTag;
+            this.packages = packages;
+            this.index = index;
+        }
+
+        private int[] prefixPostings(String prefix) {
+            NavigableMap<String, int[]> range = index.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+            if (range.size() == 1) {
+                return range.firstEntry().getValue();
+            }
+            return range.values().stream()
+                    .flatMapToInt(Arrays::stream)
+                    .distinct()
+                    .sorted()
+                    .toArray();
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.group2.kgrill.service.impl;
+
+import com.group2.kgrill.dto.NotificationOutboxStatus;
+import com.group2.kgrill.event.DeliveryOrderEvent;
+import com.group2.kgrill.service.NotificationOutboxService;
+import com.group2.kgrill.service.PushNotificationSender;
+import com.swd392.group2.kgrill_service.service.UserService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process outbox for push notifications. Requests only enqueue; a single worker thread drains the
+ * queue in batches, groups identical messages into one multicast, retries failed tokens with exponential
+ * backoff and parks messages that keep failing in a bounded dead-letter list. On shutdown the queue and the
+ * retries still waiting for their backoff are sent once more within {@code kgrill.notification.shutdown-drain-seconds};
+ * whatever is left after that is logged with its user so it can be resent by hand.
+ */
+@Slf4j
+@Service
+public class NotificationOutboxServiceImpl implements NotificationOutboxService {
+
+    private static final String ORDER_STATUS_TITLE = "Order Status";
+    private static final String ORDER_PROCESSING_BODY = "Your order is now being processed";
+
+    private final UserService userService;
+    private final PushNotificationSender pushNotificationSender;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final int deadLetterCapacity;
+    private final long shutdownDrainNanos;
+
+    private final BlockingQueue<PendingNotification> queue;
+    private final DelayQueue<PendingNotification> retries = new DelayQueue<>();
+    private final Deque<NotificationOutboxStatus.DeadLetter> deadLetters = new ConcurrentLinkedDeque<>();
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    private volatile boolean running;
+    private volatile boolean draining;
+    private Thread worker;
+
+    public NotificationOutboxServiceImpl(UserService userService,
+                                         PushNotificationSender pushNotificationSender,
+                                         @Value("${kgrill.notification.queue-capacity:10000}") int queueCapacity,
+                                         @Value("${kgrill.notification.batch-size:100}") int batchSize,
+                                         @Value("${kgrill.notification.max-attempts:5}") int maxAttempts,
+                                         @Value("${kgrill.notification.initial-backoff-ms:1000}") long initialBackoffMs,
+                                         @Value("${kgrill.notification.dead-letter-capacity:500}") int deadLetterCapacity,
+                                         @Value("${kgrill.notification.shutdown-drain-seconds:10}") long shutdownDrainSeconds) {
+        this.userService = userService;
+        this.pushNotificationSender = pushNotificationSender;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.deadLetterCapacity = deadLetterCapacity;
+        this.shutdownDrainNanos = TimeUnit.SECONDS.toNanos(shutdownDrainSeconds);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = new Thread(this::runWorker, "kgrill-notification-outbox");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        long deadline = System.nanoTime() + shutdownDrainNanos;
+        running = false;
+        // Let the worker finish the batch it is sending, the rest is flushed from this thread
+        worker.join(Math.max(TimeUnit.NANOSECONDS.toMillis(shutdownDrainNanos), 1));
+        if (worker.isAlive()) {
+            worker.interrupt();
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        draining = true;
+        Deque<PendingNotification> pending = new ArrayDeque<>(retries);
+        retries.clear();
+        while (true) {
+            List<PendingNotification> batch = new ArrayList<>(batchSize);
+            while (batch.size() < batchSize && !pending.isEmpty()) {
+                batch.add(pending.poll());
+            }
+            queue.drainTo(batch, batchSize - batch.size());
+            if (batch.isEmpty()) {
+                return;
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                pending.addAll(batch);
+                queue.drainTo(pending);
+                pending.forEach(notification -> logUnsent(notification, "shutdown drain timed out"));
+                log.error("Notification outbox stopped with {} unsent notification(s)", pending.size());
+                return;
+            }
+            try {
+                deliver(batch);
+            } catch (RuntimeException e) {
+                batch.forEach(notification -> logUnsent(notification, e.getMessage()));
+            }
+        }
+    }
+
+    @EventListener
+    public void onDeliveryOrderEvent(DeliveryOrderEvent event) {
+        if (event.getType() == DeliveryOrderEvent.Type.CHECKED_OUT && event.getUserId() != null) {
+            enqueue(event.getUserId(), ORDER_STATUS_TITLE, ORDER_PROCESSING_BODY);
+        }
+    }
+
+    @Override
+    public boolean enqueue(UUID userId, String title, String body) {
+        if (queue.offer(new PendingNotification(userId, title, body))) {
+            return true;
+        }
+        rejectedCount.incrementAndGet();
+        log.warn("Notification outbox is full, dropping notification for user {}", userId);
+        return false;
+    }
+
+    @Override
+    public NotificationOutboxStatus getStatus() {
+        return NotificationOutboxStatus.builder()
+                .queued(queue.size())
+                .waitingRetry(retries.size())
+                .sent(sentCount.get())
+                .rejected(rejectedCount.get())
+                .deadLetters(List.copyOf(deadLetters))
+                .build();
+    }
+
+    private void runWorker() {
+        List<PendingNotification> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                PendingNotification first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                }
+                retries.drainTo(batch, Math.max(batchSize - batch.size(), 0));
+                if (!batch.isEmpty()) {
+                    deliver(batch);
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                // Hand the half-filled batch to the shutdown drain
+                retries.addAll(batch);
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Notification outbox worker failed to deliver a batch", e);
+                batch.forEach(this::scheduleRetry);
+                batch.clear();
+            }
+        }
+    }
+
+    private void deliver(List<PendingNotification> batch) {
+        Map<String, Map<String, PendingNotification>> byMessage = new LinkedHashMap<>();
+        for (PendingNotification notification : batch) {
+            if (notification.deviceToken == null) {
+                notification.deviceToken = userService.getDeviceTokenByUserId(notification.userId);
+                if (notification.deviceToken == null) {
+                    continue;
+                }
+            }
+            byMessage.computeIfAbsent(notification.title + '\u0000' + notification.body, key -> new LinkedHashMap<>())
+                    .putIfAbsent(notification.deviceToken, notification);
+        }
+
+        for (Map<String, PendingNotification> recipients : byMessage.values()) {
+            PendingNotification sample = recipients.values().iterator().next();
+            List<String> failed;
+            try {
+                failed = pushNotificationSender.sendMulticast(sample.title, sample.body, List.copyOf(recipients.keySet()));
+            } catch (RuntimeException e) {
+                log.warn("Push notification multicast failed, retrying {} device(s)", recipients.size(), e);
+                failed = List.copyOf(recipients.keySet());
+            }
+            sentCount.addAndGet(recipients.size() - failed.size());
+            for (String deviceToken : failed) {
+                scheduleRetry(recipients.get(deviceToken));
+            }
+        }
+    }
+
+    private void scheduleRetry(PendingNotification notification) {
+        notification.attempts++;
+        if (draining) {
+            // No backoff left to wait for while shutting down
+            logUnsent(notification, "delivery failed");
+            return;
+        }
+        if (notification.attempts >= maxAttempts) {
+            deadLetters.addFirst(NotificationOutboxStatus.DeadLetter.builder()
+                    .userId(notification.userId)
+                    .title(notification.title)
+                    .body(notification.body)
+                    .attempts(notification.attempts)
+                    .failedAt(Instant.now())
+                    .build());
+            while (deadLetters.size() > deadLetterCapacity) {
+                deadLetters.pollLast();
+            }
+            log.warn("Push notification for user {} moved to dead letters after {} attempts", notification.userId, notification.attempts);
+            return;
+        }
+        long backoff = initialBackoffMs << Math.min(notification.attempts - 1, 10);
+        notification.retryAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoff);
+        retries.put(notification);
+    }
+
+    private static void logUnsent(PendingNotification notification, String reason) {
+        log.error("Push notification '{}' for user {} was not sent before shutdown after {} attempt(s): {}",
+                notification.title, notification.userId, notification.attempts, reason);
+    }
+
+    private static final class PendingNotification implements Delayed {
+
+        private final UUID userId;
+        private final String title;
+        private final String body;
+        private String deviceToken;
+        private int attempts;
+        private long retryAt;
+
+        private PendingNotification(UUID userId, String title, String body) {
+            this.userId = userId;
+            this.title = title;
+            this.body = body;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(retryAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
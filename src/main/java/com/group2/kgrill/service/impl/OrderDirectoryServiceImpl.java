@@ -0,0 +1,74 @@
+package com.group2.kgrill.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.group2.kgrill.event.DeliveryOrderEvent;
+import com.group2.kgrill.service.OrderDirectoryService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Bounded order id → parties map. The owner of an order never changes, so an entry is only ever completed, never
+ * invalidated; orders that were not touched for {@code kgrill.order-directory.idle-hours} are forgotten and are
+ * learned again from the next history read.
+ */
+@Service
+public class OrderDirectoryServiceImpl implements OrderDirectoryService {
+
+    private final Cache<Long, Parties> parties;
+
+    public OrderDirectoryServiceImpl(@Value("${kgrill.order-directory.max-orders:200000}") long maxOrders,
+                                     @Value("${kgrill.order-directory.idle-hours:48}") long idleHours) {
+        this.parties = Caffeine.newBuilder()
+                .maximumSize(maxOrders)
+                .expireAfterAccess(Duration.ofHours(idleHours))
+                .build();
+    }
+
+    @Override
+    public void recordOwner(long orderId, UUID userId) {
+        if (userId != null) {
+            parties.asMap().merge(orderId, new Parties(userId, null),
+                    (current, added) -> new Parties(userId, current.shipperId()));
+        }
+    }
+
+    @Override
+    public void recordShipper(long orderId, long shipperId) {
+        parties.asMap().merge(orderId, new Parties(null, shipperId),
+                (current, added) -> new Parties(current.userId(), shipperId));
+    }
+
+    @Override
+    public Optional<UUID> ownerOf(long orderId) {
+        Parties known = parties.getIfPresent(orderId);
+        return known == null ? Optional.empty() : Optional.ofNullable(known.userId());
+    }
+
+    @Override
+    public Optional<Long> shipperOf(long orderId) {
+        Parties known = parties.getIfPresent(orderId);
+        return known == null ? Optional.empty() : Optional.ofNullable(known.shipperId());
+    }
+
+    @EventListener
+    public void onDeliveryOrderEvent(DeliveryOrderEvent event) {
+        if (event.getOrderId() == null) {
+            return;
+        }
+        if (event.getUserId() != null) {
+            recordOwner(event.getOrderId(), event.getUserId());
+        }
+        if (event.getType() == DeliveryOrderEvent.Type.SHIPPER_ASSIGNED && event.getShipperId() != null) {
+            recordShipper(event.getOrderId(), event.getShipperId());
+        }
+    }
+
+    private record Parties(UUID userId, Long shipperId) {
+    }
+}
@@ -0,0 +1,250 @@
+package com.group2.kgrill.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.group2.kgrill.dto.CursorPage;
+import com.group2.kgrill.dto.DeliveryOrderRow;
+import com.group2.kgrill.event.DeliveryOrderEvent;
+import com.group2.kgrill.service.OrderDirectoryService;
+import com.group2.kgrill.service.OrderHistoryService;
+import com.group2.kgrill.util.CursorTokenCodec;
+import com.group2.kgrill.util.ServiceResponseReader;
+import com.swd392.group2.kgrill_service.service.DeliveryOrderService;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Serves the customer order history from a per-user index sorted by (order date, order id) descending. The full
+ * history is read from the service layer once and then paged, filtered and projected in memory: a page is a
+ * binary search for the keyset position plus a slice, so the "recent orders" screen costs the same for a customer
+ * with five orders as for one with five hundred. Indexes are dropped on checkout, accept, cancel and shipper
+ * assignment, and otherwise expire after {@code kgrill.order-history.ttl-seconds}.
+ */
+@Slf4j
+@Service
+public class OrderHistoryServiceImpl implements OrderHistoryService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final Comparator<OrderEntry> NEWEST_FIRST = Comparator
+            .comparing(OrderEntry::orderDate, Comparator.reverseOrder())
+            .thenComparing(OrderEntry::orderId, Comparator.reverseOrder());
+
+    private final DeliveryOrderService deliveryOrderService;
+    private final ServiceResponseReader responseReader;
+    private final CursorTokenCodec cursorTokenCodec;
+
+    private final OrderDirectoryService orderDirectoryService;
+
+    private final Cache<UUID, OrderIndex> indexes;
+
+    public OrderHistoryServiceImpl(DeliveryOrderService deliveryOrderService,
+                                   ServiceResponseReader responseReader,
+                                   CursorTokenCodec cursorTokenCodec,
+                                   OrderDirectoryService orderDirectoryService,
+                                   @Value("${kgrill.order-history.max-users:10000}") long maxUsers,
+                                   @Value("${kgrill.order-history.ttl-seconds:120}") long ttlSeconds) {
+        this.deliveryOrderService = deliveryOrderService;
+        this.responseReader = responseReader;
+        this.cursorTokenCodec = cursorTokenCodec;
+        this.orderDirectoryService = orderDirectoryService;
+        this.indexes = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    @Override
+    public CursorPage<JsonNode> getOrderHistoryPage(UUID userId, String cursor, int pageSize, LocalDate from, LocalDate to) {
+        OrderHistoryCursor position = cursor == null || cursor.isBlank()
+                ? new OrderHistoryCursor(Math.min(Math.max(pageSize, 1), MAX_PAGE_SIZE),
+                from == null ? null : from.toString(), to == null ? null : to.toString(), null, null)
+                : decode(cursor);
+        LocalDate fromDate = position.getFrom() == null ? null : LocalDate.parse(position.getFrom());
+        LocalDate toDate = position.getTo() == null ? null : LocalDate.parse(position.getTo());
+        if (fromDate != null && toDate != null && fromDate.isAfter(toDate)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'from' must not be after 'to'");
+        }
+
+        List<OrderEntry> entries = index(userId).entries;
+        int start = position.getLastOrderId() != null
+                ? firstAfter(entries, new OrderEntry(position.getLastOrderId(), LocalDateTime.parse(position.getLastOrderDate()), null))
+                : toDate == null ? 0 : firstAfter(entries, new OrderEntry(Long.MIN_VALUE, toDate.plusDays(1).atStartOfDay(), null));
+        int end = fromDate == null
+                ? entries.size()
+                : firstAfter(entries, new OrderEntry(Long.MIN_VALUE, fromDate.atStartOfDay(), null));
+
+        int pageEnd = Math.min(end, start + position.getPageSize());
+        List<JsonNode> content = new ArrayList<>(Math.max(pageEnd - start, 0));
+        for (int i = start; i < pageEnd; i++) {
+            content.add(entries.get(i).summary);
+        }
+        boolean hasNext = pageEnd < end;
+        String nextCursor = null;
+        if (hasNext) {
+            OrderEntry last = entries.get(pageEnd - 1);
+            nextCursor = cursorTokenCodec.encode(new OrderHistoryCursor(position.getPageSize(), position.getFrom(),
+                    position.getTo(), last.orderDate.toString(), last.orderId));
+        }
+        return CursorPage.<JsonNode>builder()
+                .content(content)
+                .pageSize(position.getPageSize())
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    @Override
+    public Optional<JsonNode> getOrderDetail(UUID userId, long orderId) {
+        return Optional.ofNullable(index(userId).details.get(orderId));
+    }
+
+    @Override
+    public Set<Long> getOrderIds(UUID userId) {
+        return Set.copyOf(index(userId).details.keySet());
+    }
+
+    @EventListener
+    public void onDeliveryOrderEvent(DeliveryOrderEvent event) {
+        switch (event.getType()) {
+            case CHECKED_OUT -> {
+                if (event.getUserId() != null) {
+                    indexes.invalidate(event.getUserId());
+                }
+            }
+            case ACCEPTED, CANCELLED, SHIPPER_ASSIGNED -> {
+                UUID owner = event.getUserId() != null || event.getOrderId() == null
+                        ? event.getUserId()
+                        : orderDirectoryService.ownerOf(event.getOrderId()).orElse(null);
+                if (owner != null) {
+                    indexes.invalidate(owner);
+                }
+            }
+            default -> {
+                // Location pings do not change the history
+            }
+        }
+    }
+
+    private OrderHistoryCursor decode(String cursor) {
+        OrderHistoryCursor position = cursorTokenCodec.decode(cursor, OrderHistoryCursor.class);
+        // The page size travels in the token, a crafted one must not size the page buffer
+        if (position.getPageSize() < 1 || position.getPageSize() > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid or expired cursor");
+        }
+        return position;
+    }
+
+    private OrderIndex index(UUID userId) {
+        return indexes.get(userId, this::load);
+    }
+
+    private OrderIndex load(UUID userId) {
+        List<JsonNode> rows = responseReader.readContent(responseReader.readData(deliveryOrderService.getOrderHistory(userId)));
+        List<OrderEntry> entries = new ArrayList<>(rows.size());
+        Map<Long, JsonNode> details = new HashMap<>(rows.size() * 2);
+        int withoutId = 0;
+        for (JsonNode row : rows) {
+            DeliveryOrderRow order = responseReader.readRow(row, DeliveryOrderRow.class);
+            if (order.getOrderId() == null) {
+                withoutId++;
+                continue;
+            }
+            LocalDateTime orderDate = ServiceResponseReader.parseDateTime(order.getOrderDate());
+            long orderId = order.getOrderId();
+            // Orders with an unreadable date sort last rather than disappearing from the history
+            entries.add(new OrderEntry(orderId, orderDate != null ? orderDate : LocalDateTime.MIN, summaryOf(row)));
+            details.put(orderId, row);
+            orderDirectoryService.recordOwner(orderId, userId);
+        }
+        if (withoutId > 0) {
+            // Keyset paging and the detail lookup need the id; a renamed field must not look like an empty history
+            log.error("{} of {} history row(s) of user {} carry no order id and are left out, fields seen: {}",
+                    withoutId, rows.size(), userId, fieldNames(rows.get(0)));
+        }
+        entries.sort(NEWEST_FIRST);
+        return new OrderIndex(List.copyOf(entries), details);
+    }
+
+    /**
+     * The order row without its nested detail lists; those are fetched on demand through the detail endpoint.
+     */
+    private static JsonNode summaryOf(JsonNode row) {
+        if (!row.isObject()) {
+            return row;
+        }
+        ObjectNode summary = ((ObjectNode) row).deepCopy();
+        int detailCount = 0;
+        Iterator<Map.Entry<String, JsonNode>> fields = summary.fields();
+        while (fields.hasNext()) {
+            JsonNode value = fields.next().getValue();
+            if (value.isArray()) {
+                detailCount += value.size();
+                fields.remove();
+            } else if (value.isObject()) {
+                fields.remove();
+            }
+        }
+        summary.put("detail_count", detailCount);
+        return summary;
+    }
+
+    // Index of the first entry strictly after the key in newest-first order
+    private static int firstAfter(List<OrderEntry> entries, OrderEntry key) {
+        int low = 0;
+        int high = entries.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (NEWEST_FIRST.compare(entries.get(mid), key) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static List<String> fieldNames(JsonNode row) {
+        List<String> names = new ArrayList<>();
+        row.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    private record OrderEntry(long orderId, LocalDateTime orderDate, JsonNode summary) {
+    }
+
+    private record OrderIndex(List<OrderEntry> entries, Map<Long, JsonNode> details) {
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class OrderHistoryCursor {
+        private int pageSize;
+        private String from;
+        private String to;
+        private String lastOrderDate;
+        private Long lastOrderId;
+    }
+}
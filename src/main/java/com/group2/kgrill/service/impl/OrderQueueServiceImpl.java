@@ -0,0 +1,342 @@
+package com.group2.kgrill.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.group2.kgrill.dto.OrderingRow;
+import com.group2.kgrill.dto.PagedResponse;
+import com.group2.kgrill.event.DeliveryOrderEvent;
+import com.group2.kgrill.service.OrderDirectoryService;
+import com.group2.kgrill.service.OrderQueueService;
+import com.group2.kgrill.util.ServiceResponseReader;
+import com.swd392.group2.kgrill_service.service.DeliveryOrderService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live copy of the manager ordering queue. Orders are kept in submit order (order date, then id) in one sorted set
+ * for the whole queue and one per status, so a page is a walk from the head of a set instead of a sorted query per
+ * manager screen refresh. The queue is loaded on startup and kept current from the delivery order events: checkout
+ * reads the newest orders, accept and cancel set the status in place, and shipper assignment sets the shipper name
+ * in place. The ordering list only shows shipper names, so the name of a shipper is learned from loaded rows whose
+ * shipper the order directory knows; only the first assignment of a shipper not seen yet schedules a resync. A full
+ * resync every {@code kgrill.order-queue.full-resync-minutes} picks up changes made outside this application, such
+ * as deliveries confirmed from the shipper app.
+ */
+@Slf4j
+@Service
+public class OrderQueueServiceImpl implements OrderQueueService {
+
+    private static final String ORDER_ID_FIELD = "Delivery_Order_Id";
+    private static final String ORDER_DATE_FIELD = "Order_date";
+    private static final String ACCEPTED_STATUS = "Preparing";
+    private static final String CANCELLED_STATUS = "Cancelled";
+    private static final int LOAD_PAGE_SIZE = 100;
+    private static final int NEWEST_ORDERS_ON_CHECKOUT = 20;
+    private static final Comparator<QueueEntry> SUBMIT_ORDER = Comparator
+            .comparing(QueueEntry::orderDate)
+            .thenComparingLong(QueueEntry::orderId);
+
+    private final DeliveryOrderService deliveryOrderService;
+    private final ServiceResponseReader responseReader;
+    private final OrderDirectoryService orderDirectoryService;
+    private final long fullResyncNanos;
+    private final Map<Long, String> shipperNames = new ConcurrentHashMap<>();
+
+    private final Object rebuildLock = new Object();
+    private volatile QueueIndex index = new QueueIndex();
+    private volatile boolean ready;
+    private volatile boolean rebuilding;
+    private volatile boolean resyncRequested;
+    private volatile long lastFullResyncAt;
+
+    public OrderQueueServiceImpl(DeliveryOrderService deliveryOrderService,
+                                 ServiceResponseReader responseReader,
+                                 OrderDirectoryService orderDirectoryService,
+                                 @Value("${kgrill.order-queue.full-resync-minutes:5}") long fullResyncMinutes) {
+        this.deliveryOrderService = deliveryOrderService;
+        this.responseReader = responseReader;
+        this.orderDirectoryService = orderDirectoryService;
+        this.fullResyncNanos = TimeUnit.MINUTES.toNanos(fullResyncMinutes);
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public PagedResponse<JsonNode> getQueuePage(String status, int pageNo, int pageSize, String sortBy, String sortDir) {
+        QueueIndex current = index;
+        Bucket bucket = status == null || status.isBlank() ? current.all : current.byStatus.get(statusKey(status));
+        int size = Math.max(pageSize, 1);
+        int page = Math.max(pageNo, 0);
+        if (bucket == null) {
+            return PagedResponse.of(List.of(), page, size);
+        }
+        boolean descending = "desc".equalsIgnoreCase(sortDir);
+        if (!isSubmitOrder(sortBy)) {
+            // Sorting by a display column is rare, sort a copy of the whole bucket instead of keeping another index
+            List<JsonNode> rows = new ArrayList<>(bucket.entries.size());
+            bucket.entries.forEach(entry -> rows.add(entry.row()));
+            Comparator<JsonNode> byField = Comparator.comparing(row -> row.path(sortBy), OrderQueueServiceImpl::compareValues);
+            rows.sort(descending ? byField.reversed() : byField);
+            return PagedResponse.of(rows, page, size);
+        }
+        int total = bucket.size.get();
+        NavigableSet<QueueEntry> ordered = descending ? bucket.entries.descendingSet() : bucket.entries;
+        List<JsonNode> content = new ArrayList<>(size);
+        Iterator<QueueEntry> iterator = ordered.iterator();
+        long skip = (long) page * size;
+        while (iterator.hasNext() && content.size() < size) {
+            QueueEntry entry = iterator.next();
+            if (skip > 0) {
+                skip--;
+            } else {
+                content.add(entry.row());
+            }
+        }
+        int totalPages = (total + size - 1) / size;
+        return PagedResponse.<JsonNode>builder()
+                .content(content)
+                .pageNo(page)
+                .pageSize(size)
+                .totalElements(total)
+                .totalPages(totalPages)
+                .last(page >= totalPages - 1)
+                .build();
+    }
+
+    @Override
+    public Map<String, Integer> getStatusCounts() {
+        Map<String, Integer> counts = new TreeMap<>();
+        index.byStatus.values().forEach(bucket -> {
+            if (bucket.size.get() > 0) {
+                counts.put(bucket.status, bucket.size.get());
+            }
+        });
+        return counts;
+    }
+
+    @Override
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long startedAt = System.nanoTime();
+            rebuilding = true;
+            resyncRequested = false;
+            try {
+                QueueIndex rebuilt = new QueueIndex();
+                for (int pageNo = 0; ; pageNo++) {
+                    JsonNode data = responseReader.readData(deliveryOrderService.getOrderingList(pageNo, LOAD_PAGE_SIZE, "id", "asc"));
+                    List<JsonNode> rows = responseReader.readContent(data);
+                    rows.forEach(row -> {
+                        QueueEntry entry = toEntry(row);
+                        rebuilt.upsert(entry);
+                        learnShipperName(entry);
+                    });
+                    if (rows.isEmpty() || responseReader.isLastPage(data)) {
+                        break;
+                    }
+                }
+                synchronized (this) {
+                    index = rebuilt;
+                }
+                ready = true;
+                lastFullResyncAt = System.nanoTime();
+                log.info("Order queue loaded with {} order(s) in {} ms", rebuilt.all.size.get(), (System.nanoTime() - startedAt) / 1_000_000);
+            } finally {
+                rebuilding = false;
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Initial order queue load failed, the order list is read from the database until the next resync", e);
+        }
+    }
+
+    @EventListener
+    public void onDeliveryOrderEvent(DeliveryOrderEvent event) {
+        if (!ready) {
+            return;
+        }
+        if (rebuilding) {
+            // The reload in progress may have read the order before this change, load it again afterwards
+            resyncRequested = true;
+        }
+        try {
+            switch (event.getType()) {
+                case CHECKED_OUT -> addNewestOrders();
+                case ACCEPTED -> setStatus(event.getOrderId(), ACCEPTED_STATUS);
+                case CANCELLED -> setStatus(event.getOrderId(), CANCELLED_STATUS);
+                case SHIPPER_ASSIGNED -> assignShipper(event.getOrderId(), event.getShipperId());
+                default -> {
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to apply {} of order {} to the order queue, resyncing it", event.getType(), event.getOrderId(), e);
+            resyncRequested = true;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${kgrill.order-queue.resync-check-ms:2000}")
+    public void resyncIfNeeded() {
+        // Coalesces a burst of changes that could not be applied in place into one reload
+        if (resyncRequested || (ready && System.nanoTime() - lastFullResyncAt >= fullResyncNanos)) {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.warn("Order queue resync failed, retrying on the next check", e);
+                resyncRequested = true;
+            }
+        }
+    }
+
+    private void addNewestOrders() {
+        JsonNode data = responseReader.readData(deliveryOrderService.getOrderingList(0, NEWEST_ORDERS_ON_CHECKOUT, "id", "desc"));
+        List<QueueEntry> entries = new ArrayList<>();
+        responseReader.readContent(data).forEach(row -> entries.add(toEntry(row)));
+        synchronized (this) {
+            entries.forEach(index::upsert);
+        }
+        entries.forEach(this::learnShipperName);
+    }
+
+    private synchronized void setStatus(Long orderId, String status) {
+        QueueEntry entry = orderId == null ? null : index.entries.get(orderId);
+        if (entry == null) {
+            resyncRequested = true;
+            return;
+        }
+        ObjectNode row = entry.row().deepCopy();
+        row.put(OrderingRow.STATUS_FIELD, status);
+        index.upsert(new QueueEntry(entry.orderId(), entry.orderDate(), status, row));
+    }
+
+    private synchronized void assignShipper(Long orderId, Long shipperId) {
+        QueueEntry entry = orderId == null ? null : index.entries.get(orderId);
+        String shipperName = shipperId == null ? null : shipperNames.get(shipperId);
+        if (entry == null || shipperName == null) {
+            // The reload shows the name, and the order directory already knows this order's shipper
+            resyncRequested = true;
+            return;
+        }
+        ObjectNode row = entry.row().deepCopy();
+        row.put(OrderingRow.SHIPPER_NAME_FIELD, shipperName);
+        index.upsert(new QueueEntry(entry.orderId(), entry.orderDate(), entry.status(), row));
+    }
+
+    private void learnShipperName(QueueEntry entry) {
+        if (entry.row() == null) {
+            return;
+        }
+        String shipperName = entry.row().path(OrderingRow.SHIPPER_NAME_FIELD).asText("");
+        if (!shipperName.isBlank()) {
+            orderDirectoryService.shipperOf(entry.orderId()).ifPresent(shipperId -> shipperNames.put(shipperId, shipperName));
+        }
+    }
+
+    private QueueEntry toEntry(JsonNode row) {
+        OrderingRow order = responseReader.readRow(row, OrderingRow.class);
+        if (order.getOrderId() == null || !row.isObject()) {
+            // Without the id the row cannot be updated in place, upsert skips it
+            return new QueueEntry(0, LocalDateTime.MIN, "", null);
+        }
+        LocalDateTime orderDate = ServiceResponseReader.parseDateTime(order.getOrderDate());
+        return new QueueEntry(order.getOrderId(), orderDate != null ? orderDate : LocalDateTime.MIN,
+                order.getStatus() == null ? "" : order.getStatus(), (ObjectNode) row);
+    }
+
+    private static boolean isSubmitOrder(String sortBy) {
+        if (sortBy == null || sortBy.isBlank() || sortBy.equalsIgnoreCase("id")) {
+            // Order ids are assigned at checkout, so id order is submit order
+            return true;
+        }
+        return ORDER_DATE_FIELD.equalsIgnoreCase(sortBy) || ORDER_ID_FIELD.equalsIgnoreCase(sortBy);
+    }
+
+    private static int compareValues(JsonNode left, JsonNode right) {
+        if (left.isNumber() && right.isNumber()) {
+            return Double.compare(left.asDouble(), right.asDouble());
+        }
+        return left.asText("").compareToIgnoreCase(right.asText(""));
+    }
+
+    private static String statusKey(String status) {
+        return status.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record QueueEntry(long orderId, LocalDateTime orderDate, String status, ObjectNode row) {
+    }
+
+    private static final class Bucket {
+
+        private final String status;
+        private final ConcurrentSkipListSet<QueueEntry> entries = new ConcurrentSkipListSet<>(SUBMIT_ORDER);
+        private final AtomicInteger size = new AtomicInteger();
+
+        private Bucket(String status) {
+            this.status = status;
+        }
+
+        private void add(QueueEntry entry) {
+            if (entries.add(entry)) {
+                size.incrementAndGet();
+            }
+        }
+
+        private void remove(QueueEntry entry) {
+            if (entries.remove(entry)) {
+                size.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Written under the service lock (or before it is published), read without locking.
+     */
+    private static final class QueueIndex {
+
+        private final Map<Long, QueueEntry> entries = new HashMap<>();
+        private final Bucket all = new Bucket(null);
+        private final Map<String, Bucket> byStatus = new ConcurrentHashMap<>();
+
+        private void upsert(QueueEntry entry) {
+            if (entry.row() == null) {
+                return;
+            }
+            QueueEntry previous = entries.put(entry.orderId(), entry);
+            if (previous != null) {
+                all.remove(previous);
+                Bucket previousBucket = byStatus.get(statusKey(previous.status()));
+                if (previousBucket != null) {
+                    previousBucket.remove(previous);
+                }
+            }
+            all.add(entry);
+            byStatus.computeIfAbsent(statusKey(entry.status()), key -> new Bucket(entry.status())).add(entry);
+        }
+    }
+}
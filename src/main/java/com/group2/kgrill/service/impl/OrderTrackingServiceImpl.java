@@ -0,0 +1,244 @@
+package com.group2.kgrill.service.impl;
+
+import com.group2.kgrill.dto.OrderTrackingMessage;
+import com.group2.kgrill.event.DeliveryOrderEvent;
+import com.group2.kgrill.service.DeliveryLocationService;
+import com.group2.kgrill.service.OrderDirectoryService;
+import com.group2.kgrill.service.OrderHistoryService;
+import com.group2.kgrill.service.OrderTrackingService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Pushes delivery order changes to server-sent-event subscribers. Each subscription is bound to one topic
+ * (an order, a customer, a shipper or the manager feed). Events only name the parties their publisher knew, the
+ * customer and shipper of an order are filled in from the order directory so every topic concerned receives them.
+ * <p>
+ * Every subscriber has its own bounded outbox drained by a virtual thread, so a slow client only blocks its own
+ * sends; a client that lets {@code kgrill.tracking.max-queued-events} pile up is disconnected and can resubscribe.
+ */
+@Slf4j
+@Service
+public class OrderTrackingServiceImpl implements OrderTrackingService {
+
+    private static final String ALL_ORDERS_TOPIC = "manager";
+
+    private final DeliveryLocationService deliveryLocationService;
+    private final OrderDirectoryService orderDirectoryService;
+    private final OrderHistoryService orderHistoryService;
+    private final long emitterTimeoutMs;
+    private final int maxQueuedEvents;
+
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("kgrill-order-tracking-", 0).factory());
+
+    public OrderTrackingServiceImpl(DeliveryLocationService deliveryLocationService,
+                                    OrderDirectoryService orderDirectoryService,
+                                    OrderHistoryService orderHistoryService,
+                                    @Value("${kgrill.tracking.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+                                    @Value("${kgrill.tracking.max-queued-events:64}") int maxQueuedEvents) {
+        this.deliveryLocationService = deliveryLocationService;
+        this.orderDirectoryService = orderDirectoryService;
+        this.orderHistoryService = orderHistoryService;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.maxQueuedEvents = maxQueuedEvents;
+    }
+
+    @Override
+    public SseEmitter subscribeToOrder(long orderId) {
+        return subscribe(orderTopic(orderId));
+    }
+
+    @Override
+    public SseEmitter subscribeToUser(UUID userId) {
+        try {
+            // Orders placed before this process started are only known once the customer's history was read
+            orderHistoryService.getOrderIds(userId).forEach(orderId -> orderDirectoryService.recordOwner(orderId, userId));
+        } catch (RuntimeException e) {
+            log.warn("Could not read the orders of user {}, only orders placed from now on are tracked", userId, e);
+        }
+        return subscribe(userTopic(userId));
+    }
+
+    @Override
+    public SseEmitter subscribeToShipper(long shipperId) {
+        return subscribe(shipperTopic(shipperId));
+    }
+
+    @Override
+    public SseEmitter subscribeToAllOrders() {
+        return subscribe(ALL_ORDERS_TOPIC);
+    }
+
+    @Override
+    public int getSubscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @EventListener
+    public void onDeliveryOrderEvent(DeliveryOrderEvent event) {
+        Long orderId = event.getOrderId();
+        UUID userId = event.getUserId() != null || orderId == null
+                ? event.getUserId()
+                : orderDirectoryService.ownerOf(orderId).orElse(null);
+        Long shipperId = event.getShipperId() != null || orderId == null
+                ? event.getShipperId()
+                : orderDirectoryService.shipperOf(orderId).orElse(null);
+        OrderTrackingMessage message = OrderTrackingMessage.builder()
+                .type(event.getType().name())
+                .orderId(orderId)
+                .userId(userId)
+                .shipperId(shipperId)
+                .location(event.getType() == DeliveryOrderEvent.Type.LOCATION_UPDATED && orderId != null
+                        ? deliveryLocationService.getLatestLocation(orderId).orElse(null)
+                        : null)
+                .timestamp(Instant.now())
+                .build();
+
+        List<String> topics = new ArrayList<>(4);
+        topics.add(ALL_ORDERS_TOPIC);
+        if (orderId != null) {
+            topics.add(orderTopic(orderId));
+        }
+        if (userId != null) {
+            topics.add(userTopic(userId));
+        }
+        if (shipperId != null) {
+            topics.add(shipperTopic(shipperId));
+        }
+        topics.forEach(topic -> publish(topic, () -> SseEmitter.event().name("order-status").data(message, MediaType.APPLICATION_JSON)));
+    }
+
+    @Scheduled(fixedDelayString = "${kgrill.tracking.heartbeat-ms:15000}")
+    public void sendHeartbeats() {
+        // Keeps idle connections open through proxies and detects clients that went away
+        subscribers.keySet().forEach(topic -> publish(topic, () -> SseEmitter.event().comment("heartbeat")));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        subscribers.values().forEach(topicSubscribers -> topicSubscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        subscribers.clear();
+    }
+
+    private SseEmitter subscribe(String topic) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, maxQueuedEvents);
+        subscribers.compute(topic, (key, topicSubscribers) -> {
+            Set<Subscriber> current = topicSubscribers == null ? new CopyOnWriteArraySet<>() : topicSubscribers;
+            current.add(subscriber);
+            return current;
+        });
+        Runnable remove = () -> unsubscribe(topic, subscriber);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+        try {
+            emitter.send(SseEmitter.event().name("subscribed").data(topic));
+        } catch (IOException e) {
+            unsubscribe(topic, subscriber);
+        }
+        return emitter;
+    }
+
+    private void unsubscribe(String topic, Subscriber subscriber) {
+        subscribers.computeIfPresent(topic, (key, topicSubscribers) -> {
+            topicSubscribers.remove(subscriber);
+            return topicSubscribers.isEmpty() ? null : topicSubscribers;
+        });
+    }
+
+    // A builder appends to itself while it is sent, so every subscriber gets its own
+    private void publish(String topic, Supplier<SseEmitter.SseEventBuilder> event) {
+        Set<Subscriber> topicSubscribers = subscribers.get(topic);
+        if (topicSubscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : topicSubscribers) {
+            if (!subscriber.outbox.offer(event.get())) {
+                log.debug("Subscriber of {} fell {} events behind, disconnecting it", topic, maxQueuedEvents);
+                unsubscribe(topic, subscriber);
+                subscriber.emitter.complete();
+                continue;
+            }
+            if (subscriber.draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(() -> drain(topic, subscriber));
+                } catch (RejectedExecutionException e) {
+                    log.debug("Order tracking is shut down, dropping events for {}", topic);
+                    return;
+                }
+            }
+        }
+    }
+
+    // Runs on the subscriber's own virtual thread, at most one at a time per subscriber
+    private void drain(String topic, Subscriber subscriber) {
+        while (true) {
+            SseEmitter.SseEventBuilder event;
+            while ((event = subscriber.outbox.poll()) != null) {
+                try {
+                    subscriber.emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    unsubscribe(topic, subscriber);
+                    subscriber.outbox.clear();
+                    subscriber.emitter.completeWithError(e);
+                    return;
+                }
+            }
+            subscriber.draining.set(false);
+            // An event offered after the last poll but before the flag was cleared found the drain still running
+            if (subscriber.outbox.isEmpty() || !subscriber.draining.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private static String orderTopic(long orderId) {
+        return "order:" + orderId;
+    }
+
+    private static String userTopic(UUID userId) {
+        return "user:" + userId;
+    }
+
+    private static String shipperTopic(long shipperId) {
+        return "shipper:" + shipperId;
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> outbox;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.outbox = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+}
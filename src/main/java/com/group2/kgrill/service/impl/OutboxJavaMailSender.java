@@ -0,0 +1,60 @@
+package com.group2.kgrill.service.impl;
+
+import com.group2.kgrill.service.MailOutboxService;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMailMessage;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+
+/**
+ * The {@link JavaMailSender} every mail-sending service gets injected (activation and resend emails included).
+ * Messages are created by the real transport but only queued in the outbox, so the calling request returns
+ * without waiting on the mail server.
+ */
+@Primary
+@Component
+public class OutboxJavaMailSender implements JavaMailSender {
+
+    private final JavaMailSender mailTransport;
+    private final MailOutboxService mailOutboxService;
+
+    public OutboxJavaMailSender(@Qualifier("mailTransport") JavaMailSender mailTransport, MailOutboxService mailOutboxService) {
+        this.mailTransport = mailTransport;
+        this.mailOutboxService = mailOutboxService;
+    }
+
+    @Override
+    public MimeMessage createMimeMessage() {
+        return mailTransport.createMimeMessage();
+    }
+
+    @Override
+    public MimeMessage createMimeMessage(InputStream contentStream) throws MailException {
+        return mailTransport.createMimeMessage(contentStream);
+    }
+
+    @Override
+    public void send(MimeMessage... mimeMessages) throws MailException {
+        for (MimeMessage mimeMessage : mimeMessages) {
+            if (!mailOutboxService.enqueue(mimeMessage)) {
+                throw new MailSendException("Mail outbox is full, message was not queued");
+            }
+        }
+    }
+
+    @Override
+    public void send(SimpleMailMessage... simpleMessages) throws MailException {
+        for (SimpleMailMessage simpleMessage : simpleMessages) {
+            MimeMessage mimeMessage = createMimeMessage();
+            simpleMessage.copyTo(new MimeMailMessage(mimeMessage));
+            send(mimeMessage);
+        }
+    }
+}
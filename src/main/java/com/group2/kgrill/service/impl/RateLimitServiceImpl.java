@@ -0,0 +1,144 @@
+package com.group2.kgrill.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.group2.kgrill.dto.RateLimitStats;
+import com.group2.kgrill.service.RateLimitService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory token buckets for the authentication endpoints. Each policy keeps its buckets in a Caffeine cache
+ * bounded by {@code kgrill.rate-limit.max-buckets} that expires a bucket once it has been idle long enough to refill
+ * from empty; such a bucket is indistinguishable from a missing one, so no state is lost. When more callers than
+ * the bound are active the least valuable bucket is evicted by the cache, never by a scan on the request path.
+ * Limits are read from {@code kgrill.rate-limit.<policy>.capacity|refill-tokens|refill-period-seconds}.
+ */
+@Service
+public class RateLimitServiceImpl implements RateLimitService {
+
+    private final Map<Policy, Limiter> limiters = new EnumMap<>(Policy.class);
+
+    public RateLimitServiceImpl(Environment environment,
+                                @Value("${kgrill.rate-limit.max-buckets:65536}") int maxBuckets) {
+        for (Policy policy : Policy.values()) {
+            String prefix = "kgrill.rate-limit." + policy.getPropertyName() + ".";
+            limiters.put(policy, new Limiter(policy,
+                    environment.getProperty(prefix + "capacity", Integer.class, policy.getDefaultCapacity()),
+                    environment.getProperty(prefix + "refill-tokens", Integer.class, policy.getDefaultRefillTokens()),
+                    environment.getProperty(prefix + "refill-period-seconds", Long.class, policy.getDefaultRefillPeriodSeconds()),
+                    maxBuckets));
+        }
+    }
+
+    @Override
+    public Decision tryAcquire(Policy policy, String key) {
+        return limiters.get(policy).tryAcquire(key);
+    }
+
+    @Override
+    public Decision tryAcquire(Policy ipPolicy, String ip, Policy accountPolicy, String account) {
+        Decision decision = tryAcquire(ipPolicy, ip);
+        if (!decision.allowed() || account == null || account.isBlank()) {
+            return decision;
+        }
+        return tryAcquire(accountPolicy, account);
+    }
+
+    @Override
+    public List<RateLimitStats> getStats() {
+        List<RateLimitStats> stats = new ArrayList<>(limiters.size());
+        limiters.values().forEach(limiter -> stats.add(limiter.stats()));
+        return stats;
+    }
+
+    @Scheduled(fixedDelayString = "${kgrill.rate-limit.sweep-ms:30000}")
+    public void evictIdleBuckets() {
+        // Expired buckets are otherwise only dropped as a side effect of later requests
+        limiters.values().forEach(limiter -> limiter.buckets.cleanUp());
+    }
+
+    private static final class Limiter {
+
+        private final Policy policy;
+        private final int capacity;
+        private final int refillTokens;
+        private final long refillPeriodSeconds;
+        private final double tokensPerNano;
+        private final Cache<String, Bucket> buckets;
+        private final LongAdder allowed = new LongAdder();
+        private final LongAdder throttled = new LongAdder();
+
+        private Limiter(Policy policy, int capacity, int refillTokens, long refillPeriodSeconds, int maxBuckets) {
+            this.policy = policy;
+            this.capacity = capacity;
+            this.refillTokens = refillTokens;
+            this.refillPeriodSeconds = refillPeriodSeconds;
+            this.tokensPerNano = (double) refillTokens / TimeUnit.SECONDS.toNanos(refillPeriodSeconds);
+            // A bucket idle long enough to refill from empty is certainly full again
+            long nanosToFill = (long) Math.ceil(capacity / tokensPerNano);
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maxBuckets)
+                    .expireAfterAccess(Duration.ofNanos(nanosToFill))
+                    .build();
+        }
+
+        private Decision tryAcquire(String key) {
+            long now = System.nanoTime();
+            Bucket bucket = buckets.get(key, k -> new Bucket(capacity, now));
+            long waitNanos = bucket.tryConsume(now, capacity, tokensPerNano);
+            if (waitNanos == 0) {
+                allowed.increment();
+                return Decision.ALLOWED;
+            }
+            throttled.increment();
+            return new Decision(false, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+        }
+
+        private RateLimitStats stats() {
+            return RateLimitStats.builder()
+                    .policy(policy.name())
+                    .capacity(capacity)
+                    .refillTokens(refillTokens)
+                    .refillPeriodSeconds(refillPeriodSeconds)
+                    .allowed(allowed.sum())
+                    .throttled(throttled.sum())
+                    .activeBuckets(buckets.estimatedSize())
+                    .build();
+        }
+    }
+
+    private static final class Bucket {
+
+        private double tokens;
+        private long updatedAt;
+
+        private Bucket(int capacity, long now) {
+            this.tokens = capacity;
+            this.updatedAt = now;
+        }
+
+        /**
+         * @return 0 when a token was taken, otherwise the nanoseconds until one is available
+         */
+        private synchronized long tryConsume(long now, int capacity, double tokensPerNano) {
+            tokens = Math.min(capacity, tokens + (now - updatedAt) * tokensPerNano);
+            updatedAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / tokensPerNano);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.group2.kgrill.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group2.kgrill.service.RevenueDetailExportService;
+import com.group2.kgrill.util.ServiceResponseReader;
+import com.swd392.group2.kgrill_service.service.DeliveryOrderService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.StringJoiner;
+
+@Service
+@RequiredArgsConstructor
+public class RevenueDetailExportServiceImpl implements RevenueDetailExportService {
+
+    private static final int EXPORT_PAGE_SIZE = 500;
+    private static final String[] CSV_COLUMNS = {
+            "Delivery_order_id", "User_name", "Package_name", "Delivery_order_status",
+            "Delivery_order_date", "Delivery_shipped_date", "Shipper_name", "Delivery_order_value"
+    };
+
+    private final DeliveryOrderService deliveryOrderService;
+    private final ServiceResponseReader responseReader;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void exportRevenueDetails(OutputStream outputStream, ExportFormat format, String period, LocalDate date) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        if (format == ExportFormat.CSV) {
+            writer.write(String.join(",", CSV_COLUMNS));
+            writer.write('\n');
+        }
+
+        int pageNo = 0;
+        JsonNode data;
+        List<JsonNode> rows;
+        do {
+            data = responseReader.readData(deliveryOrderService.getDeliveryOrderDetailByAdmin(
+                    pageNo++, EXPORT_PAGE_SIZE, "orderDate", "asc", period, date));
+            rows = responseReader.readContent(data);
+            for (JsonNode row : rows) {
+                if (format == ExportFormat.CSV) {
+                    writer.write(toCsvLine(row));
+                } else {
+                    generator.writeTree(row);
+                    generator.flush();
+                }
+                writer.write('\n');
+            }
+            // Push every page to the client so the export never holds more than one page in memory
+            writer.flush();
+        } while (!responseReader.isLastPage(data) && !rows.isEmpty());
+
+        generator.close();
+        writer.flush();
+    }
+
+    private static String toCsvLine(JsonNode row) {
+        StringJoiner line = new StringJoiner(",");
+        for (String column : CSV_COLUMNS) {
+            JsonNode value = row.path(column);
+            if (value.isArray()) {
+                StringJoiner values = new StringJoiner(" | ");
+                value.forEach(item -> values.add(item.asText()));
+                line.add(escapeCsv(values.toString()));
+            } else {
+                line.add(value.isMissingNode() || value.isNull() ? "" : escapeCsv(value.asText()));
+            }
+        }
+        return line.toString();
+    }
+
+    private static String escapeCsv(String value) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
@@ -0,0 +1,406 @@
+package com.group2.kgrill.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.group2.kgrill.dto.PagedResponse;
+import com.group2.kgrill.dto.RevenueByPeriodDTO;
+import com.group2.kgrill.event.DeliveryOrderEvent;
+import com.group2.kgrill.service.RevenueRollupService;
+import com.group2.kgrill.util.ServiceResponseReader;
+import com.swd392.group2.kgrill_service.service.DeliveryOrderService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.http.HttpStatus;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * Keeps per-day revenue buckets in memory and derives weekly, monthly and yearly buckets from them.
+ * Order events only mark the affected day as dirty; the day is then re-aggregated on its own instead of
+ * re-scanning the whole order history. A full rebuild runs at startup and nightly to repair drift; a request that
+ * arrives before the startup build finished waits for it, so every response has the same shape and labels.
+ * Revenue is summed as {@link BigDecimal} so the +/- deltas of day replacements cancel out exactly.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RevenueRollupServiceImpl implements RevenueRollupService {
+
+    private static final String DELIVERED = "Delivered";
+    private static final String CANCELLED = "Cancelled";
+    private static final int SCAN_PAGE_SIZE = 200;
+
+    private final DeliveryOrderService deliveryOrderService;
+    private final ServiceResponseReader responseReader;
+
+    private final Set<LocalDate> dirtyDays = ConcurrentHashMap.newKeySet();
+    private final Map<Long, LocalDate> orderDays = new ConcurrentHashMap<>();
+    private final Object stateLock = new Object();
+    private volatile RollupState state;
+    // Days refreshed or marked while a rebuild scans; they are refreshed again on top of the rebuilt state
+    private volatile Set<LocalDate> changedDuringRebuild;
+
+    @Override
+    public PagedResponse<RevenueByPeriodDTO> getRevenueByPeriod(int pageNo, int pageSize, String sortBy, String sortDir,
+                                                                String period, LocalDate date) {
+        RollupState current = state != null ? state : buildOnDemand();
+        Period rollupPeriod = Period.from(period);
+        String cutoff = rollupPeriod.label(date);
+        SortKey sortKey = SortKey.from(sortBy);
+        List<RevenueByPeriodDTO> sorted = current.view(rollupPeriod, sortKey);
+
+        List<RevenueByPeriodDTO> rows;
+        if (sortKey == SortKey.ORDER_DATE) {
+            rows = sorted.subList(0, countUpTo(sorted, cutoff));
+        } else if (current.isAfterLastLabel(rollupPeriod, cutoff)) {
+            // The usual request asks up to today, which covers every bucket
+            rows = sorted;
+        } else {
+            rows = sorted.stream().filter(row -> row.getOrderDate().compareTo(cutoff) <= 0).toList();
+        }
+        return PagedResponse.of("desc".equalsIgnoreCase(sortDir) ? rows.reversed() : rows, pageNo, pageSize);
+    }
+
+    @Override
+    public void markOrderChanged(Long orderId) {
+        LocalDate day = orderId == null ? null : orderDays.get(orderId);
+        markDirty(day != null ? day : LocalDate.now());
+    }
+
+    private void markDirty(LocalDate day) {
+        dirtyDays.add(day);
+        Set<LocalDate> changed = changedDuringRebuild;
+        if (changed != null) {
+            changed.add(day);
+        }
+    }
+
+    @EventListener
+    public void onDeliveryOrderEvent(DeliveryOrderEvent event) {
+        switch (event.getType()) {
+            case CHECKED_OUT, ACCEPTED, CANCELLED -> markOrderChanged(event.getOrderId());
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${kgrill.revenue-rollup.refresh-delay-ms:5000}")
+    public void refreshDirtyDays() {
+        if (state == null || dirtyDays.isEmpty()) {
+            return;
+        }
+        for (LocalDate day : List.copyOf(dirtyDays)) {
+            dirtyDays.remove(day);
+            try {
+                Bucket bucket = new Bucket();
+                scanOrders("daily", day, row -> {
+                    LocalDateTime orderDate = ServiceResponseReader.parseDateTime(row.path("Delivery_order_date").asText(null));
+                    if (orderDate != null && orderDate.toLocalDate().equals(day)) {
+                        bucket.add(row);
+                        orderDays.put(row.path("Delivery_order_id").asLong(), day);
+                    }
+                });
+                replaceDay(day, bucket);
+            } catch (RuntimeException e) {
+                log.warn("Failed to refresh revenue rollup for {}, will retry", day, e);
+                markDirty(day);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Initial revenue rollup build failed, the next /admin/revenue request retries it", e);
+        }
+    }
+
+    // Synchronized with rebuild(): waiters find the state built by the request or startup build ahead of them
+    private synchronized RollupState buildOnDemand() {
+        if (state == null) {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.error("Revenue rollup build failed", e);
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Revenue is not available yet");
+            }
+        }
+        return state;
+    }
+
+    @Override
+    @Scheduled(cron = "${kgrill.revenue-rollup.rebuild-cron:0 0 3 * * *}")
+    public synchronized void rebuild() {
+        long startedAt = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+        Map<LocalDate, Bucket> days = new HashMap<>();
+        Map<Long, LocalDate> rebuiltOrderDays = new HashMap<>();
+        Set<LocalDate> changed = ConcurrentHashMap.newKeySet();
+        changedDuringRebuild = changed;
+
+        try {
+            for (YearMonth month : findMonthsWithOrders(today)) {
+                scanOrders("monthly", month.atDay(1), row -> {
+                    LocalDateTime orderDate = ServiceResponseReader.parseDateTime(row.path("Delivery_order_date").asText(null));
+                    if (orderDate == null || !YearMonth.from(orderDate).equals(month)) {
+                        return;
+                    }
+                    LocalDate day = orderDate.toLocalDate();
+                    days.computeIfAbsent(day, d -> new Bucket()).add(row);
+                    rebuiltOrderDays.put(row.path("Delivery_order_id").asLong(), day);
+                });
+            }
+
+            RollupState rebuilt = new RollupState();
+            days.forEach(rebuilt::replaceDay);
+            synchronized (stateLock) {
+                orderDays.putAll(rebuiltOrderDays);
+                state = rebuilt;
+            }
+        } finally {
+            changedDuringRebuild = null;
+            // A refresh applied to the old state while the scan ran may be newer than what the scan saw
+            dirtyDays.addAll(changed);
+        }
+        log.info("Revenue rollup rebuilt: {} days, {} orders in {} ms",
+                days.size(), rebuiltOrderDays.size(), System.currentTimeMillis() - startedAt);
+    }
+
+    private void replaceDay(LocalDate day, Bucket bucket) {
+        synchronized (stateLock) {
+            RollupState current = state;
+            if (current != null) {
+                current.replaceDay(day, bucket);
+            }
+            Set<LocalDate> changed = changedDuringRebuild;
+            if (changed != null) {
+                changed.add(day);
+            }
+        }
+    }
+
+    private static int countUpTo(List<RevenueByPeriodDTO> sortedByLabel, String cutoff) {
+        int low = 0;
+        int high = sortedByLabel.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedByLabel.get(middle).getOrderDate().compareTo(cutoff) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private List<YearMonth> findMonthsWithOrders(LocalDate today) {
+        List<YearMonth> months = new ArrayList<>();
+        int pageNo = 0;
+        JsonNode data;
+        do {
+            data = responseReader.readData(deliveryOrderService.getRevenueByPeriod(
+                    pageNo++, SCAN_PAGE_SIZE, "orderDate", "asc", "monthly", today.plusDays(1)));
+            for (JsonNode row : responseReader.readContent(data)) {
+                String label = row.path("order_date").asText("");
+                if (label.length() >= 7) {
+                    months.add(YearMonth.parse(label.substring(0, 7)));
+                }
+            }
+        } while (!responseReader.isLastPage(data) && !responseReader.readContent(data).isEmpty());
+        return months;
+    }
+
+    private void scanOrders(String period, LocalDate date, Consumer<JsonNode> consumer) {
+        int pageNo = 0;
+        JsonNode data;
+        List<JsonNode> rows;
+        do {
+            data = responseReader.readData(deliveryOrderService.getDeliveryOrderDetailByAdmin(
+                    pageNo++, SCAN_PAGE_SIZE, "orderDate", "asc", period, date));
+            rows = responseReader.readContent(data);
+            rows.forEach(consumer);
+        } while (!responseReader.isLastPage(data) && !rows.isEmpty());
+    }
+
+    private enum SortKey {
+        ORDER_DATE(Comparator.comparing(RevenueByPeriodDTO::getOrderDate)),
+        TOTAL_REVENUE(Comparator.comparing(RevenueByPeriodDTO::getTotalRevenue)),
+        COMPLETED_ORDER(Comparator.comparing(RevenueByPeriodDTO::getCompletedOrder)),
+        CANCELLED_ORDER(Comparator.comparing(RevenueByPeriodDTO::getCancelledOrder)),
+        TOTAL_ORDER_NUMBER(Comparator.comparingLong(RevenueByPeriodDTO::getTotalOrderNumber));
+
+        private final Comparator<RevenueByPeriodDTO> comparator;
+
+        SortKey(Comparator<RevenueByPeriodDTO> comparator) {
+            this.comparator = comparator;
+        }
+
+        static SortKey from(String sortBy) {
+            if (sortBy == null) {
+                return ORDER_DATE;
+            }
+            return switch (sortBy) {
+                case "totalRevenue" -> TOTAL_REVENUE;
+                case "completedOrder" -> COMPLETED_ORDER;
+                case "cancelledOrder" -> CANCELLED_ORDER;
+                case "totalOrderNumber" -> TOTAL_ORDER_NUMBER;
+                default -> ORDER_DATE;
+            };
+        }
+    }
+
+    private enum Period {
+        DAILY, WEEKLY, MONTHLY, YEARLY;
+
+        static Period from(String value) {
+            if (value == null) {
+                return DAILY;
+            }
+            return switch (value.toLowerCase()) {
+                case "weekly" -> WEEKLY;
+                case "monthly" -> MONTHLY;
+                case "yearly" -> YEARLY;
+                default -> DAILY;
+            };
+        }
+
+        String label(LocalDate day) {
+            return switch (this) {
+                case DAILY -> day.toString();
+                case WEEKLY -> String.format("%d-W%02d",
+                        day.get(IsoFields.WEEK_BASED_YEAR), day.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+                case MONTHLY -> YearMonth.from(day).toString();
+                case YEARLY -> String.valueOf(day.getYear());
+            };
+        }
+    }
+
+    private static final class RollupState {
+
+        private final Map<LocalDate, Bucket> days = new ConcurrentHashMap<>();
+        private final Map<Period, ConcurrentSkipListMap<String, Bucket>> periods = new EnumMap<>(Period.class);
+        // Sorted rows per period and sort key, built on first read and dropped on every change
+        private volatile Map<String, List<RevenueByPeriodDTO>> views = new ConcurrentHashMap<>();
+
+        private RollupState() {
+            for (Period period : Period.values()) {
+                periods.put(period, new ConcurrentSkipListMap<>());
+            }
+        }
+
+        private List<RevenueByPeriodDTO> view(Period period, SortKey sortKey) {
+            // Capture the map first: a view built from data older than a concurrent change lands in the dropped map
+            Map<String, List<RevenueByPeriodDTO>> current = views;
+            return current.computeIfAbsent(period + "/" + sortKey, key -> {
+                List<RevenueByPeriodDTO> rows = new ArrayList<>();
+                periods.get(period).forEach((label, bucket) -> rows.add(bucket.toDto(label)));
+                if (sortKey != SortKey.ORDER_DATE) {
+                    rows.sort(sortKey.comparator);
+                }
+                return List.copyOf(rows);
+            });
+        }
+
+        private boolean isAfterLastLabel(Period period, String cutoff) {
+            ConcurrentSkipListMap<String, Bucket> buckets = periods.get(period);
+            return buckets.isEmpty() || buckets.lastKey().compareTo(cutoff) <= 0;
+        }
+
+        private void replaceDay(LocalDate day, Bucket bucket) {
+            Bucket previous = days.put(day, bucket);
+            for (Period period : Period.values()) {
+                periods.get(period).compute(period.label(day), (label, existing) -> {
+                    Bucket updated = (existing == null ? new Bucket() : existing.copy()).plus(bucket, 1);
+                    if (previous != null) {
+                        updated.plus(previous, -1);
+                    }
+                    return updated.totalOrders == 0 ? null : updated;
+                });
+            }
+            views = new ConcurrentHashMap<>();
+        }
+    }
+
+    private static final class Bucket {
+
+        private long totalOrders;
+        private long completedOrders;
+        private long cancelledOrders;
+        private BigDecimal totalRevenue = BigDecimal.ZERO;
+        private BigDecimal completedRevenue = BigDecimal.ZERO;
+        private BigDecimal cancelledRevenue = BigDecimal.ZERO;
+
+        private void add(JsonNode row) {
+            String status = row.path("Delivery_order_status").asText("");
+            BigDecimal value = money(row.path("Delivery_order_value"));
+            totalOrders++;
+            totalRevenue = totalRevenue.add(value);
+            if (DELIVERED.equalsIgnoreCase(status)) {
+                completedOrders++;
+                completedRevenue = completedRevenue.add(value);
+            } else if (CANCELLED.equalsIgnoreCase(status)) {
+                cancelledOrders++;
+                cancelledRevenue = cancelledRevenue.add(value);
+            }
+        }
+
+        private Bucket plus(Bucket other, int sign) {
+            totalOrders += sign * other.totalOrders;
+            completedOrders += sign * other.completedOrders;
+            cancelledOrders += sign * other.cancelledOrders;
+            totalRevenue = sign > 0 ? totalRevenue.add(other.totalRevenue) : totalRevenue.subtract(other.totalRevenue);
+            completedRevenue = sign > 0 ? completedRevenue.add(other.completedRevenue) : completedRevenue.subtract(other.completedRevenue);
+            cancelledRevenue = sign > 0 ? cancelledRevenue.add(other.cancelledRevenue) : cancelledRevenue.subtract(other.cancelledRevenue);
+            return this;
+        }
+
+        // Numbers are taken by their decimal text, so 0.1 is summed as 0.1 and not as its nearest double
+        private static BigDecimal money(JsonNode value) {
+            if (value.isNumber()) {
+                return value.decimalValue();
+            }
+            try {
+                return new BigDecimal(value.asText("0"));
+            } catch (NumberFormatException e) {
+                return BigDecimal.ZERO;
+            }
+        }
+
+        private Bucket copy() {
+            return new Bucket().plus(this, 1);
+        }
+
+        private RevenueByPeriodDTO toDto(String label) {
+            return RevenueByPeriodDTO.builder()
+                    .orderDate(label)
+                    .totalOrderNumber(totalOrders)
+                    .completedNumber(completedOrders)
+                    .cancelledNumber(cancelledOrders)
+                    .totalRevenue(totalRevenue)
+                    .completedOrder(completedRevenue)
+                    .cancelledOrder(cancelledRevenue)
+                    .build();
+        }
+    }
+}
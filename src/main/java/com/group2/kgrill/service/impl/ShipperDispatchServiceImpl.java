@@ -0,0 +1,194 @@
+package com.group2.kgrill.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.group2.kgrill.dto.GeoPoint;
+import com.group2.kgrill.dto.ShipperRow;
+import com.group2.kgrill.event.DeliveryOrderEvent;
+import com.group2.kgrill.service.DeliveryLocationService;
+import com.group2.kgrill.service.ShipperDispatchService;
+import com.group2.kgrill.util.ServiceResponseReader;
+import com.swd392.group2.kgrill_service.service.ShipperService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory shipper availability registry. A shipper is claimed for an order with an atomic
+ * compare-and-set on the registry before the assignment is persisted, so two managers can never
+ * hand the same shipper (or the same order) out twice, and a lost race costs no database round trip.
+ * The order is only locked while its assignment is being persisted; the shipper stays claimed until the
+ * order is reassigned or cancelled, or the database reports the shipper available again.
+ */
+@Slf4j
+@Service
+public class ShipperDispatchServiceImpl implements ShipperDispatchService {
+
+    private static final int SYNC_PAGE_SIZE = 200;
+    private static final int AUTO_ASSIGN_ATTEMPTS = 5;
+
+    private final ShipperService shipperService;
+    private final DeliveryLocationService deliveryLocationService;
+    private final ServiceResponseReader responseReader;
+    private final Duration claimGracePeriod;
+
+    private final Map<Long, Claim> shipperClaims = new ConcurrentHashMap<>();
+    private final Map<Long, Long> orderClaims = new ConcurrentHashMap<>();
+    private final Map<Long, Long> assignedShippers = new ConcurrentHashMap<>();
+    private final Map<Long, GeoPoint> shipperLocations = new ConcurrentHashMap<>();
+    private volatile Set<Long> availableShippers = Set.of();
+
+    public ShipperDispatchServiceImpl(ShipperService shipperService,
+                                      DeliveryLocationService deliveryLocationService,
+                                      ServiceResponseReader responseReader,
+                                      @Value("${kgrill.dispatch.claim-grace-seconds:120}") long claimGraceSeconds) {
+        this.shipperService = shipperService;
+        this.deliveryLocationService = deliveryLocationService;
+        this.responseReader = responseReader;
+        this.claimGracePeriod = Duration.ofSeconds(claimGraceSeconds);
+    }
+
+    @Override
+    public AssignmentResult assignShipper(long shipperId, long orderId) {
+        if (orderClaims.putIfAbsent(orderId, shipperId) != null) {
+            return AssignmentResult.ORDER_ALREADY_ASSIGNED;
+        }
+        Claim claim = new Claim(orderId, Instant.now());
+        if (shipperClaims.putIfAbsent(shipperId, claim) != null) {
+            orderClaims.remove(orderId, shipperId);
+            return AssignmentResult.SHIPPER_BUSY;
+        }
+
+        boolean assigned = false;
+        try {
+            assigned = shipperService.assignShipperToOrder(shipperId, orderId);
+            if (assigned) {
+                // A reassignment frees the shipper the order had before
+                Long previous = assignedShippers.put(orderId, shipperId);
+                if (previous != null && previous != shipperId) {
+                    releaseShipper(previous, orderId);
+                }
+            }
+            return assigned ? AssignmentResult.ASSIGNED : AssignmentResult.REJECTED;
+        } finally {
+            if (!assigned) {
+                shipperClaims.remove(shipperId, claim);
+            }
+            // The outcome is persisted (or failed), the order may be assigned again
+            orderClaims.remove(orderId, shipperId);
+        }
+    }
+
+    @Override
+    public Optional<Long> autoAssign(long orderId, GeoPoint destination) {
+        if (destination == null) {
+            destination = deliveryLocationService.getLatestLocation(orderId)
+                    .flatMap(latest -> GeoPoint.from(responseReader.readData(latest.location())))
+                    .orElse(null);
+            if (destination == null) {
+                return Optional.empty();
+            }
+        }
+        GeoPoint target = destination;
+        List<Long> candidates = shipperLocations.entrySet().stream()
+                .filter(entry -> availableShippers.contains(entry.getKey()) && !shipperClaims.containsKey(entry.getKey()))
+                .sorted(Comparator.comparingDouble(entry -> entry.getValue().distanceKm(target)))
+                .limit(AUTO_ASSIGN_ATTEMPTS)
+                .map(Map.Entry::getKey)
+                .toList();
+
+        for (Long shipperId : candidates) {
+            AssignmentResult result = assignShipper(shipperId, orderId);
+            if (result == AssignmentResult.ASSIGNED) {
+                return Optional.of(shipperId);
+            }
+            if (result == AssignmentResult.ORDER_ALREADY_ASSIGNED) {
+                return Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void updateShipperLocation(long shipperId, GeoPoint location) {
+        shipperLocations.put(shipperId, location);
+    }
+
+    @Override
+    public void releaseOrder(long orderId) {
+        Long shipperId = assignedShippers.remove(orderId);
+        if (shipperId != null) {
+            releaseShipper(shipperId, orderId);
+        }
+    }
+
+    @EventListener
+    public void onDeliveryOrderEvent(DeliveryOrderEvent event) {
+        if (event.getType() == DeliveryOrderEvent.Type.CANCELLED && event.getOrderId() != null) {
+            releaseOrder(event.getOrderId());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void synchronizeOnStartup() {
+        try {
+            synchronizeWithDatabase();
+        } catch (RuntimeException e) {
+            log.warn("Initial shipper registry synchronization failed", e);
+        }
+    }
+
+    /**
+     * Frees claims of shippers the database reports as available again (delivered orders), once the
+     * claim is older than the grace period so an assignment that is still being committed is not undone.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${kgrill.dispatch.sync-delay-ms:60000}")
+    public void synchronizeWithDatabase() {
+        Set<Long> available = new HashSet<>();
+        int pageNo = 1;
+        JsonNode data;
+        List<JsonNode> rows;
+        do {
+            data = responseReader.readData(shipperService.getAvailableShipperList(pageNo++, SYNC_PAGE_SIZE, "id", "asc"));
+            rows = responseReader.readContent(data);
+            for (JsonNode row : rows) {
+                Long shipperId = responseReader.readRow(row, ShipperRow.class).getShipperId();
+                if (shipperId != null) {
+                    available.add(shipperId);
+                }
+            }
+        } while (!responseReader.isLastPage(data) && !rows.isEmpty());
+
+        Instant expiry = Instant.now().minus(claimGracePeriod);
+        for (Long shipperId : available) {
+            shipperClaims.computeIfPresent(shipperId, (id, claim) -> {
+                if (claim.claimedAt.isBefore(expiry)) {
+                    assignedShippers.remove(claim.orderId, id);
+                    return null;
+                }
+                return claim;
+            });
+        }
+        availableShippers = Set.copyOf(available);
+    }
+
+    private void releaseShipper(long shipperId, long orderId) {
+        shipperClaims.computeIfPresent(shipperId, (id, claim) -> claim.orderId == orderId ? null : claim);
+    }
+
+    private record Claim(long orderId, Instant claimedAt) {
+    }
+}
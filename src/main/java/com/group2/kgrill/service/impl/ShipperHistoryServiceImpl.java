@@ -0,0 +1,274 @@
+package com.group2.kgrill.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.group2.kgrill.dto.DeliveryOrderRow;
+import com.group2.kgrill.dto.ShipperDeliveryStats;
+import com.group2.kgrill.dto.ShipperHistoryPage;
+import com.group2.kgrill.event.DeliveryOrderEvent;
+import com.group2.kgrill.service.ShipperHistoryService;
+import com.group2.kgrill.util.CursorTokenCodec;
+import com.group2.kgrill.util.ServiceResponseReader;
+import com.swd392.group2.kgrill_service.service.DeliveryOrderService;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Keeps each active shipper's delivered orders in a newest-first skip list keyed by (delivery date, order id) with
+ * delivery and order value counters next to it. A refresh reads the history from the service layer and upserts each
+ * row: orders that reached the delivered status are added or replaced, orders that left it (or the history) are
+ * removed, so the counters are adjusted per changed order and never recomputed from the full list. Pages are keyset
+ * ranges after the cursor. An index is refreshed at most every {@code kgrill.shipper-history.refresh-seconds}, or on
+ * the next read after the shipper got an order.
+ * <p>
+ * The {@code since} sync token is not a delivery date: a row without a shipped date is dated by its order date,
+ * which can lie before deliveries already handed out. Every delivery instead records the refresh that first indexed
+ * it, on a clock that only moves forward, and the token marks the latest refresh the app has seen.
+ */
+@Service
+public class ShipperHistoryServiceImpl implements ShipperHistoryService {
+
+    private static final String DELIVERED = "Delivered";
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final DeliveryOrderService deliveryOrderService;
+    private final ServiceResponseReader responseReader;
+    private final CursorTokenCodec cursorTokenCodec;
+    private final long refreshNanos;
+
+    private final Cache<Integer, ShipperHistory> histories;
+
+    public ShipperHistoryServiceImpl(DeliveryOrderService deliveryOrderService,
+                                     ServiceResponseReader responseReader,
+                                     CursorTokenCodec cursorTokenCodec,
+                                     @Value("${kgrill.shipper-history.max-shippers:2000}") long maxShippers,
+                                     @Value("${kgrill.shipper-history.refresh-seconds:60}") long refreshSeconds,
+                                     @Value("${kgrill.shipper-history.idle-minutes:60}") long idleMinutes) {
+        this.deliveryOrderService = deliveryOrderService;
+        this.responseReader = responseReader;
+        this.cursorTokenCodec = cursorTokenCodec;
+        this.refreshNanos = Duration.ofSeconds(refreshSeconds).toNanos();
+        this.histories = Caffeine.newBuilder()
+                .maximumSize(maxShippers)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .build();
+    }
+
+    @Override
+    public ShipperHistoryPage getHistoryPage(int shipperId, String cursor, String since, int pageSize) {
+        HistoryCursor position = cursor == null || cursor.isBlank()
+                ? new HistoryCursor(Math.min(Math.max(pageSize, 1), MAX_PAGE_SIZE), null)
+                : decode(cursor);
+        long sinceRecordedAt = since == null || since.isBlank() ? 0 : cursorTokenCodec.decode(since, SyncToken.class).getRecordedAt();
+
+        ShipperHistory history = refreshed(shipperId);
+        // Read before walking the range so a concurrent refresh can at worst resend a delivery, never skip one
+        long recordedAt = Math.max(history.recordedAt, sinceRecordedAt);
+        NavigableMap<HistoryKey, JsonNode> range = history.deliveries;
+        if (position.getAfter() != null) {
+            range = range.tailMap(position.getAfter(), false);
+        }
+
+        List<JsonNode> content = new ArrayList<>(position.getPageSize());
+        HistoryKey last = null;
+        boolean hasNext = false;
+        for (Map.Entry<HistoryKey, JsonNode> entry : range.entrySet()) {
+            Delivery delivery = history.orders.get(entry.getKey().getOrderId());
+            if (delivery == null || delivery.recordedAt() <= sinceRecordedAt) {
+                continue;
+            }
+            if (content.size() == position.getPageSize()) {
+                hasNext = true;
+                break;
+            }
+            content.add(entry.getValue());
+            last = entry.getKey();
+        }
+        return ShipperHistoryPage.builder()
+                .content(content)
+                .pageSize(position.getPageSize())
+                .nextCursor(hasNext ? cursorTokenCodec.encode(new HistoryCursor(position.getPageSize(), last)) : null)
+                .hasNext(hasNext)
+                .syncToken(recordedAt == 0 ? null : cursorTokenCodec.encode(new SyncToken(recordedAt)))
+                .stats(history.stats(shipperId))
+                .build();
+    }
+
+    @Override
+    public ShipperDeliveryStats getStats(int shipperId) {
+        return refreshed(shipperId).stats(shipperId);
+    }
+
+    @EventListener
+    public void onDeliveryOrderEvent(DeliveryOrderEvent event) {
+        if (event.getType() == DeliveryOrderEvent.Type.SHIPPER_ASSIGNED && event.getShipperId() != null) {
+            ShipperHistory history = histories.getIfPresent(event.getShipperId().intValue());
+            if (history != null) {
+                history.refreshedAt = 0;
+            }
+        }
+    }
+
+    private HistoryCursor decode(String cursor) {
+        HistoryCursor position = cursorTokenCodec.decode(cursor, HistoryCursor.class);
+        // The page size travels in the token, a crafted one must not size the page buffer
+        if (position.getPageSize() < 1 || position.getPageSize() > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid or expired cursor");
+        }
+        return position;
+    }
+
+    private ShipperHistory refreshed(int shipperId) {
+        ShipperHistory history = histories.get(shipperId, id -> new ShipperHistory());
+        if (history.refreshedAt == 0 || System.nanoTime() - history.refreshedAt >= refreshNanos) {
+            synchronized (history) {
+                if (history.refreshedAt == 0 || System.nanoTime() - history.refreshedAt >= refreshNanos) {
+                    merge(history, responseReader.readContent(responseReader.readData(
+                            deliveryOrderService.getOrderHistoryBasedOnShipperId(shipperId))));
+                    history.refreshedAt = System.nanoTime();
+                }
+            }
+        }
+        return history;
+    }
+
+    private void merge(ShipperHistory history, List<JsonNode> rows) {
+        // Strictly later than the previous refresh even if the wall clock stepped back
+        long recordedAt = Math.max(System.currentTimeMillis(), history.recordedAt + 1);
+        Set<Long> seen = new HashSet<>();
+        for (JsonNode row : rows) {
+            DeliveryOrderRow order = responseReader.readRow(row, DeliveryOrderRow.class);
+            if (order.getOrderId() == null) {
+                continue;
+            }
+            long orderId = order.getOrderId();
+            seen.add(orderId);
+            if (!DELIVERED.equalsIgnoreCase(order.getStatus())) {
+                // Still in progress, cancelled or taken back: it is not a delivery (any more)
+                history.remove(orderId);
+                continue;
+            }
+            LocalDateTime deliveredAt = ServiceResponseReader.parseDateTime(order.getShippedDate() != null
+                    ? order.getShippedDate()
+                    : order.getOrderDate());
+            long deliveredAtMillis = deliveredAt == null ? Long.MIN_VALUE : deliveredAt.toInstant(ZoneOffset.UTC).toEpochMilli();
+            history.put(new Delivery(new HistoryKey(deliveredAtMillis, orderId), deliveredAt,
+                    order.getOrderValue() == null ? 0 : order.getOrderValue(), recordedAt), row);
+        }
+        history.recordedAt = recordedAt;
+        // Orders the service no longer lists for this shipper were reassigned or deleted
+        history.orders.keySet().removeIf(orderId -> !seen.contains(orderId) && history.removeIndexed(orderId));
+    }
+
+    private static final class ShipperHistory {
+
+        private final ConcurrentSkipListMap<HistoryKey, JsonNode> deliveries = new ConcurrentSkipListMap<>();
+        private final Map<Long, Delivery> orders = new ConcurrentHashMap<>();
+        private volatile double deliveredOrderValue;
+        private volatile long refreshedAt;
+        private volatile long recordedAt;
+
+        private void put(Delivery delivery, JsonNode row) {
+            Delivery previous = orders.get(delivery.key.getOrderId());
+            if (previous != null) {
+                // Already handed out to the app, a changed row must not come back as a new delivery
+                delivery = delivery.recordedAt(previous.recordedAt);
+            }
+            orders.put(delivery.key.getOrderId(), delivery);
+            // Insert the new key before dropping the old one so readers never see the order missing
+            deliveries.put(delivery.key, row);
+            if (previous != null && !previous.key.equals(delivery.key)) {
+                deliveries.remove(previous.key);
+            }
+            deliveredOrderValue += delivery.orderValue - (previous == null ? 0 : previous.orderValue);
+        }
+
+        private void remove(long orderId) {
+            if (removeIndexed(orderId)) {
+                orders.remove(orderId);
+            }
+        }
+
+        // Leaves the orders map alone so it can be called while iterating it
+        private boolean removeIndexed(long orderId) {
+            Delivery delivery = orders.get(orderId);
+            if (delivery == null) {
+                return false;
+            }
+            deliveries.remove(delivery.key);
+            deliveredOrderValue -= delivery.orderValue;
+            return true;
+        }
+
+        private ShipperDeliveryStats stats(int shipperId) {
+            // Newest first and undated deliveries sort last, so the first key holds the latest delivery date
+            Map.Entry<HistoryKey, JsonNode> newest = deliveries.firstEntry();
+            Delivery latest = newest == null ? null : orders.get(newest.getKey().getOrderId());
+            LocalDateTime lastDeliveredAt = latest == null ? null : latest.deliveredAt;
+            return ShipperDeliveryStats.builder()
+                    .shipperId(shipperId)
+                    .deliveries(deliveries.size())
+                    .deliveredOrderValue(deliveredOrderValue)
+                    .lastDeliveredAt(lastDeliveredAt)
+                    .build();
+        }
+    }
+
+    private record Delivery(HistoryKey key, LocalDateTime deliveredAt, double orderValue, long recordedAt) {
+
+        private Delivery recordedAt(long recordedAt) {
+            return new Delivery(key, deliveredAt, orderValue, recordedAt);
+        }
+    }
+
+    /**
+     * Newest first; deliveries without a readable date sort last.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class HistoryKey implements Comparable<HistoryKey> {
+        private long deliveredAt;
+        private long orderId;
+
+        @Override
+        public int compareTo(HistoryKey other) {
+            int byDate = Long.compare(other.deliveredAt, deliveredAt);
+            return byDate != 0 ? byDate : Long.compare(other.orderId, orderId);
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class SyncToken {
+        private long recordedAt;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class HistoryCursor {
+        private int pageSize;
+        private HistoryKey after;
+    }
+}
@@ -0,0 +1,394 @@
+package com.group2.kgrill.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group2.kgrill.dto.CartLine;
+import com.group2.kgrill.dto.StockLevel;
+import com.group2.kgrill.event.CatalogChangedEvent;
+import com.group2.kgrill.event.DeliveryOrderEvent;
+import com.group2.kgrill.service.CatalogPricingService;
+import com.group2.kgrill.service.StockReservationService;
+import com.group2.kgrill.util.ServiceResponseReader;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory ingredient stock ledger. Each tracked ingredient holds its on-hand and reserved quantity in one atomic
+ * reference, so checkouts reserve with compare-and-set and never wait on each other or on the ingredient table; a
+ * checkout reserves its ingredients in id order and rolls back what it took when one is short, so concurrent
+ * checkouts can never drive an ingredient below zero. Accepting the order consumes the reservation, cancelling it
+ * releases it. A reservation is bound to the order id of the cart that was checked out, never to a guessed one.
+ * Reservations without an order are released after {@code kgrill.stock.unbound-reservation-minutes}, bound ones
+ * whose order was neither accepted nor cancelled through this backend after
+ * {@code kgrill.stock.bound-reservation-hours}.
+ * <p>
+ * Only ingredients given an on-hand quantity are tracked, the others are never short. Quantities are in the unit the
+ * recipes use and the ingredients of a package come from the catalog pricing graph. The ledger is written behind to
+ * {@code kgrill.stock.persistence-file} and reloaded on startup.
+ * <p>
+ * The ledger is the stock of record and lives in this process only: the backend must run as a single instance, and
+ * the persistence file must sit on storage that survives a redeploy (the image declares {@code /data} for it). A
+ * second instance would reserve against its own copy and oversell. See {@code docs/deployment.md}.
+ */
+@Slf4j
+@Service
+public class StockReservationServiceImpl implements StockReservationService {
+
+    private static final double UNITS_PER_QUANTITY = 1000;
+
+    private final CatalogPricingService catalogPricingService;
+    private final ServiceResponseReader responseReader;
+    private final ObjectMapper objectMapper;
+    private final Duration unboundReservationTtl;
+    private final Duration boundReservationTtl;
+    private final Path persistenceFile;
+
+    private final Map<Integer, AtomicReference<Levels>> stock = new ConcurrentHashMap<>();
+    private final Map<UUID, Reservation> reservations = new ConcurrentHashMap<>();
+    private final Map<Long, UUID> reservationsByOrder = new ConcurrentHashMap<>();
+    // Ledger changes share the lock, the snapshot takes it exclusively so stock and reservations are written consistently
+    private final ReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+    private volatile boolean dirty;
+
+    public StockReservationServiceImpl(CatalogPricingService catalogPricingService,
+                                       ServiceResponseReader responseReader,
+                                       ObjectMapper objectMapper,
+                                       @Value("${kgrill.stock.unbound-reservation-minutes:15}") long unboundReservationMinutes,
+                                       @Value("${kgrill.stock.bound-reservation-hours:24}") long boundReservationHours,
+                                       @Value("${kgrill.stock.persistence-file:${user.home}/.kgrill/stock-ledger.json}") String persistenceFile) {
+        this.catalogPricingService = catalogPricingService;
+        this.responseReader = responseReader;
+        this.objectMapper = objectMapper;
+        this.unboundReservationTtl = Duration.ofMinutes(unboundReservationMinutes);
+        this.boundReservationTtl = Duration.ofHours(boundReservationHours);
+        this.persistenceFile = persistenceFile.isBlank() ? null : Path.of(persistenceFile);
+    }
+
+    @Override
+    public UUID reserve(UUID userId, Object cartDetail) {
+        JsonNode cart = responseReader.readData(cartDetail);
+        Map<Integer, Long> demand = demandOf(cart);
+        UUID reservationId = UUID.randomUUID();
+        if (demand.isEmpty()) {
+            return reservationId;
+        }
+        snapshotLock.readLock().lock();
+        try {
+            Map<Integer, Long> taken = new HashMap<>();
+            for (Map.Entry<Integer, Long> entry : demand.entrySet()) {
+                if (!tryReserve(entry.getKey(), entry.getValue())) {
+                    taken.forEach((ingredientId, units) -> adjust(ingredientId, 0, -units));
+                    throw new ResponseStatusException(HttpStatus.CONFLICT, "Not enough stock for ingredient " + entry.getKey());
+                }
+                taken.put(entry.getKey(), entry.getValue());
+            }
+            reservations.put(reservationId, new Reservation(demand, null, Instant.now(), null));
+            dirty = true;
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+        return reservationId;
+    }
+
+    @Override
+    public void attachToOrder(UUID reservationId, Long orderId) {
+        Reservation reservation = reservations.get(reservationId);
+        if (reservation == null) {
+            return;
+        }
+        if (orderId == null) {
+            log.error("The checked out cart carried no order id, stock reservation {} cannot be consumed on accept and is released after {}",
+                    reservationId, unboundReservationTtl);
+            return;
+        }
+        snapshotLock.readLock().lock();
+        try {
+            UUID bound = reservationsByOrder.putIfAbsent(orderId, reservationId);
+            if (bound != null && !bound.equals(reservationId)) {
+                log.error("Order {} already holds stock reservation {}, reservation {} stays unbound and is released after {}",
+                        orderId, bound, reservationId, unboundReservationTtl);
+                return;
+            }
+            if (reservations.replace(reservationId, reservation, reservation.boundTo(orderId))) {
+                dirty = true;
+            } else {
+                // Released meanwhile
+                reservationsByOrder.remove(orderId, reservationId);
+            }
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void release(UUID reservationId) {
+        snapshotLock.readLock().lock();
+        try {
+            Reservation reservation = reservations.remove(reservationId);
+            if (reservation != null) {
+                if (reservation.orderId() != null) {
+                    reservationsByOrder.remove(reservation.orderId(), reservationId);
+                }
+                reservation.demand().forEach((ingredientId, units) -> adjust(ingredientId, 0, -units));
+                dirty = true;
+            }
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public StockLevel setOnHand(int ingredientId, double onHand) {
+        long units = toUnits(onHand);
+        snapshotLock.readLock().lock();
+        try {
+            AtomicReference<Levels> levels = stock.computeIfAbsent(ingredientId, id -> new AtomicReference<>(new Levels(0, 0)));
+            Levels updated = levels.updateAndGet(current -> new Levels(units, current.reserved()));
+            dirty = true;
+            return toStockLevel(ingredientId, updated);
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<StockLevel> getStockLevel(int ingredientId) {
+        AtomicReference<Levels> levels = stock.get(ingredientId);
+        return levels == null ? Optional.empty() : Optional.of(toStockLevel(ingredientId, levels.get()));
+    }
+
+    @Override
+    public List<StockLevel> getStockLevels() {
+        List<StockLevel> levels = new ArrayList<>(stock.size());
+        new TreeMap<>(stock).forEach((ingredientId, current) -> levels.add(toStockLevel(ingredientId, current.get())));
+        return levels;
+    }
+
+    @EventListener
+    public void onDeliveryOrderEvent(DeliveryOrderEvent event) {
+        if (event.getOrderId() == null) {
+            return;
+        }
+        switch (event.getType()) {
+            case ACCEPTED -> consume(event.getOrderId());
+            // An accepted order was already cooked, its ingredients are not returned
+            case CANCELLED -> {
+                UUID reservationId = reservationsByOrder.get(event.getOrderId());
+                if (reservationId != null) {
+                    release(reservationId);
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getKind() == CatalogChangedEvent.Kind.INGREDIENT
+                && event.getAction() == CatalogChangedEvent.Action.DELETED && event.getId() != null) {
+            stock.remove(event.getId());
+            dirty = true;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${kgrill.stock.sweep-ms:60000}")
+    public void releaseUnboundReservations() {
+        Instant now = Instant.now();
+        Instant unboundExpiry = now.minus(unboundReservationTtl);
+        Instant boundExpiry = now.minus(boundReservationTtl);
+        reservations.forEach((reservationId, reservation) -> {
+            if (reservation.orderId() == null && reservation.createdAt().isBefore(unboundExpiry)) {
+                log.info("Releasing stock reservation {} that was never tied to an order", reservationId);
+                release(reservationId);
+            } else if (reservation.orderId() != null && reservation.boundSince().isBefore(boundExpiry)) {
+                // Accepted or cancelled outside this process, or the event was lost
+                log.warn("Releasing stock reservation {} of order {} that was neither accepted nor cancelled within {}",
+                        reservationId, reservation.orderId(), boundReservationTtl);
+                release(reservationId);
+            }
+        });
+    }
+
+    @PostConstruct
+    public void load() {
+        if (persistenceFile == null || !Files.exists(persistenceFile)) {
+            return;
+        }
+        try {
+            PersistedLedger ledger = objectMapper.readValue(persistenceFile.toFile(), PersistedLedger.class);
+            ledger.stock().forEach((ingredientId, onHand) -> stock.put(ingredientId, new AtomicReference<>(new Levels(onHand, 0))));
+            ledger.reservations().forEach((reservationId, reservation) -> {
+                reservations.put(reservationId, reservation);
+                if (reservation.orderId() != null) {
+                    reservationsByOrder.put(reservation.orderId(), reservationId);
+                }
+                reservation.demand().forEach((ingredientId, units) -> adjust(ingredientId, 0, units));
+            });
+            log.info("Loaded stock of {} ingredient(s) and {} reservation(s) from {}", stock.size(), reservations.size(), persistenceFile);
+        } catch (IOException e) {
+            log.warn("Could not load the stock ledger from {}", persistenceFile, e);
+        }
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${kgrill.stock.persist-ms:5000}")
+    public void persist() {
+        if (persistenceFile == null || !dirty) {
+            return;
+        }
+        PersistedLedger ledger;
+        snapshotLock.writeLock().lock();
+        try {
+            dirty = false;
+            Map<Integer, Long> onHand = new TreeMap<>();
+            stock.forEach((ingredientId, levels) -> onHand.put(ingredientId, levels.get().onHand()));
+            ledger = new PersistedLedger(onHand, new HashMap<>(reservations));
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+        try {
+            if (persistenceFile.getParent() != null) {
+                Files.createDirectories(persistenceFile.getParent());
+            }
+            Path temp = persistenceFile.resolveSibling(persistenceFile.getFileName() + ".tmp");
+            objectMapper.writeValue(temp.toFile(), ledger);
+            Files.move(temp, persistenceFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty = true;
+            log.warn("Could not persist the stock ledger to {}", persistenceFile, e);
+        }
+    }
+
+    private void consume(long orderId) {
+        snapshotLock.readLock().lock();
+        try {
+            UUID reservationId = reservationsByOrder.remove(orderId);
+            Reservation reservation = reservationId == null ? null : reservations.remove(reservationId);
+            if (reservation != null) {
+                reservation.demand().forEach((ingredientId, units) -> adjust(ingredientId, -units, -units));
+                dirty = true;
+            }
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    private boolean tryReserve(int ingredientId, long units) {
+        AtomicReference<Levels> levels = stock.get(ingredientId);
+        if (levels == null) {
+            return true;
+        }
+        while (true) {
+            Levels current = levels.get();
+            if (current.onHand() - current.reserved() < units) {
+                return false;
+            }
+            if (levels.compareAndSet(current, new Levels(current.onHand(), current.reserved() + units))) {
+                return true;
+            }
+        }
+    }
+
+    private void adjust(int ingredientId, long onHandDelta, long reservedDelta) {
+        AtomicReference<Levels> levels = stock.get(ingredientId);
+        if (levels != null) {
+            levels.updateAndGet(current -> new Levels(current.onHand() + onHandDelta, Math.max(0, current.reserved() + reservedDelta)));
+        }
+    }
+
+    /**
+     * Units of each tracked ingredient the cart needs, in ingredient id order so concurrent checkouts reserve in
+     * the same order.
+     */
+    private Map<Integer, Long> demandOf(JsonNode cart) {
+        Map<Integer, Double> packages = new HashMap<>();
+        collectPackages(cart, 1, packages);
+        Map<Integer, Long> demand = new TreeMap<>();
+        packages.forEach((packageId, packageQuantity) -> {
+            Optional<Map<Integer, Double>> ingredients = catalogPricingService.ingredientsOf(packageId);
+            if (ingredients.isEmpty()) {
+                log.warn("Ingredients of package {} are unknown, checking it out without a stock reservation", packageId);
+                return;
+            }
+            ingredients.get().forEach((ingredientId, quantity) -> {
+                if (stock.containsKey(ingredientId)) {
+                    demand.merge(ingredientId, toUnits(quantity * packageQuantity), Long::sum);
+                }
+            });
+        });
+        return demand;
+    }
+
+    private void collectPackages(JsonNode node, double inheritedQuantity, Map<Integer, Double> packages) {
+        if (node.isObject()) {
+            CartLine line = responseReader.readRow(node, CartLine.class);
+            double quantity = line.getQuantity() != null ? line.getQuantity() : inheritedQuantity;
+            if (line.getPackageId() != null) {
+                packages.merge(line.getPackageId(), quantity, Double::sum);
+                return;
+            }
+            // A cart line may nest the package under the line that carries the quantity
+            double lineQuantity = quantity;
+            node.forEach(child -> collectPackages(child, lineQuantity, packages));
+        } else if (node.isArray()) {
+            node.forEach(child -> collectPackages(child, inheritedQuantity, packages));
+        }
+    }
+
+    private static long toUnits(double quantity) {
+        return Math.round(quantity * UNITS_PER_QUANTITY);
+    }
+
+    private static StockLevel toStockLevel(int ingredientId, Levels levels) {
+        return StockLevel.builder()
+                .ingredientId(ingredientId)
+                .onHand(levels.onHand() / UNITS_PER_QUANTITY)
+                .reserved(levels.reserved() / UNITS_PER_QUANTITY)
+                .available((levels.onHand() - levels.reserved()) / UNITS_PER_QUANTITY)
+                .build();
+    }
+
+    private record Levels(long onHand, long reserved) {
+    }
+
+    private record Reservation(Map<Integer, Long> demand, Long orderId, Instant createdAt, Instant boundAt) {
+
+        private Reservation boundTo(long orderId) {
+            return new Reservation(demand, orderId, createdAt, Instant.now());
+        }
+
+        // Ledgers written before reservations recorded when they were bound
+        private Instant boundSince() {
+            return boundAt != null ? boundAt : createdAt;
+        }
+    }
+
+    private record PersistedLedger(Map<Integer, Long> stock, Map<UUID, Reservation> reservations) {
+    }
+}
@@ -0,0 +1,43 @@
+package com.group2.kgrill.service.impl;
+
+import com.group2.kgrill.service.PushNotificationSender;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Offline stand-in for FCM, enabled with {@code kgrill.notification.sender=stub}. Records every message instead of sending it.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "kgrill.notification.sender", havingValue = "stub")
+public class StubPushNotificationSender implements PushNotificationSender {
+
+    public record SentNotification(String deviceToken, String title, String body) {
+    }
+
+    private final List<SentNotification> sent = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public List<String> sendMulticast(String title, String body, List<String> deviceTokens) {
+        for (String deviceToken : deviceTokens) {
+            sent.add(new SentNotification(deviceToken, title, body));
+        }
+        log.info("Stub push notification '{}' sent to {} device(s)", title, deviceTokens.size());
+        return List.of();
+    }
+
+    public List<SentNotification> getSent() {
+        synchronized (sent) {
+            return List.copyOf(sent);
+        }
+    }
+
+    public void clear() {
+        sent.clear();
+    }
+}
@@ -0,0 +1,201 @@
+package com.group2.kgrill.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.group2.kgrill.dto.CacheStatsDTO;
+import com.group2.kgrill.service.TokenVerificationService;
+import com.group2.kgrill.util.BloomFilter;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.swd392.group2.kgrill_service.dto.AuthenticationResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hot-path cache of bearer tokens the JWT filter has already verified. A hit lets the request skip signature
+ * verification and the token table lookup; it is only served while the token is unexpired, younger than
+ * {@code kgrill.token-cache.ttl-seconds} in the cache and its subject has no newer revocation.
+ * <p>
+ * Sign-in, refresh, logout and admin account changes revoke every older token of the user, so revocations are
+ * tracked per subject: a Bloom filter answers "no revocation" for the common case and the cutoff map is only read
+ * on a positive.
+ * Revocations only have to outlive cache entries, so both are rotated every TTL and kept for two generations.
+ * The cache never rejects a token itself, anything doubtful falls through to the full check.
+ */
+@Slf4j
+@Service
+public class TokenVerificationServiceImpl implements TokenVerificationService {
+
+    private final Duration ttl;
+    private final int revocationBits;
+    private final int revocationHashes;
+
+    private final Cache<String, VerifiedToken> verifiedTokens;
+    private final Map<String, Instant> subjectCutoffs = new ConcurrentHashMap<>();
+    private volatile RevocationGenerations revocations;
+
+    public TokenVerificationServiceImpl(@Value("${kgrill.token-cache.max-size:10000}") long maxSize,
+                                        @Value("${kgrill.token-cache.ttl-seconds:300}") long ttlSeconds,
+                                        @Value("${kgrill.token-cache.revocation-bits:65536}") int revocationBits,
+                                        @Value("${kgrill.token-cache.revocation-hashes:4}") int revocationHashes) {
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.revocationBits = revocationBits;
+        this.revocationHashes = revocationHashes;
+        this.revocations = new RevocationGenerations(newFilter(), newFilter(), Instant.now());
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String token, VerifiedToken verified, long currentTime) {
+                        Duration untilExpiry = verified.expiresAt == null
+                                ? ttl
+                                : Duration.between(Instant.now(), verified.expiresAt);
+                        return Math.max(0, Math.min(ttl.toNanos(), untilExpiry.toNanos()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+                        return expireAfterCreate(token, verified, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Optional<Authentication> lookup(String token) {
+        VerifiedToken verified = verifiedTokens.getIfPresent(token);
+        if (verified == null) {
+            return Optional.empty();
+        }
+        if (isRevoked(verified)) {
+            verifiedTokens.invalidate(token);
+            return Optional.empty();
+        }
+        return Optional.of(verified.authentication);
+    }
+
+    @Override
+    public void remember(String token, Authentication authentication) {
+        claimsOf(token).ifPresent(claims -> {
+            VerifiedToken verified = new VerifiedToken(authentication, claims.getSubject(),
+                    toInstant(claims.getIssueTime()), toInstant(claims.getExpirationTime()));
+            // The request may have been verified just before a concurrent logout
+            if (verified.subject != null && !isRevoked(verified)) {
+                verifiedTokens.put(token, verified);
+            }
+        });
+    }
+
+    @Override
+    public void revokeSubject(String token, Instant issuedBefore) {
+        claimsOf(token).map(JWTClaimsSet::getSubject).ifPresent(subject -> revoke(subject, issuedBefore));
+    }
+
+    @Override
+    public void revokeAccount(String email) {
+        if (email != null && !email.isBlank()) {
+            revoke(email.trim(), Instant.now());
+        }
+    }
+
+    @Override
+    public void onTokensIssued(AuthenticationResponse authenticationResponse) {
+        if (authenticationResponse == null || authenticationResponse.getAccessToken() == null) {
+            return;
+        }
+        claimsOf(authenticationResponse.getAccessToken()).ifPresent(claims -> {
+            Instant issuedAt = toInstant(claims.getIssueTime());
+            if (claims.getSubject() != null) {
+                // iat has second precision, tokens from the same second as the new one are kept
+                revoke(claims.getSubject(), issuedAt != null ? issuedAt : Instant.now().truncatedTo(ChronoUnit.SECONDS));
+            }
+        });
+    }
+
+    @Override
+    public CacheStatsDTO getStats() {
+        CacheStats stats = verifiedTokens.stats();
+        return CacheStatsDTO.builder()
+                .name("jwtVerification")
+                .hits(stats.hitCount())
+                .misses(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictions(stats.evictionCount())
+                .estimatedSize(verifiedTokens.estimatedSize())
+                .build();
+    }
+
+    private void revoke(String subject, Instant issuedBefore) {
+        subjectCutoffs.merge(subject, issuedBefore, (current, added) -> added.isAfter(current) ? added : current);
+        currentRevocations().current.put(subject);
+    }
+
+    private boolean isRevoked(VerifiedToken verified) {
+        RevocationGenerations generations = currentRevocations();
+        if (!generations.current.mightContain(verified.subject) && !generations.previous.mightContain(verified.subject)) {
+            return false;
+        }
+        Instant cutoff = subjectCutoffs.get(verified.subject);
+        return cutoff != null && (verified.issuedAt == null || verified.issuedAt.isBefore(cutoff));
+    }
+
+    private RevocationGenerations currentRevocations() {
+        RevocationGenerations generations = revocations;
+        if (generations.startedAt.plus(ttl).isAfter(Instant.now())) {
+            return generations;
+        }
+        synchronized (this) {
+            generations = revocations;
+            Instant now = Instant.now();
+            if (!generations.startedAt.plus(ttl).isAfter(now)) {
+                // Entries cached before a cutoff have expired by now, only the previous generation is still needed
+                Instant droppedBefore = generations.startedAt;
+                subjectCutoffs.values().removeIf(cutoff -> cutoff.isBefore(droppedBefore));
+                generations = new RevocationGenerations(newFilter(), generations.current, now);
+                revocations = generations;
+            }
+            return generations;
+        }
+    }
+
+    private BloomFilter newFilter() {
+        return new BloomFilter(revocationBits, revocationHashes);
+    }
+
+    private static Optional<JWTClaimsSet> claimsOf(String token) {
+        try {
+            return Optional.of(SignedJWT.parse(token).getJWTClaimsSet());
+        } catch (ParseException e) {
+            log.debug("Bearer token is not a signed JWT", e);
+            return Optional.empty();
+        }
+    }
+
+    private static Instant toInstant(java.util.Date date) {
+        return date == null ? null : date.toInstant();
+    }
+
+    private record VerifiedToken(Authentication authentication, String subject, Instant issuedAt, Instant expiresAt) {
+    }
+
+    private record RevocationGenerations(BloomFilter current, BloomFilter previous, Instant startedAt) {
+    }
+}
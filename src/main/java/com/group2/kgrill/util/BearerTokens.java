@@ -0,0 +1,23 @@
+package com.group2.kgrill.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+
+public final class BearerTokens {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private BearerTokens() {
+    }
+
+    /**
+     * Returns the bearer token of the request, or {@code null} when there is none.
+     */
+    public static String resolve(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER_PREFIX) || header.length() == BEARER_PREFIX.length()) {
+            return null;
+        }
+        return header.substring(BEARER_PREFIX.length()).trim();
+    }
+}
@@ -0,0 +1,180 @@
+package com.group2.kgrill.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resolves the address of the client behind the reverse proxy, where {@link HttpServletRequest#getRemoteAddr()} is
+ * the proxy's own address. The X-Forwarded-For hops are only read when the connection comes from a proxy listed in
+ * {@code kgrill.forwarded.trusted-proxies} (addresses or CIDR ranges), and are walked from the right: the first hop
+ * that is not a trusted proxy is the client, so entries a client prepends itself are never reached.
+ */
+@Component
+public class ClientAddressResolver {
+
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+
+    private final List<Range> trustedProxies = new ArrayList<>();
+
+    public ClientAddressResolver(@Value("${kgrill.forwarded.trusted-proxies:127.0.0.0/8,::1/128,10.0.0.0/8,172.16.0.0/12,192.168.0.0/16,fc00::/7}")
+                                 List<String> trustedProxies) {
+        for (String proxy : trustedProxies) {
+            if (!proxy.isBlank()) {
+                this.trustedProxies.add(Range.parse(proxy.trim()));
+            }
+        }
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        if (!isTrusted(remoteAddr)) {
+            return remoteAddr;
+        }
+        String client = remoteAddr;
+        List<String> headers = Collections.list(request.getHeaders(FORWARDED_FOR));
+        for (int i = headers.size() - 1; i >= 0; i--) {
+            String[] hops = headers.get(i).split(",");
+            for (int j = hops.length - 1; j >= 0; j--) {
+                String hop = hops[j].trim();
+                if (hop.isEmpty()) {
+                    continue;
+                }
+                client = hop;
+                if (!isTrusted(hop)) {
+                    return canonical(hop);
+                }
+            }
+        }
+        // Every hop is a trusted proxy, the leftmost one is as close to the client as we can get
+        return canonical(client);
+    }
+
+    // One spelling per address, without port or brackets, so a client cannot get fresh rate-limit keys
+    private static String canonical(String address) {
+        byte[] bytes = toBytes(address);
+        try {
+            return bytes == null ? address : InetAddress.getByAddress(bytes).getHostAddress();
+        } catch (UnknownHostException e) {
+            return address;
+        }
+    }
+
+    private boolean isTrusted(String address) {
+        byte[] bytes = toBytes(address);
+        if (bytes == null) {
+            return false;
+        }
+        for (Range range : trustedProxies) {
+            if (range.contains(bytes)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Literal addresses only: a hop is client supplied text and must never cause a DNS lookup
+    private static byte[] toBytes(String address) {
+        if (address == null || address.isEmpty()) {
+            return null;
+        }
+        if (address.startsWith("[")) {
+            int end = address.indexOf(']');
+            return end < 0 ? null : ipv6(address.substring(1, end));
+        }
+        int colon = address.indexOf(':');
+        if (colon < 0) {
+            return ipv4(address);
+        }
+        if (colon == address.lastIndexOf(':') && address.indexOf('.') >= 0) {
+            // IPv4 with a port
+            return ipv4(address.substring(0, colon));
+        }
+        return ipv6(address);
+    }
+
+    private static byte[] ipv4(String address) {
+        String[] parts = address.split("\\.", -1);
+        if (parts.length != 4) {
+            return null;
+        }
+        byte[] bytes = new byte[4];
+        for (int i = 0; i < 4; i++) {
+            String part = parts[i];
+            if (part.isEmpty() || part.length() > 3 || !part.chars().allMatch(c -> c >= '0' && c <= '9')) {
+                return null;
+            }
+            int value = Integer.parseInt(part);
+            if (value > 255) {
+                return null;
+            }
+            bytes[i] = (byte) value;
+        }
+        return bytes;
+    }
+
+    private static byte[] ipv6(String address) {
+        int zone = address.indexOf('%');
+        String literal = zone < 0 ? address : address.substring(0, zone);
+        if (literal.indexOf(':') < 0 || !literal.chars().allMatch(c -> c == ':' || c == '.' || Character.digit(c, 16) >= 0)) {
+            return null;
+        }
+        try {
+            // Text containing ':' is always parsed as an IPv6 literal, never resolved
+            byte[] bytes = InetAddress.getByName(literal).getAddress();
+            return bytes.length == 16 && isMappedIpv4(bytes) ? Arrays.copyOfRange(bytes, 12, 16) : bytes;
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    private static boolean isMappedIpv4(byte[] bytes) {
+        for (int i = 0; i < 10; i++) {
+            if (bytes[i] != 0) {
+                return false;
+            }
+        }
+        return bytes[10] == (byte) 0xff && bytes[11] == (byte) 0xff;
+    }
+
+    private record Range(byte[] network, int prefixLength) {
+
+        static Range parse(String value) {
+            int slash = value.indexOf('/');
+            byte[] network = toBytes(slash < 0 ? value : value.substring(0, slash));
+            if (network == null) {
+                throw new IllegalArgumentException("Invalid trusted proxy address: " + value);
+            }
+            int prefixLength = slash < 0 ? network.length * 8 : Integer.parseInt(value.substring(slash + 1));
+            if (prefixLength < 0 || prefixLength > network.length * 8) {
+                throw new IllegalArgumentException("Invalid trusted proxy prefix length: " + value);
+            }
+            return new Range(network, prefixLength);
+        }
+
+        boolean contains(byte[] address) {
+            if (address.length != network.length) {
+                return false;
+            }
+            int fullBytes = prefixLength / 8;
+            for (int i = 0; i < fullBytes; i++) {
+                if (address[i] != network[i]) {
+                    return false;
+                }
+            }
+            int remainingBits = prefixLength % 8;
+            if (remainingBits == 0) {
+                return true;
+            }
+            int mask = 0xff << (8 - remainingBits) & 0xff;
+            return (address[fullBytes] & mask) == (network[fullBytes] & mask);
+        }
+    }
+}
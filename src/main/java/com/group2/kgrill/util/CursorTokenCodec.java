@@ -0,0 +1,37 @@
+package com.group2.kgrill.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.Base64;
+
+/**
+ * Encodes cursor state into opaque, URL-safe continuation tokens so clients never depend on its layout.
+ */
+@Component
+@RequiredArgsConstructor
+public class CursorTokenCodec {
+
+    private final ObjectMapper objectMapper;
+
+    public String encode(Object cursor) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(cursor));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode cursor", e);
+        }
+    }
+
+    public <T> T decode(String token, Class<T> type) {
+        try {
+            return objectMapper.readValue(Base64.getUrlDecoder().decode(token), type);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid or expired cursor");
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.group2.kgrill.util;
+
+/**
+ * Evaluates an If-None-Match header, a comma-separated list of quoted entity tags (each optionally weak, {@code W/})
+ * or {@code *}. If-None-Match uses the weak comparison: two tags match when their quoted values are equal,
+ * whether or not either carries the weak prefix. A substring test would also match a tag that merely contains
+ * the current one.
+ */
+public final class EntityTags {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private EntityTags() {
+    }
+
+    /**
+     * True when the header lists {@code *} or a tag equal to {@code eTag}, i.e. the client's copy is current.
+     */
+    public static boolean noneMatchHit(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || eTag == null) {
+            return false;
+        }
+        String current = opaqueTag(eTag);
+        int length = ifNoneMatch.length();
+        int i = 0;
+        while (i < length) {
+            char c = ifNoneMatch.charAt(i);
+            if (c == ',' || Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            if (c == '*') {
+                return true;
+            }
+            if (ifNoneMatch.startsWith(WEAK_PREFIX, i)) {
+                i += WEAK_PREFIX.length();
+            }
+            int end = i < length && ifNoneMatch.charAt(i) == '"' ? ifNoneMatch.indexOf('"', i + 1) : -1;
+            if (end < 0) {
+                // Not a quoted tag, skip to the next list member
+                int comma = ifNoneMatch.indexOf(',', i);
+                i = comma < 0 ? length : comma + 1;
+                continue;
+            }
+            if (ifNoneMatch.regionMatches(i, current, 0, current.length()) && end + 1 - i == current.length()) {
+                return true;
+            }
+            i = end + 1;
+        }
+        return false;
+    }
+
+    private static String opaqueTag(String eTag) {
+        String tag = eTag.startsWith(WEAK_PREFIX) ? eTag.substring(WEAK_PREFIX.length()) : eTag;
+        return tag.startsWith("\"") ? tag : "\"" + tag + "\"";
+    }
+}
@@ -0,0 +1,150 @@
+package com.group2.kgrill.util;
+
+import org.w3c.dom.Node;
+
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import java.awt.geom.AffineTransform;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the EXIF Orientation tag of a JPEG from the native ImageIO metadata, which exposes the APP1 segment as
+ * raw bytes. Phones store the pixels as the sensor saw them and record the rotation in this tag only, so an image
+ * re-encoded without it is shown sideways or upside down.
+ */
+public final class ExifOrientation {
+
+    public static final int NORMAL = 1;
+
+    private static final String JPEG_METADATA_FORMAT = "javax_imageio_jpeg_image_1.0";
+    private static final String APP1_MARKER = "225";
+    private static final byte[] EXIF_HEADER = "Exif\0\0".getBytes(StandardCharsets.ISO_8859_1);
+    private static final int ORIENTATION_TAG = 0x0112;
+
+    private ExifOrientation() {
+    }
+
+    /**
+     * The orientation (1-8) recorded in the metadata, {@link #NORMAL} when there is none or it cannot be read.
+     */
+    public static int read(IIOMetadata metadata) {
+        if (metadata == null || !isSupported(metadata)) {
+            return NORMAL;
+        }
+        Node markers = child(metadata.getAsTree(JPEG_METADATA_FORMAT), "markerSequence");
+        for (Node marker = markers == null ? null : markers.getFirstChild(); marker != null; marker = marker.getNextSibling()) {
+            if ("unknown".equals(marker.getNodeName()) && marker instanceof IIOMetadataNode node
+                    && APP1_MARKER.equals(node.getAttribute("MarkerTag")) && node.getUserObject() instanceof byte[] segment) {
+                int orientation = fromApp1(segment);
+                if (orientation != 0) {
+                    return orientation;
+                }
+            }
+        }
+        return NORMAL;
+    }
+
+    /**
+     * True for the orientations that swap width and height.
+     */
+    public static boolean isTransposed(int orientation) {
+        return orientation >= 5 && orientation <= 8;
+    }
+
+    /**
+     * Maps the stored image of the given size onto the upright image.
+     */
+    public static AffineTransform toUpright(int orientation, int storedWidth, int storedHeight) {
+        AffineTransform transform = new AffineTransform();
+        switch (orientation) {
+            case 2 -> {
+                transform.translate(storedWidth, 0);
+                transform.scale(-1, 1);
+            }
+            case 3 -> {
+                transform.translate(storedWidth, storedHeight);
+                transform.quadrantRotate(2);
+            }
+            case 4 -> {
+                transform.translate(0, storedHeight);
+                transform.scale(1, -1);
+            }
+            case 5 -> {
+                transform.quadrantRotate(1);
+                transform.scale(1, -1);
+            }
+            case 6 -> {
+                transform.translate(storedHeight, 0);
+                transform.quadrantRotate(1);
+            }
+            case 7 -> {
+                transform.translate(storedHeight, storedWidth);
+                transform.quadrantRotate(-1);
+                transform.scale(1, -1);
+            }
+            case 8 -> {
+                transform.translate(0, storedWidth);
+                transform.quadrantRotate(-1);
+            }
+            default -> {
+                // Normal or unknown, keep the pixels as stored
+            }
+        }
+        return transform;
+    }
+
+    private static boolean isSupported(IIOMetadata metadata) {
+        for (String format : metadata.getMetadataFormatNames()) {
+            if (JPEG_METADATA_FORMAT.equals(format)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Node child(Node parent, String name) {
+        for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (name.equals(child.getNodeName())) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    // Walks IFD0 of the TIFF structure following the Exif header; 0 when the tag is absent or the segment is cut short
+    private static int fromApp1(byte[] segment) {
+        if (segment.length < EXIF_HEADER.length + 8) {
+            return 0;
+        }
+        for (int i = 0; i < EXIF_HEADER.length; i++) {
+            if (segment[i] != EXIF_HEADER[i]) {
+                return 0;
+            }
+        }
+        int tiff = EXIF_HEADER.length;
+        ByteBuffer buffer = ByteBuffer.wrap(segment);
+        if (segment[tiff] == 'I' && segment[tiff + 1] == 'I') {
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+        } else if (segment[tiff] != 'M' || segment[tiff + 1] != 'M') {
+            return 0;
+        }
+        long ifd = tiff + Integer.toUnsignedLong(buffer.getInt(tiff + 4));
+        if (ifd + 2 > segment.length) {
+            return 0;
+        }
+        int entries = Short.toUnsignedInt(buffer.getShort((int) ifd));
+        for (int i = 0; i < entries; i++) {
+            int entry = (int) ifd + 2 + i * 12;
+            if (entry + 12 > segment.length) {
+                return 0;
+            }
+            if (Short.toUnsignedInt(buffer.getShort(entry)) == ORIENTATION_TAG) {
+                int orientation = Short.toUnsignedInt(buffer.getShort(entry + 8));
+                return orientation >= 1 && orientation <= 8 ? orientation : 0;
+            }
+        }
+        return 0;
+    }
+}
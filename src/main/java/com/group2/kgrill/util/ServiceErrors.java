@@ -0,0 +1,40 @@
+package com.group2.kgrill.util;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Tells write-behind queues whether a failed kgrill-service call is worth retrying: client errors and missing or
+ * invalid entities fail the same way every time, anything else may be a transient outage.
+ */
+public final class ServiceErrors {
+
+    private ServiceErrors() {
+    }
+
+    public static boolean isRetryable(RuntimeException e) {
+        if (e instanceof ResponseStatusException statusException) {
+            return statusException.getStatusCode().is5xxServerError();
+        }
+        return !(e instanceof NonTransientDataAccessException
+                || e instanceof EntityNotFoundException
+                || e instanceof IllegalArgumentException
+                || e instanceof NoSuchElementException);
+    }
+
+    /**
+     * True when kgrill-service turned the request down (a missing or invalid entity, a 4xx) rather than failing
+     * to serve it.
+     */
+    public static boolean isRejected(RuntimeException e) {
+        if (e instanceof ResponseStatusException statusException) {
+            return statusException.getStatusCode().is4xxClientError();
+        }
+        return e instanceof EntityNotFoundException
+                || e instanceof IllegalArgumentException
+                || e instanceof NoSuchElementException;
+    }
+}
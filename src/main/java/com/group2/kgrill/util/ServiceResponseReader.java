@@ -0,0 +1,76 @@
+package com.group2.kgrill.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the JSON shape produced by the kgrill-service layer ({@code CustomSuccessHandler} bodies and
+ * paged {@code content}/{@code last} objects) without depending on its internal DTO classes.
+ */
+@Component
+@RequiredArgsConstructor
+public class ServiceResponseReader {
+
+    private static final DateTimeFormatter SQL_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss[.SSS][.SS][.S]");
+
+    private final ObjectMapper objectMapper;
+
+    public JsonNode readData(Object result) {
+        JsonNode node = readBody(result);
+        return node.has("data") ? node.get("data") : node;
+    }
+
+    /**
+     * The whole body as a tree, without unwrapping {@code data}.
+     */
+    public JsonNode readBody(Object result) {
+        Object body = result instanceof ResponseEntity<?> responseEntity ? responseEntity.getBody() : result;
+        if (body == null) {
+            return MissingNode.getInstance();
+        }
+        return objectMapper.valueToTree(body);
+    }
+
+    public List<JsonNode> readContent(JsonNode data) {
+        JsonNode content = data.isArray() ? data : data.path("content");
+        List<JsonNode> rows = new ArrayList<>(content.size());
+        content.forEach(rows::add);
+        return rows;
+    }
+
+    public <T> T readRow(JsonNode row, Class<T> type) {
+        return objectMapper.convertValue(row, type);
+    }
+
+    public boolean isLastPage(JsonNode data) {
+        return !data.has("last") || data.path("last").asBoolean(true);
+    }
+
+    public static LocalDateTime parseDateTime(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return OffsetDateTime.parse(value).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        } catch (DateTimeParseException ignored) {
+            // fall through to the SQL timestamp format used by the manager projections
+        }
+        try {
+            return LocalDateTime.parse(value, SQL_TIMESTAMP);
+        } catch (DateTimeParseException ignored) {
+            return null;
+        }
+    }
+}